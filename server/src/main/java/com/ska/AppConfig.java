@@ -1,18 +1,36 @@
 package com.ska;
 
 
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ska.controller.interceptor.OriginDeviceInterceptor;
+
+import lombok.RequiredArgsConstructor;
 
 
 @Configuration
-public class AppConfig {
+@EnableCaching
+@EnableScheduling
+@RequiredArgsConstructor
+public class AppConfig implements WebMvcConfigurer {
+
+    private final OriginDeviceInterceptor originDeviceInterceptor;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(originDeviceInterceptor);
+    }
+
 }
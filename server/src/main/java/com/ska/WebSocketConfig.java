@@ -0,0 +1,30 @@
+package com.ska;
+
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.ska.controller.ws.DeviceHandshakeInterceptor;
+import com.ska.controller.ws.SyncWebSocketHandler;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final SyncWebSocketHandler syncWebSocketHandler;
+    private final DeviceHandshakeInterceptor deviceHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(syncWebSocketHandler, SyncConstants.Socket.PATH)
+                .addInterceptors(deviceHandshakeInterceptor);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.ska.controller;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ska.dto.device.response.DeviceResponse;
+import com.ska.service.contract.DeviceService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@RestController
+@RequestMapping("api/devices")
+@RequiredArgsConstructor
+public final class DeviceController {
+
+    private final DeviceService deviceService;
+    private static final String ROOT = "api/devices";
+
+    @PostMapping("/{userId}/{deviceUuid}")
+    public ResponseEntity<DeviceResponse> registerDevice(@PathVariable Long userId, @PathVariable UUID deviceUuid) {
+        log.info("POST - {}/{}/{}", ROOT, userId, deviceUuid);
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                DeviceResponse.of(deviceService.register(userId, deviceUuid)));
+    }
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<DeviceResponse>> getAllDevicesForUser(@PathVariable Long userId) {
+        log.info("GET - {}/{}", ROOT, userId);
+        return ResponseEntity.ok(deviceService.getAll(userId).stream().map(DeviceResponse::of).toList());
+    }
+
+    @DeleteMapping("/{userId}/{deviceUuid}")
+    public ResponseEntity<Void> deleteDevice(@PathVariable Long userId, @PathVariable UUID deviceUuid) {
+        log.info("DELETE - {}/{}/{}", ROOT, userId, deviceUuid);
+        deviceService.delete(userId, deviceUuid);
+        return ResponseEntity.noContent().build();
+    }
+
+}
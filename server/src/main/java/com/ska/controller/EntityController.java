@@ -1,10 +1,18 @@
 package com.ska.controller;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,16 +20,42 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ska.dto.entity.request.EntityBatchRequest;
 import com.ska.dto.entity.request.EntityCreateRequest;
 import com.ska.dto.entity.request.EntityUpdateAllRequest;
 import com.ska.dto.entity.request.EntityUpdateMetadataRequest;
+import com.ska.dto.entity.response.EntityBatchDeleteResponse;
+import com.ska.dto.entity.response.EntityChangesResponse;
+import com.ska.dto.entity.response.EntityItemResponse;
+import com.ska.dto.entity.response.EntityMetadataPageResponse;
+import com.ska.dto.entity.response.EntityMetadataResponse;
+import com.ska.dto.entity.response.EntityPageResponse;
 import com.ska.dto.entity.response.EntityResponse;
+import com.ska.dto.entity.response.EntityTreeResponse;
 import com.ska.model.syncable.Syncable;
+import com.ska.repository.projection.SyncableMetadataView;
 import com.ska.service.contract.EntityService;
+import com.ska.service.contract.MerkleTreeService;
+import com.ska.service.contract.SnapshotService;
+import com.ska.service.result.Snapshot;
+import com.ska.service.result.SyncablePayload;
+import com.ska.service.result.SyncableRevision;
+import com.ska.util.BoundedBytes;
+import com.ska.util.ETags;
+import com.ska.util.NdjsonWriter;
+import com.ska.util.constant.EntityConstants;
+import com.ska.util.constant.SyncConstants;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,55 +68,315 @@ import lombok.extern.slf4j.Slf4j;
 public final class EntityController {
 
     private final EntityService entityService;
+    private final MerkleTreeService merkleTreeService;
+    private final SnapshotService snapshotService;
+    private final ObjectMapper objectMapper;
     private static final String ROOT = "api/entities";
 
+    private static byte[] readMetadata(InputStream inputStream) {
+        return BoundedBytes.read(inputStream, EntityConstants.Metadata.ENCRYPTED_DATA_SIZE_MAX, "Encrypted metadata");
+    }
+
+    private static byte[] readContent(InputStream inputStream) {
+        return BoundedBytes.read(inputStream, EntityConstants.Content.ENCRYPTED_DATA_SIZE_MAX, "Encrypted content");
+    }
+
+    // answers from the version projection, so encrypted payload is not loaded
+    private <T> ResponseEntity<T> checkNotModified(Long userId, UUID uuid, String ifNoneMatch) {
+        if (ifNoneMatch == null)
+            return null;
+
+        long changeSeq = entityService.getChangeSeq(userId, uuid);
+        if (!ETags.matchesAny(ifNoneMatch, changeSeq))
+            return null;
+
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(changeSeq)).build();
+    }
+
+    // zero-copy through Tomcat sendfile when the connector offers it, transferTo into the response otherwise
+    private static StreamingResponseBody transferSnapshot(Snapshot snapshot, HttpServletRequest request) {
+        if (!Boolean.TRUE.equals(request.getAttribute(SyncConstants.Snapshot.SENDFILE_SUPPORTED_ATTRIBUTE)))
+            return outputStream -> {
+                try (FileChannel file = FileChannel.open(snapshot.path(), StandardOpenOption.READ)) {
+                    WritableByteChannel target = Channels.newChannel(outputStream);
+                    for (long position = 0; position < snapshot.size();)
+                        position += file.transferTo(position, snapshot.size() - position, target);
+                }
+            };
+
+        request.setAttribute(SyncConstants.Snapshot.SENDFILE_FILENAME_ATTRIBUTE, snapshot.path().toString());
+        request.setAttribute(SyncConstants.Snapshot.SENDFILE_START_ATTRIBUTE, 0L);
+        request.setAttribute(SyncConstants.Snapshot.SENDFILE_END_ATTRIBUTE, snapshot.size());
+        return null;
+    }
+
     @PostMapping("/{userId}/{uuid}")
     public ResponseEntity<EntityResponse> createEntity(
             @PathVariable Long userId,
             @PathVariable UUID uuid,
             @Valid @RequestBody EntityCreateRequest request) {
         log.info("POST - {}/{}", ROOT, userId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(
-                EntityResponse.of(entityService.create(userId, uuid, request)));
+
+        Syncable created = entityService.create(userId, uuid, request);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(created.getChangeSeq())).body(
+                EntityResponse.of(created));
+    }
+
+    @PostMapping(value = "/{userId}/{uuid}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> createEntityFromParts(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestPart("metadata") MultipartFile metadata,
+            @RequestPart("content") MultipartFile content) throws IOException {
+        log.info("POST (multipart) - {}/{}/{}", ROOT, userId, uuid);
+
+        Syncable created = entityService.create(
+                userId,
+                uuid,
+                readMetadata(metadata.getInputStream()),
+                readContent(content.getInputStream()));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(created.getChangeSeq())).build();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Syncable>> getAllEntitiesForUser(@PathVariable Long userId) {
+    public ResponseEntity<EntityPageResponse> getAllEntitiesForUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         log.info("GET - {}/{}", ROOT, userId);
+        return ResponseEntity.ok(EntityPageResponse.of(entityService.getAll(userId, cursor, limit)));
+    }
 
-        List<Syncable> notes = entityService.getAll(userId);
-        return ResponseEntity.ok(notes);
+    @GetMapping(value = "/{userId}", params = "fields=metadata")
+    public ResponseEntity<EntityMetadataPageResponse> getAllEntityMetadataForUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET - {}/{}?fields=metadata", ROOT, userId);
+        return ResponseEntity.ok(EntityMetadataPageResponse.of(entityService.getAllMetadata(userId, cursor, limit)));
+    }
+
+    @GetMapping("/{userId}/changes")
+    public ResponseEntity<EntityChangesResponse> getEntityChangesForUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET - {}/{}/changes", ROOT, userId);
+        return ResponseEntity.ok(EntityChangesResponse.of(entityService.getChanges(userId, since, limit)));
+    }
+
+    @GetMapping("/{userId}/tree")
+    public ResponseEntity<EntityTreeResponse> walkEntityTreeForUser(
+            @PathVariable Long userId,
+            @RequestParam(name = "prefix", required = false) List<String> prefixes) {
+        log.info("GET - {}/{}/tree", ROOT, userId);
+        return ResponseEntity.ok(EntityTreeResponse.of(merkleTreeService.walk(userId, prefixes)));
+    }
+
+    @GetMapping(value = "/{userId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEntitiesForUser(@PathVariable Long userId) {
+        log.info("GET - {}/{}/export", ROOT, userId);
+
+        StreamingResponseBody body = outputStream -> {
+            int flushEvery = EntityConstants.Export.FLUSH_EVERY;
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream, flushEvery)) {
+                entityService.exportAll(userId, entity -> writer.write(EntityResponse.of(entity)));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // the ETag is the watermark, files of one watermark are byte for byte the same
+    @GetMapping(value = "/{userId}/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadSnapshotForUser(
+            @PathVariable Long userId,
+            HttpServletRequest request) {
+        log.info("GET - {}/{}/snapshot", ROOT, userId);
+
+        Snapshot snapshot = snapshotService.getOrBuild(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(snapshot.size())
+                .eTag(ETags.of(snapshot.changeSeq()))
+                .body(transferSnapshot(snapshot, request));
+    }
+
+    @PostMapping(
+            value = "/{userId}/batch-get",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getEntitiesByUuids(
+            @PathVariable Long userId,
+            @Valid @RequestBody EntityBatchRequest request) {
+        log.info("POST - {}/{}/batch-get", ROOT, userId);
+
+        StreamingResponseBody body = outputStream -> {
+            int flushEvery = EntityConstants.Export.FLUSH_EVERY;
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream, flushEvery)) {
+                entityService.getAllByUuids(
+                        userId,
+                        request.uuids(),
+                        result -> writer.write(EntityItemResponse.of(result)));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{userId}/{uuid}")
-    public ResponseEntity<EntityResponse> getEntityByUuid(@PathVariable Long userId, @PathVariable UUID noteUuid) {
-        log.info("GET - {}/{}/{}", ROOT, userId, noteUuid);
-        return ResponseEntity.ok(EntityResponse.of(entityService.getByUuid(userId, noteUuid)));
+    public ResponseEntity<EntityResponse> getEntityByUuid(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("GET - {}/{}/{}", ROOT, userId, uuid);
+
+        ResponseEntity<EntityResponse> notModified = checkNotModified(userId, uuid, ifNoneMatch);
+        if (notModified != null)
+            return notModified;
+
+        SyncablePayload payload = entityService.getByUuid(userId, uuid);
+        return ResponseEntity.ok().eTag(ETags.of(payload.changeSeq())).body(EntityResponse.of(payload));
+    }
+
+    @GetMapping(value = "/{userId}/{uuid}/content", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getEntityContent(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("GET - {}/{}/{}/content", ROOT, userId, uuid);
+
+        ResponseEntity<byte[]> notModified = checkNotModified(userId, uuid, ifNoneMatch);
+        if (notModified != null)
+            return notModified;
+
+        SyncablePayload payload = entityService.getByUuid(userId, uuid);
+        return ResponseEntity.ok().eTag(ETags.of(payload.changeSeq())).body(payload.content().getValue());
+    }
+
+    @GetMapping(value = "/{userId}/{uuid}/metadata", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getEntityMetadata(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("GET - {}/{}/{}/metadata", ROOT, userId, uuid);
+
+        ResponseEntity<byte[]> notModified = checkNotModified(userId, uuid, ifNoneMatch);
+        if (notModified != null)
+            return notModified;
+
+        SyncableMetadataView view = entityService.getMetadataByUuid(userId, uuid);
+        return ResponseEntity.ok().eTag(ETags.of(view.changeSeq())).body(view.encryptedMetadata().getValue());
     }
 
     @PutMapping("/{userId}/{uuid}")
     public ResponseEntity<EntityResponse> updateEntityMetadataAndContent(
             @PathVariable Long userId,
-            @PathVariable UUID noteUuid,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody EntityUpdateAllRequest request) {
-        log.info("PUT - {}/{}/{}", ROOT, userId, noteUuid);
-        return ResponseEntity.ok(EntityResponse.of(entityService.updateMetadataAndContent(userId, noteUuid, request)));
+        log.info("PUT - {}/{}/{}", ROOT, userId, uuid);
+
+        SyncableRevision revision = entityService.updateMetadataAndContent(
+                userId,
+                uuid,
+                request,
+                null,
+                ETags.parseChangeSeq(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(revision.changeSeq())).body(new EntityResponse(
+                uuid,
+                revision.version(),
+                revision.changeSeq(),
+                request.encryptedNewMetadata(),
+                request.encryptedNewContent()));
     }
 
     @PutMapping("/{userId}/{uuid}/metadata")
-    public ResponseEntity<EntityResponse> updateEntityMetadata(
+    public ResponseEntity<EntityMetadataResponse> updateEntityMetadata(
             @PathVariable Long userId,
-            @PathVariable UUID noteUuid,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody EntityUpdateMetadataRequest request) {
-        log.info("PUT - {}/{}/{}/metadata", ROOT, userId, noteUuid);
-        return ResponseEntity.ok(EntityResponse.of(entityService.updateMetadata(userId, noteUuid, request)));
+        log.info("PUT - {}/{}/{}/metadata", ROOT, userId, uuid);
+
+        SyncableRevision revision = entityService.updateMetadata(
+                userId,
+                uuid,
+                request,
+                null,
+                ETags.parseChangeSeq(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(revision.changeSeq())).body(
+                new EntityMetadataResponse(
+                        uuid,
+                        revision.version(),
+                        revision.changeSeq(),
+                        request.encryptedNewMetadata()));
+    }
+
+    @PutMapping(value = "/{userId}/{uuid}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Void> updateEntityMetadataAndContentFromParts(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestPart("metadata") MultipartFile metadata,
+            @RequestPart("content") MultipartFile content) throws IOException {
+        log.info("PUT (multipart) - {}/{}/{}", ROOT, userId, uuid);
+
+        SyncableRevision revision = entityService.updateMetadataAndContent(
+                userId,
+                uuid,
+                readMetadata(metadata.getInputStream()),
+                readContent(content.getInputStream()),
+                null,
+                ETags.parseChangeSeq(ifMatch));
+        return ResponseEntity.noContent().eTag(ETags.of(revision.changeSeq())).build();
+    }
+
+    @PutMapping(value = "/{userId}/{uuid}/metadata", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> updateEntityMetadataFromBytes(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        log.info("PUT (binary) - {}/{}/{}/metadata", ROOT, userId, uuid);
+
+        SyncableRevision revision = entityService.updateMetadata(
+                userId,
+                uuid,
+                readMetadata(body),
+                null,
+                ETags.parseChangeSeq(ifMatch));
+        return ResponseEntity.noContent().eTag(ETags.of(revision.changeSeq())).build();
+    }
+
+    @PutMapping(value = "/{userId}/{uuid}/content", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> updateEntityContentFromBytes(
+            @PathVariable Long userId,
+            @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            InputStream body) {
+        log.info("PUT (binary) - {}/{}/{}/content", ROOT, userId, uuid);
+
+        SyncableRevision revision = entityService.updateContent(
+                userId,
+                uuid,
+                readContent(body),
+                null,
+                ETags.parseChangeSeq(ifMatch));
+        return ResponseEntity.noContent().eTag(ETags.of(revision.changeSeq())).build();
+    }
+
+    @PostMapping(value = "/{userId}/batch-delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EntityBatchDeleteResponse> deleteEntitiesByUuids(
+            @PathVariable Long userId,
+            @Valid @RequestBody EntityBatchRequest request) {
+        log.info("POST - {}/{}/batch-delete", ROOT, userId);
+        return ResponseEntity.ok(new EntityBatchDeleteResponse(entityService.deleteAll(userId, request.uuids())));
     }
 
     @DeleteMapping("/{userId}/{uuid}")
-    public ResponseEntity<Void> deleteEntityByUuid(@PathVariable final Long userId, @PathVariable final UUID noteUuid) {
-        log.info("DELETE - {}/{}/{}", ROOT, userId, noteUuid);
+    public ResponseEntity<Void> deleteEntityByUuid(@PathVariable final Long userId, @PathVariable final UUID uuid) {
+        log.info("DELETE - {}/{}/{}", ROOT, userId, uuid);
 
-        entityService.delete(userId, noteUuid);
+        entityService.delete(userId, uuid);
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,80 @@
+package com.ska.controller;
+
+
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ska.dto.sync.request.SyncChangeSeqAckRequest;
+import com.ska.dto.sync.request.SyncQueueAckRequest;
+import com.ska.dto.sync.response.SyncQueueAckResponse;
+import com.ska.dto.sync.response.SyncQueueClaimResponse;
+import com.ska.dto.sync.response.SyncStateResponse;
+import com.ska.service.contract.SyncQueueService;
+import com.ska.service.push.DevicePushRegistry;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+@Slf4j
+@RestController
+@RequestMapping("api/sync")
+@RequiredArgsConstructor
+public final class SyncQueueController {
+
+    private final SyncQueueService syncQueueService;
+    private final DevicePushRegistry devicePushRegistry;
+    private static final String ROOT = "api/sync";
+
+    @GetMapping(value = "/{userId}/devices/{deviceUuid}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter openDeviceEvents(@PathVariable Long userId, @PathVariable UUID deviceUuid) {
+        log.info("GET - {}/{}/devices/{}/events", ROOT, userId, deviceUuid);
+        return devicePushRegistry.open(syncQueueService.checkDeviceOwnershipAndGetId(userId, deviceUuid));
+    }
+
+    @PostMapping("/{userId}/devices/{deviceUuid}/queue/claim")
+    public ResponseEntity<SyncQueueClaimResponse> claimQueueItems(
+            @PathVariable Long userId,
+            @PathVariable UUID deviceUuid,
+            @RequestParam(required = false) Integer limit) {
+        log.info("POST - {}/{}/devices/{}/queue/claim", ROOT, userId, deviceUuid);
+        return ResponseEntity.ok(SyncQueueClaimResponse.of(syncQueueService.claim(userId, deviceUuid, limit)));
+    }
+
+    @PostMapping(value = "/{userId}/devices/{deviceUuid}/queue/ack", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SyncQueueAckResponse> acknowledgeQueueItems(
+            @PathVariable Long userId,
+            @PathVariable UUID deviceUuid,
+            @Valid @RequestBody SyncQueueAckRequest request) {
+        log.info("POST - {}/{}/devices/{}/queue/ack", ROOT, userId, deviceUuid);
+        return ResponseEntity.ok(new SyncQueueAckResponse(syncQueueService.acknowledge(
+                userId,
+                deviceUuid,
+                request.claimToken(),
+                request.itemIds())));
+    }
+
+    @PostMapping(value = "/{userId}/devices/{deviceUuid}/changes/ack", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SyncStateResponse> acknowledgeChangeSeq(
+            @PathVariable Long userId,
+            @PathVariable UUID deviceUuid,
+            @Valid @RequestBody SyncChangeSeqAckRequest request) {
+        log.info("POST - {}/{}/devices/{}/changes/ack", ROOT, userId, deviceUuid);
+        return ResponseEntity.ok(SyncStateResponse.of(syncQueueService.acknowledgeChangeSeq(
+                userId,
+                deviceUuid,
+                request.changeSeq())));
+    }
+
+}
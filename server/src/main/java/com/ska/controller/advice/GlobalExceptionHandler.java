@@ -8,18 +8,24 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import com.ska.dto.error.ErrorResponse;
 import com.ska.dto.error.ValidationErrorResponse;
+import com.ska.dto.json.InvalidEncryptedDataException;
 import com.ska.exception.AccessDeniedException;
 import com.ska.exception.BusinessRuleViolationException;
 import com.ska.exception.DomainValidationException;
+import com.ska.exception.PreconditionFailedException;
 import com.ska.exception.ResourceAlreadyExistsException;
 import com.ska.exception.ResourceNotFoundException;
+import com.ska.exception.WatermarkExpiredException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -107,6 +113,50 @@ public final class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedExceptions(
+            PreconditionFailedException exception,
+            WebRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "PRECONDITION_FAILED",
+                exception.getMessage(),
+                getPath(request),
+                HttpStatus.PRECONDITION_FAILED.value());
+
+        log.info("Precondition failed at {}: {}", getPath(request), exception.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
+    // the change log no longer reaches back to the watermark, the client bootstraps again
+    @ExceptionHandler(WatermarkExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleWatermarkExpiredExceptions(
+            WatermarkExpiredException exception,
+            WebRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "WATERMARK_EXPIRED",
+                exception.getMessage(),
+                getPath(request),
+                HttpStatus.GONE.value());
+
+        log.info("Watermark expired at {}: {}", getPath(request), exception.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE).body(errorResponse);
+    }
+
+    // concurrent write committed between the version check and the flush
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureExceptions(
+            ObjectOptimisticLockingFailureException exception,
+            WebRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "PRECONDITION_FAILED",
+                "Syncable was modified concurrently",
+                getPath(request),
+                HttpStatus.PRECONDITION_FAILED.value());
+
+        log.info("Optimistic lock failure at {}: {}", getPath(request), exception.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
     @ExceptionHandler(DomainValidationException.class)
     public ResponseEntity<ErrorResponse> handleDomainValidationExceptions(
             DomainValidationException exception,
@@ -121,6 +171,38 @@ public final class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableExceptions(
+            HttpMessageNotReadableException exception,
+            WebRequest request) {
+        String message = exception.getMostSpecificCause() instanceof InvalidEncryptedDataException e
+                ? e.getOriginalMessage()
+                : "Request body is malformed";
+
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "MALFORMED_REQUEST_BODY",
+                message,
+                getPath(request),
+                HttpStatus.BAD_REQUEST.value());
+
+        log.warn("Malformed request body at {}: {}", getPath(request), exception.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededExceptions(
+            MaxUploadSizeExceededException exception,
+            WebRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.of(
+                "PAYLOAD_TOO_LARGE",
+                exception.getMessage(),
+                getPath(request),
+                HttpStatus.PAYLOAD_TOO_LARGE.value());
+
+        log.warn("Payload too large at {}: {}", getPath(request), exception.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericExceptions(Exception exception, WebRequest request) {
         ErrorResponse errorResponse = ErrorResponse.of(
@@ -0,0 +1,47 @@
+package com.ska.controller.interceptor;
+
+
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.util.OriginDevice;
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+
+/**
+ * Binds the {@value SyncConstants#DEVICE_ID_HEADER} header to
+ * {@link OriginDevice} for the duration of a request.
+ */
+@Component
+public class OriginDeviceInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(SyncConstants.DEVICE_ID_HEADER);
+        if (header == null)
+            return true;
+
+        try {
+            OriginDevice.set(UUID.fromString(header.trim()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException(SyncConstants.INVALID_DEVICE_ID_MESSAGE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception exception) {
+        OriginDevice.clear();
+    }
+
+}
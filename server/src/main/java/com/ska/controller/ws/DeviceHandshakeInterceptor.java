@@ -0,0 +1,74 @@
+package com.ska.controller.ws;
+
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriTemplate;
+
+import com.ska.exception.AccessDeniedException;
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.exception.ResourceNotFoundException;
+import com.ska.service.contract.SyncQueueService;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Resolves user and device from the socket path and checks that the device
+ * belongs to the user before the upgrade, so frames never carry identity.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final UriTemplate PATH = new UriTemplate(SyncConstants.Socket.PATH);
+
+    private final SyncQueueService syncQueueService;
+
+    @Override
+    public boolean beforeHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler handler,
+            Map<String, Object> attributes) {
+        Map<String, String> variables = PATH.match(request.getURI().getPath());
+
+        try {
+            Long userId = Long.valueOf(variables.get("userId"));
+            UUID deviceUuid = UUID.fromString(variables.get("deviceUuid"));
+            syncQueueService.checkDeviceOwnershipAndGetId(userId, deviceUuid);
+
+            attributes.put(SyncConstants.Socket.USER_ID_ATTRIBUTE, userId);
+            attributes.put(SyncConstants.Socket.DEVICE_UUID_ATTRIBUTE, deviceUuid);
+            return true;
+        } catch (ResourceNotFoundException e) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+        } catch (AccessDeniedException e) {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+        } catch (BusinessRuleViolationException | IllegalArgumentException | NullPointerException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+        }
+
+        log.warn("Sync socket handshake rejected at {}", request.getURI().getPath());
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler handler,
+            Exception exception) {
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.ska.controller.ws;
+
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.repository.projection.SyncQueueItemView;
+import com.ska.util.constant.EntityConstants;
+import com.ska.util.constant.SyncConstants;
+
+
+/**
+ * Util class for the binary sync protocol.
+ * 
+ * A frame is a sequence of ops, each starting with an opcode byte and a
+ * 32-bit request ID. Integers are big-endian, UUIDs are two longs, lengths
+ * prefix raw bytes.
+ * 
+ * Client ops:
+ * PUSH 0x01 uuid, action u8, flags u8 (1 create, 2 expected change seq),
+ * expected change seq i64, metadata u16 + bytes, content i32 + bytes;
+ * PULL 0x02 uuid; CLAIM 0x03 limit u16; ACK 0x04 claim token, count u16,
+ * item IDs i64.
+ * 
+ * Server replies:
+ * DONE 0x81 change seq i64; ENTITY 0x82 uuid, version i64, change seq i64,
+ * metadata u16 + bytes, content i32 + bytes; CLAIMED 0x83 claim token,
+ * leased until epoch millis i64, count u16, items (ID i64, uuid, action u8);
+ * ACKED 0x84 count i32; FAILED 0xFF status u16, message u16 + UTF-8 bytes.
+ * 
+ * The expected change seq is the ENTITY change seq a change is based on, the
+ * same precondition as the REST If-Match header. Versions are not accepted
+ * as preconditions, a deleted and recreated entity reuses them.
+ */
+public final class SyncFrameCodec {
+
+    static final byte OP_PUSH = 0x01;
+    static final byte OP_PULL = 0x02;
+    static final byte OP_CLAIM = 0x03;
+    static final byte OP_ACK = 0x04;
+
+    static final byte REPLY_DONE = (byte) 0x81;
+    static final byte REPLY_ENTITY = (byte) 0x82;
+    static final byte REPLY_CLAIMED = (byte) 0x83;
+    static final byte REPLY_ACKED = (byte) 0x84;
+    static final byte REPLY_FAILED = (byte) 0xFF;
+
+    static final int FLAG_CREATE = 1;
+    static final int FLAG_EXPECTED_CHANGE_SEQ = 2;
+
+    private static final int UUID_BYTES = 16;
+    private static final int MESSAGE_BYTES_MAX = 1024;
+
+    private SyncFrameCodec() {
+        throw new UnsupportedOperationException("SyncFrameCodec.java - <util> class");
+    }
+
+    // =========== Helper methods ========== //
+
+    // wire codes are fixed, so reordering QueueAction never changes the protocol
+    static byte actionCode(QueueAction action) {
+        return switch (action) {
+            case SYNC_METADATA -> 1;
+            case SYNC_FULL -> 2;
+            case DELETE -> 3;
+        };
+    }
+
+    static QueueAction action(byte code) {
+        return switch (code) {
+            case 1 -> QueueAction.SYNC_METADATA;
+            case 2 -> QueueAction.SYNC_FULL;
+            case 3 -> QueueAction.DELETE;
+            default -> throw malformed();
+        };
+    }
+
+    private static BusinessRuleViolationException malformed() {
+        return new BusinessRuleViolationException(SyncConstants.Socket.MALFORMED_FRAME_MESSAGE);
+    }
+
+    private static UUID readUuid(ByteBuffer frame) {
+        return new UUID(frame.getLong(), frame.getLong());
+    }
+
+    // the length is checked against both the limit and the frame before allocating
+    private static byte[] readBytes(ByteBuffer frame, int length, int lengthMax) {
+        if (length < 0 || length > lengthMax || length > frame.remaining())
+            throw malformed();
+
+        byte[] bytes = new byte[length];
+        frame.get(bytes);
+        return bytes;
+    }
+
+    private static SyncOp readOp(ByteBuffer frame) {
+        byte opcode = frame.get();
+        int requestId = frame.getInt();
+
+        return switch (opcode) {
+            case OP_PUSH -> {
+                UUID uuid = readUuid(frame);
+                QueueAction action = action(frame.get());
+                int flags = frame.get();
+                long expectedChangeSeq = frame.getLong();
+                byte[] metadata = readBytes(
+                        frame,
+                        Short.toUnsignedInt(frame.getShort()),
+                        EntityConstants.Metadata.ENCRYPTED_DATA_SIZE_MAX);
+                byte[] content = readBytes(frame, frame.getInt(), EntityConstants.Content.ENCRYPTED_DATA_SIZE_MAX);
+
+                yield new SyncOp.Push(
+                        requestId,
+                        uuid,
+                        action,
+                        (flags & FLAG_CREATE) != 0,
+                        (flags & FLAG_EXPECTED_CHANGE_SEQ) != 0 ? expectedChangeSeq : null,
+                        metadata,
+                        content);
+            }
+            case OP_PULL -> new SyncOp.Pull(requestId, readUuid(frame));
+            case OP_CLAIM -> new SyncOp.Claim(requestId, Short.toUnsignedInt(frame.getShort()));
+            case OP_ACK -> {
+                UUID claimToken = readUuid(frame);
+                int count = Short.toUnsignedInt(frame.getShort());
+                if (count > SyncConstants.Queue.ACK_SIZE_MAX || count * Long.BYTES > frame.remaining())
+                    throw malformed();
+
+                List<Long> itemIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++)
+                    itemIds.add(frame.getLong());
+                yield new SyncOp.Ack(requestId, claimToken, itemIds);
+            }
+            default -> throw malformed();
+        };
+    }
+
+    private static int requestId(SyncReply reply) {
+        return switch (reply) {
+            case SyncReply.Done done -> done.requestId();
+            case SyncReply.Entity entity -> entity.requestId();
+            case SyncReply.Claimed claimed -> claimed.requestId();
+            case SyncReply.Acked acked -> acked.requestId();
+            case SyncReply.Failed failed -> failed.requestId();
+        };
+    }
+
+    // a reply that cannot fit any frame answers its op with 413 instead of exceeding the limit
+    private static SyncReply fitting(SyncReply reply, int frameBytesMax) {
+        if (size(reply) <= frameBytesMax)
+            return reply;
+
+        return new SyncReply.Failed(
+                requestId(reply),
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                SyncConstants.Socket.REPLY_TOO_LARGE_MESSAGE);
+    }
+
+    private static int size(SyncReply reply) {
+        int header = 1 + Integer.BYTES;
+
+        return header + switch (reply) {
+            case SyncReply.Done done -> Long.BYTES;
+            case SyncReply.Entity entity -> UUID_BYTES + Long.BYTES + Long.BYTES
+                    + Short.BYTES + entity.metadata().length
+                    + Integer.BYTES + entity.content().length;
+            case SyncReply.Claimed claimed -> UUID_BYTES + Long.BYTES + Short.BYTES
+                    + claimed.items().size() * (Long.BYTES + UUID_BYTES + 1);
+            case SyncReply.Acked acked -> Integer.BYTES;
+            case SyncReply.Failed failed -> Short.BYTES + Short.BYTES + message(failed).length;
+        };
+    }
+
+    private static byte[] message(SyncReply.Failed failed) {
+        byte[] message = failed.message() == null
+                ? new byte[0]
+                : failed.message().getBytes(StandardCharsets.UTF_8);
+
+        return message.length > MESSAGE_BYTES_MAX ? Arrays.copyOf(message, MESSAGE_BYTES_MAX) : message;
+    }
+
+    private static void writeUuid(ByteBuffer frame, UUID uuid) {
+        frame.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void writeReply(ByteBuffer frame, SyncReply reply) {
+        switch (reply) {
+            case SyncReply.Done done -> frame.put(REPLY_DONE).putInt(done.requestId()).putLong(done.changeSeq());
+            case SyncReply.Entity entity -> {
+                frame.put(REPLY_ENTITY).putInt(entity.requestId());
+                writeUuid(frame, entity.uuid());
+                frame.putLong(entity.version()).putLong(entity.changeSeq());
+                frame.putShort((short) entity.metadata().length).put(entity.metadata());
+                frame.putInt(entity.content().length).put(entity.content());
+            }
+            case SyncReply.Claimed claimed -> {
+                frame.put(REPLY_CLAIMED).putInt(claimed.requestId());
+                writeUuid(frame, claimed.claimToken());
+                frame.putLong(claimed.items().isEmpty() ? 0L : claimed.items().get(0).leasedUntil().toEpochMilli());
+                frame.putShort((short) claimed.items().size());
+                for (SyncQueueItemView item : claimed.items()) {
+                    frame.putLong(item.id());
+                    writeUuid(frame, item.syncableUuid());
+                    frame.put(actionCode(item.action()));
+                }
+            }
+            case SyncReply.Acked acked -> frame.put(REPLY_ACKED).putInt(acked.requestId()).putInt(acked.acknowledged());
+            case SyncReply.Failed failed -> {
+                byte[] message = message(failed);
+                frame.put(REPLY_FAILED).putInt(failed.requestId()).putShort((short) failed.status());
+                frame.putShort((short) message.length).put(message);
+            }
+        }
+    }
+
+    // ===================================== //
+
+    /**
+     * Decodes all ops of a frame.
+     * 
+     * @param frame the frame payload
+     * @return the ops in frame order
+     * @throws BusinessRuleViolationException if the frame is truncated, has
+     * unknown codes, oversized fields or too many ops
+     */
+    public static List<SyncOp> decode(ByteBuffer frame) {
+        List<SyncOp> ops = new ArrayList<>();
+
+        try {
+            while (frame.hasRemaining()) {
+                if (ops.size() == SyncConstants.Socket.OPS_PER_FRAME_MAX)
+                    throw new BusinessRuleViolationException(SyncConstants.Socket.TOO_MANY_OPS_MESSAGE);
+
+                ops.add(readOp(frame));
+            }
+        } catch (BufferUnderflowException e) {
+            throw malformed();
+        }
+        return ops;
+    }
+
+    /**
+     * Encodes replies into as few frames as fit the frame size limit. A reply
+     * larger than the limit on its own is replaced with a 413 FAILED reply.
+     * 
+     * @param replies the replies in op order
+     * @param frameBytesMax the maximum frame size
+     * @return the frames, ready to send
+     */
+    public static List<ByteBuffer> encode(List<SyncReply> replies, int frameBytesMax) {
+        List<ByteBuffer> frames = new ArrayList<>();
+        replies = replies.stream().map(reply -> fitting(reply, frameBytesMax)).toList();
+
+        int from = 0;
+        while (from < replies.size()) {
+            int to = from;
+            int frameBytes = 0;
+            while (to < replies.size() && (to == from || frameBytes + size(replies.get(to)) <= frameBytesMax))
+                frameBytes += size(replies.get(to++));
+
+            ByteBuffer frame = ByteBuffer.allocate(frameBytes);
+            for (SyncReply reply : replies.subList(from, to))
+                writeReply(frame, reply);
+            frames.add(frame.flip());
+
+            from = to;
+        }
+        return frames;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.ska.controller.ws;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.model.sync_queue.QueueAction;
+
+
+/**
+ * Client request decoded from a binary sync frame.
+ * 
+ * Every op carries a client-chosen request ID that is echoed in its reply, so
+ * many ops can be pipelined in one frame.
+ */
+public sealed interface SyncOp {
+
+    public int requestId();
+
+    /**
+     * Entity change made on the device.
+     * 
+     * @param create whether the entity is new, only valid with SYNC_FULL
+     * @param expectedChangeSeq the change sequence the change is based on, or
+ * null
+     * @param metadata the encrypted metadata, empty for DELETE
+     * @param content the encrypted content, empty unless SYNC_FULL
+     */
+    public record Push(
+            int requestId,
+            UUID uuid,
+            QueueAction action,
+            boolean create,
+            Long expectedChangeSeq,
+            byte[] metadata,
+            byte[] content) implements SyncOp {
+    }
+
+    public record Pull(int requestId, UUID uuid) implements SyncOp {
+    }
+
+    public record Claim(int requestId, int limit) implements SyncOp {
+    }
+
+    public record Ack(int requestId, UUID claimToken, List<Long> itemIds) implements SyncOp {
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.ska.controller.ws;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.repository.projection.SyncQueueItemView;
+
+
+/**
+ * Server reply encoded into a binary sync frame, one per {@link SyncOp}.
+ */
+public sealed interface SyncReply {
+
+    public int requestId();
+
+    // change sequence of the entity after a push, -1 after a delete
+    public record Done(int requestId, long changeSeq) implements SyncReply {
+    }
+
+    public record Entity(int requestId, UUID uuid, long version, long changeSeq, byte[] metadata, byte[] content)
+            implements SyncReply {
+    }
+
+    public record Claimed(int requestId, UUID claimToken, List<SyncQueueItemView> items) implements SyncReply {
+    }
+
+    public record Acked(int requestId, int acknowledged) implements SyncReply {
+    }
+
+    // status mirrors the HTTP status the REST API answers with
+    public record Failed(int requestId, int status, String message) implements SyncReply {
+    }
+
+}
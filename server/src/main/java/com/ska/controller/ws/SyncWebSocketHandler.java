@@ -0,0 +1,194 @@
+package com.ska.controller.ws;
+
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.ska.exception.AccessDeniedException;
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.exception.DomainValidationException;
+import com.ska.exception.PreconditionFailedException;
+import com.ska.exception.ResourceAlreadyExistsException;
+import com.ska.exception.ResourceNotFoundException;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.service.contract.EntityService;
+import com.ska.service.contract.SyncQueueService;
+import com.ska.service.result.QueueClaim;
+import com.ska.service.result.SyncablePayload;
+import com.ska.util.OriginDevice;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Binary sync protocol for always-on devices, see {@link SyncFrameCodec}.
+ * 
+ * Ops go through the same services as the REST API, so ownership, version
+ * and size rules are identical. A failing op answers with its HTTP status and
+ * does not stop the rest of the frame.
+ * 
+ * Flow control: the container hands over one frame at a time per session, a
+ * frame is limited in bytes and ops, and replies go through a
+ * {@link ConcurrentWebSocketSessionDecorator} that disconnects clients which
+ * stop reading instead of buffering without bound.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public final class SyncWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final String SESSION_ATTRIBUTE = "sync.session";
+
+    private final EntityService entityService;
+    private final SyncQueueService syncQueueService;
+
+    // =========== Helper methods ========== //
+
+    private SyncReply execute(Long userId, UUID deviceUuid, SyncOp op) {
+        return switch (op) {
+            case SyncOp.Push push -> new SyncReply.Done(push.requestId(), push(userId, push));
+            case SyncOp.Pull pull -> {
+                SyncablePayload payload = entityService.getByUuid(userId, pull.uuid());
+                yield new SyncReply.Entity(
+                        pull.requestId(),
+                        payload.uuid(),
+                        payload.version(),
+                        payload.changeSeq(),
+                        payload.metadata().getValue(),
+                        payload.content().getValue());
+            }
+            case SyncOp.Claim claim -> {
+                QueueClaim claimed = syncQueueService.claim(userId, deviceUuid, claim.limit());
+                // a device moved to its watermark has to pull the change log over REST
+                if (claimed.since() != null)
+                    yield new SyncReply.Failed(
+                            claim.requestId(),
+                            HttpStatus.CONFLICT.value(),
+                            SyncConstants.Socket.CHANGE_LOG_MESSAGE + claimed.since());
+
+                yield new SyncReply.Claimed(claim.requestId(), claimed.claimToken(), claimed.items());
+            }
+            case SyncOp.Ack ack -> new SyncReply.Acked(
+                    ack.requestId(),
+                    syncQueueService.acknowledge(userId, deviceUuid, ack.claimToken(), ack.itemIds()));
+        };
+    }
+
+    private long push(Long userId, SyncOp.Push push) {
+        if (push.create() && push.action() != QueueAction.SYNC_FULL)
+            throw new BusinessRuleViolationException(SyncConstants.Socket.MALFORMED_FRAME_MESSAGE);
+
+        if (push.create())
+            return entityService.create(userId, push.uuid(), push.metadata(), push.content()).getChangeSeq();
+
+        return switch (push.action()) {
+            case SYNC_FULL -> entityService.updateMetadataAndContent(
+                    userId,
+                    push.uuid(),
+                    push.metadata(),
+                    push.content(),
+                    null,
+                    push.expectedChangeSeq()).changeSeq();
+            case SYNC_METADATA -> entityService.updateMetadata(
+                    userId,
+                    push.uuid(),
+                    push.metadata(),
+                    null,
+                    push.expectedChangeSeq()).changeSeq();
+            case DELETE -> {
+                entityService.delete(userId, push.uuid());
+                yield -1L;
+            }
+        };
+    }
+
+    private static HttpStatus statusOf(RuntimeException exception) {
+        return switch (exception) {
+            case ResourceNotFoundException e -> HttpStatus.NOT_FOUND;
+            case AccessDeniedException e -> HttpStatus.FORBIDDEN;
+            case ResourceAlreadyExistsException e -> HttpStatus.CONFLICT;
+            case PreconditionFailedException e -> HttpStatus.PRECONDITION_FAILED;
+            case ObjectOptimisticLockingFailureException e -> HttpStatus.PRECONDITION_FAILED;
+            case BusinessRuleViolationException e -> HttpStatus.BAD_REQUEST;
+            case DomainValidationException e -> HttpStatus.BAD_REQUEST;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+
+    // ===================================== //
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.setBinaryMessageSizeLimit(SyncConstants.Socket.FRAME_BYTES_MAX);
+        session.getAttributes().put(SESSION_ATTRIBUTE, new ConcurrentWebSocketSessionDecorator(
+                session,
+                SyncConstants.Socket.SEND_TIME_LIMIT_MS,
+                SyncConstants.Socket.SEND_BUFFER_BYTES_MAX));
+
+        log.debug(
+                "Sync socket opened for device with UUID: {}",
+                session.getAttributes().get(SyncConstants.Socket.DEVICE_UUID_ATTRIBUTE));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        Long userId = (Long) session.getAttributes().get(SyncConstants.Socket.USER_ID_ATTRIBUTE);
+        UUID deviceUuid = (UUID) session.getAttributes().get(SyncConstants.Socket.DEVICE_UUID_ATTRIBUTE);
+
+        List<SyncOp> ops;
+        try {
+            ops = SyncFrameCodec.decode(message.getPayload());
+        } catch (BusinessRuleViolationException e) {
+            session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+            return;
+        }
+
+        List<SyncReply> replies = new ArrayList<>(ops.size());
+        OriginDevice.set(deviceUuid);
+        try {
+            for (SyncOp op : ops) {
+                try {
+                    replies.add(execute(userId, deviceUuid, op));
+                } catch (RuntimeException e) {
+                    HttpStatus status = statusOf(e);
+                    String message = e.getMessage();
+                    // internal failures are logged, their details never reach the client
+                    if (status.is5xxServerError()) {
+                        log.error("Sync op failed for device with UUID: {}", deviceUuid, e);
+                        message = SyncConstants.Socket.UNEXPECTED_ERROR_MESSAGE;
+                    }
+
+                    replies.add(new SyncReply.Failed(op.requestId(), status.value(), message));
+                }
+            }
+        } finally {
+            OriginDevice.clear();
+        }
+
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().get(SESSION_ATTRIBUTE);
+        for (ByteBuffer frame : SyncFrameCodec.encode(replies, SyncConstants.Socket.FRAME_BYTES_MAX))
+            sender.sendMessage(new BinaryMessage(frame));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.debug(
+                "Sync socket closed for device with UUID: {} - {}",
+                session.getAttributes().get(SyncConstants.Socket.DEVICE_UUID_ATTRIBUTE),
+                status);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.ska.dto.device.response;
+
+
+import java.util.UUID;
+
+import com.ska.model.Device;
+import com.ska.model.sync_queue.SyncMode;
+
+
+public record DeviceResponse(UUID uuid, SyncMode syncMode, long ackedChangeSeq) {
+
+    public static DeviceResponse of(final Device device) {
+        return new DeviceResponse(device.getUuid(), device.getSyncMode(), device.getAckedChangeSeq());
+    }
+
+}
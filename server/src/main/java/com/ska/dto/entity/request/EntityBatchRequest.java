@@ -0,0 +1,18 @@
+package com.ska.dto.entity.request;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.util.constant.EntityConstants;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+
+public final record EntityBatchRequest(
+        @NotEmpty(message = EntityConstants.Batch.DTO_REQUIRED_MESSAGE)
+        @Size(max = EntityConstants.Batch.SIZE_MAX, message = EntityConstants.Batch.INVALID_SIZE_MESSAGE)
+        List<@NotNull(message = EntityConstants.UUID_NULL_MESSAGE) UUID> uuids) {
+}
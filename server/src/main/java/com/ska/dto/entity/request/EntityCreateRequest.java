@@ -1,11 +1,14 @@
 package com.ska.dto.entity.request;
 
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ska.dto.json.EncryptedContentDeserializer;
+import com.ska.dto.json.EncryptedMetadataDeserializer;
 import com.ska.dto.validation.encrypted.ValidEntityContent;
 import com.ska.dto.validation.encrypted.ValidEntityMetadata;
 
 
 public final record EntityCreateRequest(
-        @ValidEntityMetadata String encryptedMetadata,
-        @ValidEntityContent String encryptedContent) {
+        @JsonDeserialize(using = EncryptedMetadataDeserializer.class) @ValidEntityMetadata byte[] encryptedMetadata,
+        @JsonDeserialize(using = EncryptedContentDeserializer.class) @ValidEntityContent byte[] encryptedContent) {
 }
@@ -1,8 +1,12 @@
 package com.ska.dto.entity.request;
 
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.ska.dto.json.EncryptedMetadataDeserializer;
 import com.ska.dto.validation.encrypted.ValidEntityMetadata;
 
 
-public final record EntityUpdateMetadataRequest(@ValidEntityMetadata String encryptedNewMetadata) {
+public final record EntityUpdateMetadataRequest(
+        @JsonDeserialize(using = EncryptedMetadataDeserializer.class)
+        @ValidEntityMetadata byte[] encryptedNewMetadata) {
 }
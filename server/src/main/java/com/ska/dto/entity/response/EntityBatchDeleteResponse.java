@@ -0,0 +1,13 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * UUIDs actually deleted. Requested UUIDs that are absent or not owned by the
+ * user are left out.
+ */
+public record EntityBatchDeleteResponse(List<UUID> deleted) {
+}
@@ -0,0 +1,26 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.ska.model.syncable.Syncable;
+import com.ska.service.result.ChangeSet;
+import com.ska.util.constant.EntityConstants;
+
+
+public record EntityChangesResponse(
+        List<EntityResponse> upserts,
+        List<UUID> deleted,
+        long watermark,
+        boolean hasMore) {
+
+    public static EntityChangesResponse of(final ChangeSet<Syncable> changes) {
+        Objects.requireNonNull(changes, EntityConstants.Changes.NULL_MESSAGE);
+
+        ChangeSet<EntityResponse> mapped = changes.map(EntityResponse::of);
+        return new EntityChangesResponse(mapped.upserts(), mapped.deleted(), mapped.watermark(), mapped.hasMore());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.Objects;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ska.model.syncable.Syncable;
+import com.ska.service.result.ItemResult;
+import com.ska.service.result.ItemStatus;
+import com.ska.util.constant.EntityConstants;
+
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EntityItemResponse(UUID uuid, ItemStatus status, EntityResponse entity) {
+
+    public static EntityItemResponse of(final ItemResult<Syncable> result) {
+        Objects.requireNonNull(result, EntityConstants.Batch.ITEM_NULL_MESSAGE);
+
+        EntityResponse entity = result.value() == null ? null : EntityResponse.of(result.value());
+        return new EntityItemResponse(result.uuid(), result.status(), entity);
+    }
+
+}
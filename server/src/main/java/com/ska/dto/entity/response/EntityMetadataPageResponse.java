@@ -0,0 +1,19 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.service.result.CursorPage;
+import com.ska.util.constant.EntityConstants;
+
+
+public record EntityMetadataPageResponse(List<EntityMetadataResponse> items, String nextCursor) {
+
+    public static EntityMetadataPageResponse of(final CursorPage<SyncableMetadataView> page) {
+        Objects.requireNonNull(page, EntityConstants.Page.NULL_MESSAGE);
+        return new EntityMetadataPageResponse(page.map(EntityMetadataResponse::of).items(), page.nextCursor());
+    }
+
+}
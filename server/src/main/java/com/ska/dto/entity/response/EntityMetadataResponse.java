@@ -0,0 +1,22 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.Objects;
+import java.util.UUID;
+
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.util.constant.EntityConstants;
+
+
+public record EntityMetadataResponse(UUID uuid, long version, long changeSeq, byte[] base64Metadata) {
+
+    public static EntityMetadataResponse of(final SyncableMetadataView view) {
+        Objects.requireNonNull(view, EntityConstants.NULL_MESSAGE);
+        return new EntityMetadataResponse(
+                view.uuid(),
+                view.version(),
+                view.changeSeq(),
+                view.encryptedMetadata().getValue());
+    }
+
+}
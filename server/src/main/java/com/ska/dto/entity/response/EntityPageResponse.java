@@ -0,0 +1,19 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ska.model.syncable.Syncable;
+import com.ska.service.result.CursorPage;
+import com.ska.util.constant.EntityConstants;
+
+
+public record EntityPageResponse(List<EntityResponse> items, String nextCursor) {
+
+    public static EntityPageResponse of(final CursorPage<Syncable> page) {
+        Objects.requireNonNull(page, EntityConstants.Page.NULL_MESSAGE);
+        return new EntityPageResponse(page.map(EntityResponse::of).items(), page.nextCursor());
+    }
+
+}
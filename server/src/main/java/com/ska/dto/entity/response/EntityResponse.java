@@ -1,23 +1,39 @@
 package com.ska.dto.entity.response;
 
 
-import java.util.Base64;
 import java.util.Objects;
 import java.util.UUID;
 
 import com.ska.model.syncable.Syncable;
+import com.ska.service.result.SyncablePayload;
 import com.ska.util.constant.EntityConstants;
 
 
-public record EntityResponse(UUID uuid, String base64Metadata, String base64Content) {
+/**
+ * {@code byte[]} components are written by Jackson straight to Base64 strings.
+ */
+public record EntityResponse(UUID uuid, long version, long changeSeq, byte[] base64Metadata, byte[] base64Content) {
 
     public static EntityResponse of(final Syncable entity) {
         Objects.requireNonNull(entity, EntityConstants.NULL_MESSAGE);
 
-        String base64Metadata = Base64.getEncoder().encodeToString(entity.getMetadataBytes().getValue());
-        String base64Content = Base64.getEncoder().encodeToString(entity.getContentBytes().getValue());
+        return new EntityResponse(
+                entity.getUuid(),
+                entity.getVersion(),
+                entity.getChangeSeq(),
+                entity.getMetadataBytes().getValue(),
+                entity.getContentBytes().getValue());
+    }
+
+    public static EntityResponse of(final SyncablePayload payload) {
+        Objects.requireNonNull(payload, EntityConstants.NULL_MESSAGE);
 
-        return new EntityResponse(entity.getUuid(), base64Metadata, base64Content);
+        return new EntityResponse(
+                payload.uuid(),
+                payload.version(),
+                payload.changeSeq(),
+                payload.metadata().getValue(),
+                payload.content().getValue());
     }
 
 }
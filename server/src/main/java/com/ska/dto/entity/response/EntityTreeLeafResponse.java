@@ -0,0 +1,15 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.UUID;
+
+import com.ska.repository.projection.SyncableLeafView;
+
+
+public record EntityTreeLeafResponse(UUID uuid, long version, long changeSeq) {
+
+    public static EntityTreeLeafResponse of(final SyncableLeafView leaf) {
+        return new EntityTreeLeafResponse(leaf.uuid(), leaf.version(), leaf.changeSeq());
+    }
+
+}
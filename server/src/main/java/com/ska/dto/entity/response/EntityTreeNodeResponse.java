@@ -0,0 +1,14 @@
+package com.ska.dto.entity.response;
+
+
+import com.ska.repository.projection.MerkleNodeView;
+
+
+// digest as 16 hex digits, a 64-bit number does not survive JSON number parsing in every client
+public record EntityTreeNodeResponse(String prefix, String digest, long count) {
+
+    public static EntityTreeNodeResponse of(final MerkleNodeView node) {
+        return new EntityTreeNodeResponse(node.prefix(), String.format("%016x", node.digest()), node.entityCount());
+    }
+
+}
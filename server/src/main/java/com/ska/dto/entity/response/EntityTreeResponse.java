@@ -0,0 +1,17 @@
+package com.ska.dto.entity.response;
+
+
+import java.util.List;
+
+import com.ska.service.result.MerkleWalk;
+
+
+public record EntityTreeResponse(List<EntityTreeNodeResponse> nodes, List<EntityTreeLeafResponse> leaves) {
+
+    public static EntityTreeResponse of(final MerkleWalk walk) {
+        return new EntityTreeResponse(
+                walk.nodes().stream().map(EntityTreeNodeResponse::of).toList(),
+                walk.leaves().stream().map(EntityTreeLeafResponse::of).toList());
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.ska.dto.json;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.ska.util.constant.EntityConstants;
+
+
+/**
+ * Base deserializer of Base64 JSON strings into raw bytes.
+ * 
+ * Decodes straight from the parser input buffer, so the Base64 text is never
+ * materialized as a String. Decoded size is checked while decoding and the
+ * parsing stops as soon as the limit is exceeded.
+ * 
+ * @see InvalidEncryptedDataException - thrown if value is not Base64, empty or
+ * too large
+ */
+public abstract class BoundedBase64Deserializer extends StdDeserializer<byte[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    protected BoundedBase64Deserializer() {
+        super(byte[].class);
+    }
+
+    protected abstract int getMaxSize();
+
+    protected abstract String getTooLargeMessage();
+
+    @Override
+    public byte[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING)
+            throw new InvalidEncryptedDataException(parser, EntityConstants.DATA_NOT_BASE64_MESSAGE);
+
+        BoundedOutputStream decoded = new BoundedOutputStream(getMaxSize());
+        try {
+            parser.readBinaryValue(Base64Variants.getDefaultVariant(), decoded);
+        } catch (SizeLimitExceededException e) {
+            throw new InvalidEncryptedDataException(parser, getTooLargeMessage());
+        } catch (StreamReadException | IllegalArgumentException e) {
+            // Jackson reports illegal characters as IllegalArgumentException, missing padding as StreamReadException
+            throw new InvalidEncryptedDataException(parser, EntityConstants.DATA_NOT_BASE64_MESSAGE);
+        }
+
+        if (decoded.size() == 0)
+            throw new InvalidEncryptedDataException(parser, EntityConstants.DATA_BLANK_MESSAGE);
+
+        return decoded.toByteArray();
+    }
+
+    private static final class SizeLimitExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+    }
+
+    private static final class BoundedOutputStream extends OutputStream {
+
+        private final ByteArrayBuilder builder = new ByteArrayBuilder();
+        private final int maxSize;
+
+        private BoundedOutputStream(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private void ensureCapacity(int length) throws SizeLimitExceededException {
+            if (this.builder.size() + length > this.maxSize)
+                throw new SizeLimitExceededException();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            this.builder.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            this.builder.write(b, off, len);
+        }
+
+        private int size() {
+            return this.builder.size();
+        }
+
+        private byte[] toByteArray() {
+            return this.builder.toByteArray();
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.ska.dto.json;
+
+
+import com.ska.util.constant.EntityConstants;
+
+
+public final class EncryptedContentDeserializer extends BoundedBase64Deserializer {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected int getMaxSize() {
+        return EntityConstants.Content.ENCRYPTED_DATA_SIZE_MAX;
+    }
+
+    @Override
+    protected String getTooLargeMessage() {
+        return EntityConstants.Content.DTO_INVALID_SIZE_MESSAGE;
+    }
+
+}
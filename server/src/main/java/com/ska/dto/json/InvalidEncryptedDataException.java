@@ -0,0 +1,16 @@
+package com.ska.dto.json;
+
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+
+public final class InvalidEncryptedDataException extends JsonMappingException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidEncryptedDataException(JsonParser parser, String message) {
+        super(parser, message);
+    }
+
+}
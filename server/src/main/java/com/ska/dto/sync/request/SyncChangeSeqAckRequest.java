@@ -0,0 +1,14 @@
+package com.ska.dto.sync.request;
+
+
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+
+public final record SyncChangeSeqAckRequest(
+        @NotNull(message = SyncConstants.Watermark.CHANGE_SEQ_REQUIRED_MESSAGE)
+        @PositiveOrZero(message = SyncConstants.Watermark.INVALID_CHANGE_SEQ_MESSAGE)
+        Long changeSeq) {
+}
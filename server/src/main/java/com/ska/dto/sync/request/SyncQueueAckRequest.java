@@ -0,0 +1,21 @@
+package com.ska.dto.sync.request;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+
+public final record SyncQueueAckRequest(
+        @NotNull(message = SyncConstants.Queue.CLAIM_TOKEN_REQUIRED_MESSAGE)
+        UUID claimToken,
+
+        @NotEmpty(message = SyncConstants.Queue.ACK_REQUIRED_MESSAGE)
+        @Size(max = SyncConstants.Queue.ACK_SIZE_MAX, message = SyncConstants.Queue.INVALID_ACK_SIZE_MESSAGE)
+        List<@NotNull(message = SyncConstants.Queue.ITEM_ID_NULL_MESSAGE) Long> itemIds) {
+}
@@ -0,0 +1,9 @@
+package com.ska.dto.sync.response;
+
+
+/**
+ * Number of items deleted. Items re-queued or re-claimed since the claim are
+ * not counted and stay in the queue.
+ */
+public record SyncQueueAckResponse(int acknowledged) {
+}
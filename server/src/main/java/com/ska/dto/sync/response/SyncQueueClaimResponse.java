@@ -0,0 +1,25 @@
+package com.ska.dto.sync.response;
+
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.service.result.QueueClaim;
+
+
+public record SyncQueueClaimResponse(
+        UUID claimToken,
+        Instant leasedUntil,
+        List<SyncQueueItemResponse> items,
+        Long since) {
+
+    public static SyncQueueClaimResponse of(final QueueClaim claim) {
+        return new SyncQueueClaimResponse(
+                claim.claimToken(),
+                claim.leasedUntil(),
+                claim.items().stream().map(SyncQueueItemResponse::of).toList(),
+                claim.since());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.ska.dto.sync.response;
+
+
+import java.util.UUID;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.repository.projection.SyncQueueItemView;
+
+
+public record SyncQueueItemResponse(Long id, UUID uuid, QueueAction action) {
+
+    public static SyncQueueItemResponse of(final SyncQueueItemView item) {
+        return new SyncQueueItemResponse(item.id(), item.syncableUuid(), item.action());
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.ska.dto.sync.response;
+
+
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.projection.DeviceSyncStateView;
+
+
+/**
+ * Sync path of a device after an acknowledgement. On QUEUE the device claims
+ * its queue from now on, on WATERMARK it keeps pulling the change log after
+ * ackedChangeSeq.
+ */
+public record SyncStateResponse(SyncMode syncMode, long ackedChangeSeq) {
+
+    public static SyncStateResponse of(final DeviceSyncStateView state) {
+        return new SyncStateResponse(state.syncMode(), state.ackedChangeSeq());
+    }
+
+}
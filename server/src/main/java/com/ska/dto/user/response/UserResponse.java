@@ -4,6 +4,7 @@ package com.ska.dto.user.response;
 import java.util.Objects;
 
 import com.ska.model.user.User;
+import com.ska.repository.projection.UserView;
 import com.ska.util.constant.UserConstants;
 
 
@@ -14,4 +15,9 @@ public final record UserResponse(Long id, String email) {
         return new UserResponse(user.getId(), user.getEmail().getValue());
     }
 
+    public static UserResponse of(final UserView user) {
+        Objects.requireNonNull(user, UserConstants.NULL_MESSAGE);
+        return new UserResponse(user.id(), user.email().getValue());
+    }
+
 }
@@ -0,0 +1,10 @@
+package com.ska.exception;
+
+
+public final class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
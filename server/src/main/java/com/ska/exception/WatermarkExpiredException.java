@@ -0,0 +1,10 @@
+package com.ska.exception;
+
+
+public final class WatermarkExpiredException extends RuntimeException {
+
+    public WatermarkExpiredException(String message) {
+        super(message);
+    }
+
+}
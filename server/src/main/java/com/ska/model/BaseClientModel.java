@@ -8,6 +8,7 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import com.ska.model.user.User;
+import com.ska.util.constant.ModelConstants;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.FetchType;
@@ -16,6 +17,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
 
 
 @MappedSuperclass
@@ -23,7 +25,11 @@ public abstract class BaseClientModel {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ModelConstants.CLIENT_MODEL_ID_GENERATOR)
+    @SequenceGenerator(
+            name = ModelConstants.CLIENT_MODEL_ID_GENERATOR,
+            sequenceName = ModelConstants.CLIENT_MODEL_ID_SEQUENCE,
+            allocationSize = ModelConstants.ID_ALLOCATION_SIZE)
     protected Long id;
 
     @Column(name = "uuid", columnDefinition = "UUID", nullable = false, unique = true, updatable = false)
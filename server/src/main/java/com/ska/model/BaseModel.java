@@ -3,24 +3,32 @@ package com.ska.model;
 
 import java.util.Objects;
 
+import com.ska.util.constant.ModelConstants;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
 
 
 /**
  * Base abstract class for all database entities.
  *
- * Automatically manages creation timestamp.
+ * Automatically manages creation timestamp. Identifiers come from a pooled
+ * sequence, so inserts stay eligible for JDBC batching.
  */
 @MappedSuperclass
 public abstract class BaseModel {
 
     @Id
     @Column(name = "id", nullable = false)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ModelConstants.MODEL_ID_GENERATOR)
+    @SequenceGenerator(
+            name = ModelConstants.MODEL_ID_GENERATOR,
+            sequenceName = ModelConstants.MODEL_ID_SEQUENCE,
+            allocationSize = ModelConstants.ID_ALLOCATION_SIZE)
     protected Long id;
 
     public Long getId() {
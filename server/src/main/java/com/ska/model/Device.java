@@ -1,13 +1,18 @@
 package com.ska.model;
 
 
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
+import com.ska.model.sync_queue.SyncMode;
 import com.ska.model.user.User;
 
 import jakarta.persistence.AssociationOverride;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
@@ -18,6 +23,19 @@ import jakarta.persistence.Table;
 @AssociationOverride(name = "owner", joinColumns = @JoinColumn(name = "owner_id", nullable = false, updatable = false), foreignKey = @ForeignKey(name = "fk_device_owner"))
 public class Device extends BaseClientModel {
 
+    // both set on registration, then changed by DeviceRepository.updateSyncState only, see SyncModeSwitch
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sync_mode", nullable = false)
+    private SyncMode syncMode = SyncMode.QUEUE;
+
+    // change sequence up to which a WATERMARK device has applied the owner change log
+    @Column(name = "acked_change_seq", nullable = false)
+    private long ackedChangeSeq;
+
+    // coarse, written by DevicePresenceTracker at most once per resolution
+    @Column(name = "last_seen_at")
+    private Instant lastSeenAt;
+
     protected Device() {
     }
 
@@ -26,6 +44,23 @@ public class Device extends BaseClientModel {
         this.uuid = Objects.requireNonNull(uuid, "UUID to set is <null>");
     }
 
+    public Device(final User owner, UUID uuid, SyncMode syncMode) {
+        this(owner, uuid);
+        this.syncMode = Objects.requireNonNull(syncMode, "SyncMode to set is <null>");
+    }
+
+    public final SyncMode getSyncMode() {
+        return this.syncMode;
+    }
+
+    public final long getAckedChangeSeq() {
+        return this.ackedChangeSeq;
+    }
+
+    public final Instant getLastSeenAt() {
+        return this.lastSeenAt;
+    }
+
     @Override
     public final String toString() {
         return String.format("Device{id=%d, owner_id=%d, uuid=%s}", this.id, this.owner.getId(), this.uuid.toString());
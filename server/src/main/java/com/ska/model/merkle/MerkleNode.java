@@ -0,0 +1,85 @@
+package com.ska.model.merkle;
+
+
+import java.util.Objects;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.ska.model.BaseModel;
+import com.ska.model.user.User;
+import com.ska.util.MerkleDigest;
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+
+/**
+ * Node of the per-owner syncable hash tree, see {@link MerkleDigest}.
+ * 
+ * Rows are written by MerkleNodeJdbcRepository only, as XOR deltas.
+ */
+@Entity
+@Table(name = "merkle_nodes", uniqueConstraints = @UniqueConstraint(
+        name = "uq_merkle_nodes_owner_prefix",
+        columnNames = { "owner_id", "prefix" }))
+public class MerkleNode extends BaseModel {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false, foreignKey = @ForeignKey(name = "fk_merkle_node_owner"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User owner;
+
+    @Column(name = "prefix", nullable = false, length = SyncConstants.Merkle.DEPTH)
+    private String prefix;
+
+    @Column(name = "digest", nullable = false)
+    private long digest;
+
+    @Column(name = "entity_count", nullable = false)
+    private long entityCount;
+
+    protected MerkleNode() {
+    }
+
+    public MerkleNode(final User owner, String prefix, long digest, long entityCount) {
+        this.owner = Objects.requireNonNull(owner, "User to set is <null>");
+        this.prefix = Objects.requireNonNull(prefix, "Prefix to set is <null>");
+        this.digest = digest;
+        this.entityCount = entityCount;
+    }
+
+    public final User getOwner() {
+        return this.owner;
+    }
+
+    public final String getPrefix() {
+        return this.prefix;
+    }
+
+    public final long getDigest() {
+        return this.digest;
+    }
+
+    public final long getEntityCount() {
+        return this.entityCount;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format(
+                "MerkleNode{id=%d, prefix=%s, digest=%016x, entity_count=%d}",
+                this.id,
+                this.prefix,
+                this.digest,
+                this.entityCount);
+    }
+
+}
@@ -1,6 +1,25 @@
 package com.ska.model.sync_queue;
 
 
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Pending change of one syncable for one device.
+ * 
+ * Declared by rising precedence: a queued action is only replaced by a
+ * stronger one, so DELETE beats SYNC_FULL and SYNC_FULL beats SYNC_METADATA.
+ */
 public enum QueueAction {
-    SYNC_FULL, SYNC_METADATA, DELETE
+    SYNC_METADATA, SYNC_FULL, DELETE;
+
+    public boolean supersedes(QueueAction pending) {
+        return this.compareTo(pending) > 0;
+    }
+
+    public List<QueueAction> superseded() {
+        return Arrays.stream(values()).filter(this::supersedes).toList();
+    }
+
 }
@@ -0,0 +1,14 @@
+package com.ska.model.sync_queue;
+
+
+/**
+ * How a device learns about changes of its owner.
+ * 
+ * QUEUE devices get one {@link SyncQueueItem} per changed syncable.
+ * WATERMARK devices get nothing per change and pull the owner change log
+ * after their acknowledged change sequence instead, so a device far behind
+ * costs one row however long it stays away.
+ */
+public enum SyncMode {
+    QUEUE, WATERMARK;
+}
@@ -1,14 +1,15 @@
 package com.ska.model.sync_queue;
 
 
+import java.time.Instant;
 import java.util.Objects;
+import java.util.UUID;
 
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
-import com.ska.model.BaseModel;
 import com.ska.model.Device;
-import com.ska.model.syncable.Syncable;
+import com.ska.util.constant.ModelConstants;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -16,59 +17,123 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
 
 @Entity
-@Table(name = "sync_queue", uniqueConstraints = @UniqueConstraint(name = "uq_sync_queue_device_syncable", columnNames = {
-        "device_id", "syncable_id" }))
-public class SyncQueueItem extends BaseModel {
+@Table(name = "sync_queue", uniqueConstraints = @UniqueConstraint(
+        name = "uq_sync_queue_device_syncable",
+        columnNames = { "device_id", "syncable_uuid" }),
+        indexes = @Index(name = "idx_sync_queue_device_id", columnList = "device_id, id"))
+public class SyncQueueItem {
+
+    // own unpooled sequence, SyncQueueJdbcRepository draws one nextval per row and would burn a pooled block each
+    @Id
+    @Column(name = "id", nullable = false)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ModelConstants.SYNC_QUEUE_ID_GENERATOR)
+    @SequenceGenerator(
+            name = ModelConstants.SYNC_QUEUE_ID_GENERATOR,
+            sequenceName = ModelConstants.SYNC_QUEUE_ID_SEQUENCE,
+            allocationSize = ModelConstants.SYNC_QUEUE_ID_ALLOCATION_SIZE)
+    private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "device_id", nullable = false, foreignKey = @ForeignKey(name = "fk_sync_queue_device"))
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Device device;
 
-    @ManyToOne(optional = false, fetch = FetchType.LAZY)
-    @JoinColumn(name = "syncable_id", nullable = false, foreignKey = @ForeignKey(name = "fk_sync_queue_syncable"))
-    @OnDelete(action = OnDeleteAction.CASCADE)
-    private Syncable syncable;
+    // plain UUID instead of a foreign key, so a DELETE item outlives the deleted row
+    @Column(name = "syncable_uuid", nullable = false)
+    private UUID syncableUuid;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "action", nullable = false)
     private QueueAction action;
 
+    // lowest change sequence the row stands for, a demoted device resumes the change log below it
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    // both set while a device holds a lease on the item, see SyncQueueJdbcRepository
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "leased_until")
+    private Instant leasedUntil;
+
     protected SyncQueueItem() {
     }
 
-    public SyncQueueItem(final Device device, Syncable syncable, QueueAction action) {
+    public SyncQueueItem(final Device device, UUID syncableUuid, QueueAction action, long changeSeq) {
         this.device = Objects.requireNonNull(device, "Device to set is <null>");
-        this.syncable = Objects.requireNonNull(syncable, "Syncable to set is <null>");
+        this.syncableUuid = Objects.requireNonNull(syncableUuid, "Syncable UUID to set is <null>");
         this.action = Objects.requireNonNull(action, "QueueAction to set is <null>");
+        this.changeSeq = changeSeq;
+    }
+
+    public final Long getId() {
+        return this.id;
     }
 
     public final Device getDevice() {
         return this.device;
     }
 
-    public final Syncable getSyncable() {
-        return this.syncable;
+    public final UUID getSyncableUuid() {
+        return this.syncableUuid;
     }
 
     public final QueueAction getAction() {
         return this.action;
     }
 
+    public final long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    public final UUID getClaimToken() {
+        return this.claimToken;
+    }
+
+    public final Instant getLeasedUntil() {
+        return this.leasedUntil;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (obj == this)
+            return true;
+        if (obj == null || obj.getClass() != this.getClass())
+            return false;
+
+        SyncQueueItem other = (SyncQueueItem) obj;
+
+        if (this.id == null || other.id == null)
+            return false;
+
+        return Objects.equals(this.id, other.id);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(this.id);
+    }
+
     @Override
     public final String toString() {
         return String.format(
                 "SyncQueueItem{id=%d, device_uuid=%s, syncable_uuid=%s, action=%s}",
                 this.id,
                 this.device.getUuid(),
-                this.syncable.getUuid(),
+                this.syncableUuid,
                 this.action.toString());
     }
 
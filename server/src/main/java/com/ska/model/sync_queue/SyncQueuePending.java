@@ -0,0 +1,101 @@
+package com.ska.model.sync_queue;
+
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+/**
+ * Changes of one owner that one server instance buffered but has not
+ * flushed to the sync queue yet.
+ * 
+ * Written in the transaction of the change itself, so the marker is durable
+ * before the change reaches the in-memory buffer. The instance narrows or
+ * drops it after each flush. A marker nobody touched for
+ * {@link com.ska.util.constant.SyncConstants.Queue#PENDING_STALE_AFTER} belongs
+ * to a dead instance and is replayed from the change log by any other.
+ * Rows are written by SyncQueuePendingJdbcRepository only.
+ */
+@Entity
+@Table(name = "sync_queue_pending", indexes = @Index(
+        name = "idx_sync_queue_pending_owner_id",
+        columnList = "owner_id, first_seq"))
+public class SyncQueuePending {
+
+    @Embeddable
+    public record Key(
+            @Column(name = "instance_id", nullable = false) UUID instanceId,
+            @Column(name = "owner_id", nullable = false) Long ownerId) {
+    }
+
+    @EmbeddedId
+    private Key key;
+
+    // lowest change sequence that may not be durable in the queue yet
+    @Column(name = "first_seq", nullable = false)
+    private long firstSeq;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "touched_at", nullable = false)
+    private Instant touchedAt;
+
+    protected SyncQueuePending() {
+    }
+
+    public final Key getKey() {
+        return this.key;
+    }
+
+    public final long getFirstSeq() {
+        return this.firstSeq;
+    }
+
+    public final long getLastSeq() {
+        return this.lastSeq;
+    }
+
+    public final Instant getTouchedAt() {
+        return this.touchedAt;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (obj == this)
+            return true;
+        if (obj == null || obj.getClass() != this.getClass())
+            return false;
+
+        SyncQueuePending other = (SyncQueuePending) obj;
+
+        if (this.key == null || other.key == null)
+            return false;
+
+        return Objects.equals(this.key, other.key);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(this.key);
+    }
+
+    @Override
+    public final String toString() {
+        return String.format(
+                "SyncQueuePending{instance_id=%s, owner_id=%d, first_seq=%d, last_seq=%d}",
+                this.key.instanceId(),
+                this.key.ownerId(),
+                this.firstSeq,
+                this.lastSeq);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.ska.model.syncable;
+
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.ska.model.BaseModel;
+import com.ska.model.user.User;
+import com.ska.util.constant.EntityConstants;
+import com.ska.util.constant.UserConstants;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+
+/**
+ * Record of a deleted {@link Syncable}.
+ *
+ * Lets devices learn about deletes through the change feed. UUID is not unique
+ * here: an entity can be recreated and deleted again. Purged by
+ * {@link com.ska.service.queue.TombstonePurge} once no device reads it.
+ */
+@Entity
+@Table(
+        name = "entity_tombstones",
+        indexes = @Index(name = "idx_entity_tombstones_owner_change_seq", columnList = "owner_id, change_seq"))
+public class EntityTombstone extends BaseModel {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(
+            name = "owner_id",
+            nullable = false,
+            updatable = false,
+            foreignKey = @ForeignKey(name = "fk_entity_tombstone_owner"))
+    private User owner;
+
+    @Column(name = "uuid", columnDefinition = "UUID", nullable = false, updatable = false)
+    private UUID uuid;
+
+    @Column(name = "change_seq", nullable = false, updatable = false)
+    private long changeSeq;
+
+    protected EntityTombstone() {
+    }
+
+    public EntityTombstone(final User owner, UUID uuid, long changeSeq) {
+        this.owner = Objects.requireNonNull(owner, UserConstants.NULL_MESSAGE);
+        this.uuid = Objects.requireNonNull(uuid, EntityConstants.UUID_NULL_MESSAGE);
+        this.changeSeq = changeSeq;
+    }
+
+    public User getOwner() {
+        return this.owner;
+    }
+
+    public UUID getUuid() {
+        return this.uuid;
+    }
+
+    public long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format(
+                "EntityTombstone{id=%d, owner_id=%d, uuid=%s, change_seq=%d}",
+                this.id,
+                this.owner.getId(),
+                this.uuid.toString(),
+                this.changeSeq);
+    }
+
+}
@@ -18,12 +18,16 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 
 @Entity
-@Table(name = "entities")
+@Table(name = "entities", indexes = {
+        @Index(name = "idx_entities_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_entities_owner_change_seq", columnList = "owner_id, change_seq") })
 @AssociationOverride(name = "owner", joinColumns = @JoinColumn(name = "owner_id", nullable = false, updatable = false), foreignKey = @ForeignKey(name = "fk_syncable_owner"))
 public class Syncable extends BaseClientModel {
 
@@ -35,6 +39,13 @@ public class Syncable extends BaseClientModel {
     @Convert(converter = EncryptedContentConverter.class)
     private EncryptedContent encryptedContent;
 
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     protected Syncable() {
     }
 
@@ -57,6 +68,10 @@ public class Syncable extends BaseClientModel {
         this.encryptedContent = Objects.requireNonNull(newEncryptedContent, EntityConstants.Content.NULL_MESSAGE);
     }
 
+    public final void markChanged(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     public EncryptedMetadata getMetadataBytes() {
         return this.encryptedMetadata;
     }
@@ -65,13 +80,23 @@ public class Syncable extends BaseClientModel {
         return this.encryptedContent;
     }
 
+    public long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
     @Override
     public final String toString() {
         return String.format(
-                "Syncable{id=%d, owner_id=%d, uuid=%s, metadata=***, content=***}",
+                "Syncable{id=%d, owner_id=%d, uuid=%s, change_seq=%d, version=%d, metadata=***, content=***}",
                 this.id,
                 this.owner.getId(),
-                this.uuid.toString());
+                this.uuid.toString(),
+                this.changeSeq,
+                this.version);
     }
 
 }
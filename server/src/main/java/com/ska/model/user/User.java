@@ -39,6 +39,14 @@ public class User extends BaseModel {
     @Convert(converter = PasswordConverter.class)
     private Password password;
 
+    // advanced only by UserRepository.advanceChangeSeq, never written back on flush
+    @Column(name = "change_seq", nullable = false, updatable = false)
+    private long changeSeq;
+
+    // tombstones up to it are purged, written by UserRepository.advanceTombstonePurgedSeq only
+    @Column(name = "tombstone_purged_seq", nullable = false, updatable = false)
+    private long tombstonePurgedSeq;
+
     protected User() {
     }
 
@@ -85,6 +93,14 @@ public class User extends BaseModel {
         return this.password;
     }
 
+    public long getChangeSeq() {
+        return this.changeSeq;
+    }
+
+    public long getTombstonePurgedSeq() {
+        return this.tombstonePurgedSeq;
+    }
+
     @Override
     public final String toString() {
         return String.format("User{id=%d, email=%s, password=***}", this.id, this.email.toString());
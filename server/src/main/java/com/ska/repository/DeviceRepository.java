@@ -1,14 +1,27 @@
 package com.ska.repository;
 
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ska.model.Device;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.projection.DevicePresenceView;
+import com.ska.repository.projection.DeviceRef;
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.repository.projection.IndexedDevice;
+import com.ska.util.constant.CacheConstants;
 
 
 @Repository
@@ -16,6 +29,65 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
 
     Optional<Device> findByUuid(UUID uuid);
 
+    @Cacheable(cacheNames = CacheConstants.DEVICES, unless = "#result == null")
+    @Query("""
+            SELECT new com.ska.repository.projection.DeviceRef(d.id, d.uuid, d.owner.id)
+            FROM Device d WHERE d.uuid = :uuid""")
+    Optional<DeviceRef> findRefByUuid(@Param("uuid") UUID uuid);
+
     List<Device> getAllByOwnerId(Long ownerId);
 
+    // read through DeviceIndex, which every fan-out goes through
+    @Query("""
+            SELECT new com.ska.repository.projection.IndexedDevice(d.id, d.uuid, d.syncMode)
+            FROM Device d WHERE d.owner.id = :ownerId
+            ORDER BY d.id""")
+    List<IndexedDevice> findIndexedByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.DeviceSyncStateView(d.id, d.owner.id, d.syncMode, d.ackedChangeSeq)
+            FROM Device d WHERE d.id = :id""")
+    Optional<DeviceSyncStateView> findSyncStateById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Device d SET d.syncMode = :syncMode, d.ackedChangeSeq = :ackedChangeSeq WHERE d.id = :id")
+    int updateSyncState(
+            @Param("id") Long id,
+            @Param("syncMode") SyncMode syncMode,
+            @Param("ackedChangeSeq") long ackedChangeSeq);
+
+    // never moves back, so a late acknowledgement cannot replay changes
+    @Modifying
+    @Query("UPDATE Device d SET d.ackedChangeSeq = :seq WHERE d.id = :id AND d.ackedChangeSeq < :seq")
+    int advanceAckedChangeSeq(@Param("id") Long id, @Param("seq") long seq);
+
+    @Query("""
+            SELECT MIN(d.ackedChangeSeq) FROM Device d
+            WHERE d.owner.id = :ownerId AND d.syncMode = com.ska.model.sync_queue.SyncMode.WATERMARK""")
+    Long findLowestWatermarkAckedByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT d.lastSeenAt FROM Device d WHERE d.id = :id")
+    Instant findLastSeenAtById(@Param("id") Long id);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.DevicePresenceView(d.id, d.lastSeenAt)
+            FROM Device d WHERE d.syncMode = com.ska.model.sync_queue.SyncMode.QUEUE""")
+    List<DevicePresenceView> findQueueModePresence();
+
+    // never moves back, instances may write it in any order
+    @Modifying
+    @Query("""
+            UPDATE Device d SET d.lastSeenAt = :seenAt
+            WHERE d.id IN :ids AND (d.lastSeenAt IS NULL OR d.lastSeenAt < :seenAt)""")
+    int advanceLastSeenAt(@Param("ids") Collection<Long> ids, @Param("seenAt") Instant seenAt);
+
+    // devices registered before presence tracking count as seen from the first startup
+    @Modifying
+    @Query("UPDATE Device d SET d.lastSeenAt = :seenAt WHERE d.lastSeenAt IS NULL")
+    int initLastSeenAt(@Param("seenAt") Instant seenAt);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConstants.DEVICES, key = "#p0.uuid")
+    void delete(Device device);
+
 }
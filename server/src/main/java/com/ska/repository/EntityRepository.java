@@ -1,21 +1,171 @@
 package com.ska.repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ska.model.syncable.Syncable;
+import com.ska.repository.projection.SyncableLeafView;
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.repository.projection.SyncableUpdateView;
+import com.ska.repository.projection.SyncableVersionView;
+import com.ska.util.constant.EntityConstants;
+
+import jakarta.persistence.QueryHint;
 
 
 @Repository
 public interface EntityRepository extends JpaRepository<Syncable, Long> {
 
-    Optional<Syncable> findByUuid(UUID uuid);
+    Optional<Syncable> findByUuidAndOwnerId(UUID uuid, Long ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT s FROM Syncable s WHERE s.owner.id = :ownerId AND s.uuid IN :uuids")
+    List<Syncable> findAllByOwnerIdAndUuidIn(
+            @Param("ownerId") Long ownerId,
+            @Param("uuids") Collection<UUID> uuids);
+
+    @Query("SELECT s.changeSeq FROM Syncable s WHERE s.uuid = :uuid AND s.owner.id = :ownerId")
+    Optional<Long> findChangeSeqByUuidAndOwnerId(@Param("uuid") UUID uuid, @Param("ownerId") Long ownerId);
+
+    @Query("SELECT s.uuid FROM Syncable s WHERE s.uuid IN :uuids")
+    List<UUID> findExistingUuids(@Param("uuids") Collection<UUID> uuids);
+
+    // PostgreSQL RETURNING reports the new version and the previous change sequence in the same statement,
+    // nothing if no row matched; the self-join reads a snapshot, callers hold the owner row lock
+    @Query(nativeQuery = true, value = """
+            UPDATE entities e
+            SET encrypted_metadata = :metadata, encrypted_content = :content,
+                change_seq = :changeSeq, version = e.version + 1
+            FROM (SELECT id, change_seq FROM entities WHERE uuid = :uuid AND owner_id = :ownerId) previous
+            WHERE e.id = previous.id
+                AND (CAST(:expectedVersion AS BIGINT) IS NULL OR e.version = :expectedVersion)
+                AND (CAST(:expectedChangeSeq AS BIGINT) IS NULL OR e.change_seq = :expectedChangeSeq)
+            RETURNING e.version AS "version", previous.change_seq AS "previousChangeSeq\"""")
+    Optional<SyncableUpdateView> updateMetadataAndContent(
+            @Param("uuid") UUID uuid,
+            @Param("ownerId") Long ownerId,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("expectedChangeSeq") Long expectedChangeSeq,
+            @Param("metadata") byte[] metadata,
+            @Param("content") byte[] content,
+            @Param("changeSeq") long changeSeq);
+
+    @Query(nativeQuery = true, value = """
+            UPDATE entities e
+            SET encrypted_metadata = :metadata, change_seq = :changeSeq, version = e.version + 1
+            FROM (SELECT id, change_seq FROM entities WHERE uuid = :uuid AND owner_id = :ownerId) previous
+            WHERE e.id = previous.id
+                AND (CAST(:expectedVersion AS BIGINT) IS NULL OR e.version = :expectedVersion)
+                AND (CAST(:expectedChangeSeq AS BIGINT) IS NULL OR e.change_seq = :expectedChangeSeq)
+            RETURNING e.version AS "version", previous.change_seq AS "previousChangeSeq\"""")
+    Optional<SyncableUpdateView> updateMetadata(
+            @Param("uuid") UUID uuid,
+            @Param("ownerId") Long ownerId,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("expectedChangeSeq") Long expectedChangeSeq,
+            @Param("metadata") byte[] metadata,
+            @Param("changeSeq") long changeSeq);
+
+    @Query(nativeQuery = true, value = """
+            UPDATE entities e
+            SET encrypted_content = :content, change_seq = :changeSeq, version = e.version + 1
+            FROM (SELECT id, change_seq FROM entities WHERE uuid = :uuid AND owner_id = :ownerId) previous
+            WHERE e.id = previous.id
+                AND (CAST(:expectedVersion AS BIGINT) IS NULL OR e.version = :expectedVersion)
+                AND (CAST(:expectedChangeSeq AS BIGINT) IS NULL OR e.change_seq = :expectedChangeSeq)
+            RETURNING e.version AS "version", previous.change_seq AS "previousChangeSeq\"""")
+    Optional<SyncableUpdateView> updateContent(
+            @Param("uuid") UUID uuid,
+            @Param("ownerId") Long ownerId,
+            @Param("expectedVersion") Long expectedVersion,
+            @Param("expectedChangeSeq") Long expectedChangeSeq,
+            @Param("content") byte[] content,
+            @Param("changeSeq") long changeSeq);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableLeafView(s.uuid, s.version, s.changeSeq)
+            FROM Syncable s WHERE s.owner.id = :ownerId AND s.uuid IN :uuids""")
+    List<SyncableLeafView> findLeavesByOwnerIdAndUuidIn(
+            @Param("ownerId") Long ownerId,
+            @Param("uuids") Collection<UUID> uuids);
+
+    // rows are read first by findLeavesByOwnerIdAndUuidIn, callers hold the owner row lock in between
+    @Modifying
+    @Query("DELETE FROM Syncable s WHERE s.owner.id = :ownerId AND s.uuid IN :uuids")
+    int deleteAllByOwnerIdAndUuidIn(@Param("ownerId") Long ownerId, @Param("uuids") Collection<UUID> uuids);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableVersionView(s.owner.id, s.version, s.changeSeq)
+            FROM Syncable s WHERE s.uuid = :uuid""")
+    Optional<SyncableVersionView> findVersionByUuid(@Param("uuid") UUID uuid);
+
+    @Query("SELECT s FROM Syncable s WHERE s.owner.id = :ownerId AND s.id > :afterId ORDER BY s.id ASC")
+    List<Syncable> findPageByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableMetadataView(
+                s.id, s.owner.id, s.uuid, s.version, s.changeSeq, s.encryptedMetadata)
+            FROM Syncable s WHERE s.uuid = :uuid""")
+    Optional<SyncableMetadataView> findMetadataByUuid(@Param("uuid") UUID uuid);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableMetadataView(
+                s.id, s.owner.id, s.uuid, s.version, s.changeSeq, s.encryptedMetadata)
+            FROM Syncable s
+            WHERE s.owner.id = :ownerId AND s.id > :afterId
+            ORDER BY s.id ASC""")
+    List<SyncableMetadataView> findMetadataPageByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    @Query("""
+            SELECT s FROM Syncable s
+            WHERE s.owner.id = :ownerId AND s.changeSeq > :since
+            ORDER BY s.changeSeq ASC""")
+    List<Syncable> findChangesByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("since") long since,
+            Pageable pageable);
+
+    @Query("SELECT s.uuid FROM Syncable s WHERE s.owner.id = :ownerId AND s.changeSeq > :since")
+    List<UUID> findChangedUuidsByOwnerId(@Param("ownerId") Long ownerId, @Param("since") long since);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableLeafView(s.uuid, s.version, s.changeSeq)
+            FROM Syncable s
+            WHERE s.owner.id = :ownerId AND s.uuid BETWEEN :from AND :to
+            ORDER BY s.uuid ASC""")
+    List<SyncableLeafView> findLeavesByOwnerIdAndUuidBetween(
+            @Param("ownerId") Long ownerId,
+            @Param("from") UUID from,
+            @Param("to") UUID to);
+
+    @Query("""
+            SELECT new com.ska.repository.projection.SyncableLeafView(s.uuid, s.version, s.changeSeq)
+            FROM Syncable s WHERE s.owner.id = :ownerId""")
+    List<SyncableLeafView> findLeavesByOwnerId(@Param("ownerId") Long ownerId);
 
-    List<Syncable> getAllByOwnerId(Long ownerId);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityConstants.Export.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT s FROM Syncable s WHERE s.owner.id = :ownerId ORDER BY s.id ASC")
+    Stream<Syncable> streamAllByOwnerId(@Param("ownerId") Long ownerId);
 
 }
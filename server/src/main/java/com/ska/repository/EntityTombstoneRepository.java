@@ -0,0 +1,48 @@
+package com.ska.repository;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ska.model.syncable.EntityTombstone;
+
+
+@Repository
+public interface EntityTombstoneRepository extends JpaRepository<EntityTombstone, Long> {
+
+    @Query("""
+            SELECT t FROM EntityTombstone t
+            WHERE t.owner.id = :ownerId AND t.changeSeq > :since
+            ORDER BY t.changeSeq ASC""")
+    List<EntityTombstone> findChangesByOwnerId(
+            @Param("ownerId") Long ownerId,
+            @Param("since") long since,
+            Pageable pageable);
+
+    @Query("SELECT DISTINCT t.uuid FROM EntityTombstone t WHERE t.owner.id = :ownerId AND t.changeSeq > :since")
+    List<UUID> findChangedUuidsByOwnerId(@Param("ownerId") Long ownerId, @Param("since") long since);
+
+    // one index probe per owner instead of a scan of all tombstones
+    @Query("""
+            SELECT u.id FROM User u
+            WHERE EXISTS (SELECT 1 FROM EntityTombstone t WHERE t.owner = u)
+            ORDER BY u.id""")
+    List<Long> findOwnerIdsWithTombstones();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM entity_tombstones WHERE id IN (
+                SELECT id FROM entity_tombstones
+                WHERE owner_id = :ownerId AND change_seq <= :upTo
+                ORDER BY change_seq
+                LIMIT :limit)""")
+    int deleteBatchUpTo(@Param("ownerId") Long ownerId, @Param("upTo") long upTo, @Param("limit") int limit);
+
+}
@@ -0,0 +1,58 @@
+package com.ska.repository;
+
+
+import java.util.ArrayList;
+import java.util.SortedMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ska.repository.projection.MerkleDelta;
+import com.ska.util.constant.ModelConstants;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * PostgreSQL statements of the hash tree that JPQL cannot express.
+ * 
+ * Deltas are folded into existing nodes with the # (XOR) operator and a
+ * count increment, so concurrent changes never read a node before writing it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MerkleNodeJdbcRepository {
+
+    private static final String APPLY_SQL = """
+            INSERT INTO merkle_nodes (id, owner_id, prefix, digest, entity_count)
+            VALUES (nextval('%s'), ?, ?, ?, ?)
+            ON CONFLICT (owner_id, prefix) DO UPDATE
+            SET digest = merkle_nodes.digest # EXCLUDED.digest,
+                entity_count = merkle_nodes.entity_count + EXCLUDED.entity_count""".formatted(
+            ModelConstants.MODEL_ID_SEQUENCE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Folds deltas into the nodes of an owner.
+     * 
+     * Nodes are written in prefix order, so the root always comes first and
+     * concurrent writers lock shared nodes in the same order.
+     * 
+     * @param ownerId the owner of the nodes
+     * @param deltas the delta per prefix
+     */
+    public void apply(Long ownerId, SortedMap<String, MerkleDelta> deltas) {
+        jdbcTemplate.batchUpdate(
+                APPLY_SQL,
+                new ArrayList<>(deltas.entrySet()),
+                deltas.size(),
+                (statement, delta) -> {
+                    statement.setLong(1, ownerId);
+                    statement.setString(2, delta.getKey());
+                    statement.setLong(3, delta.getValue().digest());
+                    statement.setLong(4, delta.getValue().entityCount());
+                });
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.ska.repository;
+
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ska.model.merkle.MerkleNode;
+import com.ska.repository.projection.MerkleNodeView;
+
+
+@Repository
+public interface MerkleNodeRepository extends JpaRepository<MerkleNode, Long> {
+
+    // emptied nodes stay behind with a zero digest, they read as absent
+    @Query("""
+            SELECT new com.ska.repository.projection.MerkleNodeView(n.prefix, n.digest, n.entityCount)
+            FROM MerkleNode n
+            WHERE n.owner.id = :ownerId AND n.prefix IN :prefixes AND n.entityCount > 0
+            ORDER BY n.prefix""")
+    List<MerkleNodeView> findAllByOwnerIdAndPrefixIn(
+            @Param("ownerId") Long ownerId,
+            @Param("prefixes") Collection<String> prefixes);
+
+    @Modifying
+    @Query("DELETE FROM MerkleNode n WHERE n.owner.id = :ownerId")
+    int deleteAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("""
+            SELECT DISTINCT s.owner.id FROM Syncable s
+            WHERE NOT EXISTS (SELECT n.id FROM MerkleNode n WHERE n.owner.id = s.owner.id AND n.prefix = '')""")
+    List<Long> findOwnerIdsWithoutTree();
+
+}
@@ -1,7 +1,14 @@
 package com.ska.repository;
 
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ska.model.sync_queue.SyncQueueItem;
@@ -10,4 +17,44 @@ import com.ska.model.sync_queue.SyncQueueItem;
 @Repository
 public interface SyncQueueItemRepository extends JpaRepository<SyncQueueItem, Long> {
 
+    // a row re-queued or re-claimed since the claim has another token and survives
+    @Modifying
+    @Query("""
+            DELETE FROM SyncQueueItem q
+            WHERE q.device.id = :deviceId AND q.claimToken = :claimToken AND q.id IN :ids""")
+    int deleteClaimed(
+            @Param("deviceId") Long deviceId,
+            @Param("claimToken") UUID claimToken,
+            @Param("ids") Collection<Long> ids);
+
+    // reads at most backlog + 1 entries of idx_sync_queue_device_id per QUEUE device, never the whole queue
+    @Query(nativeQuery = true, value = """
+            SELECT d.id FROM devices d
+            WHERE d.sync_mode = 'QUEUE'
+                AND EXISTS (
+                    SELECT 1 FROM sync_queue q
+                    WHERE q.device_id = d.id
+                    ORDER BY q.id
+                    OFFSET :backlog ROWS
+                    FETCH FIRST 1 ROW ONLY)
+            ORDER BY d.id""")
+    List<Long> findDeviceIdsWithBacklogAbove(@Param("backlog") long backlog);
+
+    @Query("SELECT MIN(q.changeSeq) FROM SyncQueueItem q WHERE q.device.id = :deviceId")
+    Long findLowestChangeSeqByDeviceId(@Param("deviceId") Long deviceId);
+
+    // rows of WATERMARK devices are left to SyncQueueCompaction, their acked sequence counts instead
+    @Query("""
+            SELECT MIN(q.changeSeq) FROM SyncQueueItem q
+            WHERE q.device.owner.id = :ownerId AND q.device.syncMode = com.ska.model.sync_queue.SyncMode.QUEUE""")
+    Long findLowestQueueModeChangeSeqByOwnerId(@Param("ownerId") Long ownerId);
+
+    // one index probe per WATERMARK device instead of a scan of the whole queue
+    @Query("""
+            SELECT d.id FROM Device d
+            WHERE d.syncMode = com.ska.model.sync_queue.SyncMode.WATERMARK
+                AND EXISTS (SELECT 1 FROM SyncQueueItem q WHERE q.device = d)
+            ORDER BY d.id""")
+    List<Long> findWatermarkDeviceIdsWithItems();
+
 }
@@ -0,0 +1,221 @@
+package com.ska.repository;
+
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.repository.projection.QueueTarget;
+import com.ska.repository.projection.SyncQueueItemView;
+import com.ska.util.constant.ModelConstants;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * PostgreSQL statements of the sync queue that JPQL cannot express.
+ * 
+ * One row per (device, syncable) pair is kept by uq_sync_queue_device_syncable.
+ * A conflicting row only takes the new action if it supersedes the queued
+ * one, so coalescing happens inside the INSERT instead of read-modify-write.
+ * Any conflict on a claimed row also drops the claim, so a device acking the
+ * older action cannot delete the newer change. A conflict that changes
+ * neither leaves the row untouched, so repeated saves of one syncable do not
+ * rewrite its queue rows. A rewritten row keeps the lowest change sequence it
+ * stands for. Target devices are key-share locked first and pairs of a
+ * device removed after its fan-out are dropped, so the plain VALUES insert
+ * never fails the batch on the foreign key and stays rewritable by the driver.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncQueueJdbcRepository {
+
+    private static final String INSERT = "INSERT INTO sync_queue (id, device_id, syncable_uuid, action, change_seq) "
+            + "VALUES (nextval('" + ModelConstants.SYNC_QUEUE_ID_SEQUENCE + "'), ?, ?, ?, ?) "
+            + "ON CONFLICT (device_id, syncable_uuid) DO UPDATE SET ";
+    private static final String RELEASE = ", change_seq = LEAST(sync_queue.change_seq, EXCLUDED.change_seq)"
+            + ", claim_token = NULL, leased_until = NULL";
+    private static final String CLAIMED = "sync_queue.claim_token IS NOT NULL";
+
+    private static final String REPLACE_SQL = INSERT + "action = EXCLUDED.action" + RELEASE
+            + " WHERE sync_queue.action <> EXCLUDED.action OR " + CLAIMED;
+    private static final Map<QueueAction, String> COALESCE_SQL = new EnumMap<>(QueueAction.class);
+
+    static {
+        for (QueueAction action : QueueAction.values()) {
+            List<QueueAction> superseded = action.superseded();
+            String weaker = superseded.stream()
+                    .map(pending -> "'" + pending.name() + "'")
+                    .collect(Collectors.joining(", "));
+
+            COALESCE_SQL.put(action, superseded.isEmpty()
+                    ? INSERT + "action = sync_queue.action" + RELEASE + " WHERE " + CLAIMED
+                    : INSERT + "action = CASE WHEN sync_queue.action IN (" + weaker
+                            + ") THEN EXCLUDED.action ELSE sync_queue.action END" + RELEASE
+                            + " WHERE sync_queue.action IN (" + weaker + ") OR " + CLAIMED);
+        }
+    }
+
+    // blocks deletion of the devices until commit, in id order like the upserts after it
+    private static final String LOCK_DEVICES_SQL = """
+            SELECT id FROM devices WHERE id = ANY (?)
+            ORDER BY id
+            FOR KEY SHARE""";
+
+    // lease times come from the database clock, so instances with skewed clocks agree
+    private static final String CLAIM_SQL = """
+            UPDATE sync_queue SET claim_token = ?, leased_until = now() + ? * INTERVAL '1 millisecond'
+            WHERE id IN (
+                SELECT id FROM sync_queue
+                WHERE device_id = ? AND (leased_until IS NULL OR leased_until < now())
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, syncable_uuid, action, leased_until""";
+
+    // rows held by a flush or a claim are left for the next batch
+    private static final String DELETE_BATCH_SQL = """
+            DELETE FROM sync_queue WHERE id IN (
+                SELECT id FROM sync_queue
+                WHERE device_id = ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private Set<Long> lockDevices(Collection<QueueTarget> targets) {
+        Long[] deviceIds = targets.stream().map(QueueTarget::deviceId).distinct().toArray(Long[]::new);
+        if (deviceIds.length == 0)
+            return Set.of();
+
+        return new HashSet<>(jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(LOCK_DEVICES_SQL);
+                    statement.setArray(1, connection.createArrayOf("bigint", deviceIds));
+                    return statement;
+                },
+                (row, rowNum) -> row.getLong("id")));
+    }
+
+    private static SyncQueueItemView mapItem(ResultSet row, int rowNum) throws SQLException {
+        return new SyncQueueItemView(
+                row.getLong("id"),
+                row.getObject("syncable_uuid", UUID.class),
+                QueueAction.valueOf(row.getString("action")),
+                row.getTimestamp("leased_until").toInstant());
+    }
+
+    /**
+     * Queues the action for every device and syncable pair.
+     * 
+     * Pairs are written in (device, syncable) order, so concurrent fan-outs
+     * lock conflicting rows in the same order.
+     * 
+     * @param deviceIds the target devices
+     * @param syncableUuids the changed syncables
+     * @param action the action to queue
+     * @param replace whether to overwrite any queued action, as a re-created
+     * syncable must not stay queued for DELETE
+     * @param changeSeq the lowest change sequence of the changes
+     */
+    public void upsertAll(
+            Collection<Long> deviceIds,
+            Collection<UUID> syncableUuids,
+            QueueAction action,
+            boolean replace,
+            long changeSeq) {
+        Map<QueueTarget, Long> targets = new HashMap<>(deviceIds.size() * syncableUuids.size() * 2);
+        for (Long deviceId : deviceIds)
+            for (UUID syncableUuid : syncableUuids)
+                targets.put(new QueueTarget(deviceId, syncableUuid), changeSeq);
+
+        upsert(targets, action, replace);
+    }
+
+    /**
+     * Queues the action for the given pairs, see
+     * {@link #upsertAll(Collection, Collection, QueueAction, boolean, long)}.
+     * 
+     * @param targets the distinct (device, syncable) pairs with the lowest
+     * change sequence each stands for
+     * @param action the action to queue
+     * @param replace whether to overwrite any queued action
+     */
+    public void upsert(Map<QueueTarget, Long> targets, QueueAction action, boolean replace) {
+        Set<Long> devices = lockDevices(targets.keySet());
+
+        List<Map.Entry<QueueTarget, Long>> ordered = new ArrayList<>(targets.size());
+        for (Map.Entry<QueueTarget, Long> target : targets.entrySet())
+            if (devices.contains(target.getKey().deviceId()))
+                ordered.add(target);
+        ordered.sort(Map.Entry.comparingByKey(
+                Comparator.comparing(QueueTarget::deviceId).thenComparing(QueueTarget::syncableUuid)));
+
+        jdbcTemplate.batchUpdate(
+                replace ? REPLACE_SQL : COALESCE_SQL.get(action),
+                ordered,
+                SyncConstants.Queue.BATCH_SIZE,
+                (statement, target) -> {
+                    statement.setLong(1, target.getKey().deviceId());
+                    statement.setObject(2, target.getKey().syncableUuid());
+                    statement.setString(3, action.name());
+                    statement.setLong(4, target.getValue());
+                });
+    }
+
+    /**
+     * Leases the oldest unclaimed items of a device.
+     * 
+     * Rows locked by a concurrent claim are skipped instead of waited for, so
+     * parallel drains of one device never block each other or return the same
+     * item twice. Items whose lease expired are claimable again.
+     * 
+     * @param deviceId the device to drain
+     * @param claimToken the token to mark claimed rows with
+     * @param lease how long the claim stays exclusive
+     * @param limit the maximum item count
+     * @return claimed items in queue order
+     */
+    public List<SyncQueueItemView> claim(Long deviceId, UUID claimToken, Duration lease, int limit) {
+        List<SyncQueueItemView> claimed = new ArrayList<>(jdbcTemplate.query(
+                CLAIM_SQL,
+                SyncQueueJdbcRepository::mapItem,
+                claimToken,
+                lease.toMillis(),
+                deviceId,
+                limit));
+        claimed.sort(Comparator.comparing(SyncQueueItemView::id));
+
+        return claimed;
+    }
+
+    /**
+     * Deletes up to {@code limit} items of a device without waiting for
+     * locked ones, so it never deadlocks with a flush.
+     * 
+     * @param deviceId the device to compact
+     * @param limit the maximum item count
+     * @return the number of deleted items
+     */
+    public int deleteBatch(Long deviceId, int limit) {
+        return jdbcTemplate.update(DELETE_BATCH_SQL, deviceId, limit);
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.ska.repository;
+
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ska.model.sync_queue.SyncQueuePending;
+import com.ska.repository.projection.PendingMarkerView;
+
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * PostgreSQL statements of the {@link SyncQueuePending} markers.
+ * 
+ * A marker only ever widens while changes are offered and only narrows or
+ * disappears once the queue rows below it are committed, so the lowest
+ * first_seq of an owner bounds what the sync queue may still be missing,
+ * whichever instance buffered it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncQueuePendingJdbcRepository {
+
+    private static final String MARK_SQL = """
+            INSERT INTO sync_queue_pending (instance_id, owner_id, first_seq, last_seq, touched_at)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (instance_id, owner_id) DO UPDATE
+            SET first_seq = LEAST(sync_queue_pending.first_seq, EXCLUDED.first_seq),
+                last_seq = GREATEST(sync_queue_pending.last_seq, EXCLUDED.last_seq),
+                touched_at = now()""";
+
+    // a change marked after the flush snapshot raised last_seq and keeps the marker
+    private static final String RELEASE_SQL = """
+            DELETE FROM sync_queue_pending
+            WHERE instance_id = ? AND owner_id = ? AND last_seq <= ?""";
+
+    private static final String NARROW_SQL = """
+            UPDATE sync_queue_pending SET first_seq = GREATEST(first_seq, ?), touched_at = now()
+            WHERE instance_id = ? AND owner_id = ?""";
+
+    // staleness is measured on the database clock, so instances with skewed clocks agree
+    private static final String FIND_STALE_SQL = """
+            SELECT instance_id, owner_id FROM sync_queue_pending
+            WHERE touched_at < now() - ? * INTERVAL '1 millisecond'
+            ORDER BY owner_id""";
+
+    private static final String LOCK_STALE_SQL = """
+            SELECT first_seq FROM sync_queue_pending
+            WHERE instance_id = ? AND owner_id = ? AND touched_at < now() - ? * INTERVAL '1 millisecond'
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String DURABLE_SEQ_SQL = """
+            SELECT LEAST(u.change_seq, COALESCE(
+                (SELECT MIN(p.first_seq) - 1 FROM sync_queue_pending p WHERE p.owner_id = u.id),
+                u.change_seq))
+            FROM users u WHERE u.id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Widens the marker of an instance to cover a change. Called in the
+     * transaction of the change, which holds the owner row.
+     * 
+     * @param instanceId the buffering instance
+     * @param ownerId the owner of the change
+     * @param firstSeq the lowest change sequence of the change
+     * @param lastSeq the highest change sequence of the change
+     */
+    public void mark(UUID instanceId, Long ownerId, long firstSeq, long lastSeq) {
+        jdbcTemplate.update(MARK_SQL, instanceId, ownerId, firstSeq, lastSeq);
+    }
+
+    /**
+     * Narrows or drops the markers of an instance after a flush committed.
+     * 
+     * Markers are written in owner order, so concurrent releases lock them in
+     * the same order.
+     * 
+     * @param instanceId the flushing instance
+     * @param flushedSeqs the highest flushed change sequence, per owner
+     * @param lowestUnflushed the lowest change sequence still buffered or in
+     * a transaction, per owner
+     */
+    public void release(UUID instanceId, Map<Long, Long> flushedSeqs, Map<Long, Long> lowestUnflushed) {
+        List<Object[]> narrowed = new ArrayList<>();
+        List<Object[]> released = new ArrayList<>();
+
+        new TreeMap<>(flushedSeqs).forEach((ownerId, seq) -> {
+            Long lowest = lowestUnflushed.get(ownerId);
+            if (lowest != null)
+                narrowed.add(new Object[] { lowest, instanceId, ownerId });
+            else
+                released.add(new Object[] { instanceId, ownerId, seq });
+        });
+
+        if (!narrowed.isEmpty())
+            jdbcTemplate.batchUpdate(NARROW_SQL, narrowed);
+        if (!released.isEmpty())
+            jdbcTemplate.batchUpdate(RELEASE_SQL, released);
+    }
+
+    /**
+     * Drops a marker whose changes up to {@code seq} were replayed.
+     * 
+     * @param instanceId the instance that buffered the changes
+     * @param ownerId the owner of the changes
+     * @param seq the highest replayed change sequence
+     * @return the number of dropped markers
+     */
+    public int release(UUID instanceId, Long ownerId, long seq) {
+        return jdbcTemplate.update(RELEASE_SQL, instanceId, ownerId, seq);
+    }
+
+    /**
+     * Lists markers not touched within {@code staleAfter}, in owner order.
+     * 
+     * @param staleAfter how long a live instance goes without touching its
+     * markers at most
+     * @return the stale markers
+     */
+    public List<PendingMarkerView> findStale(Duration staleAfter) {
+        return jdbcTemplate.query(
+                FIND_STALE_SQL,
+                (row, rowNum) -> new PendingMarkerView(
+                        row.getObject("instance_id", UUID.class),
+                        row.getLong("owner_id")),
+                staleAfter.toMillis());
+    }
+
+    /**
+     * Locks a marker that is still stale, skipping one another recovery
+     * holds.
+     * 
+     * @param marker the marker to lock
+     * @param staleAfter see {@link #findStale(Duration)}
+     * @return the lowest change sequence of the marker, empty if it is gone,
+     * touched again or locked
+     */
+    public Optional<Long> lockStale(PendingMarkerView marker, Duration staleAfter) {
+        return jdbcTemplate.query(
+                LOCK_STALE_SQL,
+                (row, rowNum) -> row.getLong("first_seq"),
+                marker.instanceId(),
+                marker.ownerId(),
+                staleAfter.toMillis())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Returns the change sequence up to which every change of the owner is
+     * in the sync queue, on every instance.
+     * 
+     * @param ownerId the owner identifier
+     * @return the durable change sequence
+     */
+    public long findDurableSeq(Long ownerId) {
+        return jdbcTemplate.queryForObject(DURABLE_SEQ_SQL, Long.class, ownerId);
+    }
+
+}
@@ -1,11 +1,19 @@
 package com.ska.repository;
 
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ska.model.user.User;
 import com.ska.model.user.vo.Email;
+import com.ska.repository.projection.UserView;
+import com.ska.util.constant.CacheConstants;
 
 
 @Repository
@@ -13,4 +21,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(Email email);
 
+    // the cache shares values between threads, so it holds an immutable view, never the entity
+    @Cacheable(cacheNames = CacheConstants.USERS, unless = "#result == null")
+    @Query("SELECT new com.ska.repository.projection.UserView(u.id, u.email) FROM User u WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    // PostgreSQL RETURNING reads the advanced sequence back within the same statement
+    @Query(nativeQuery = true, value = """
+            UPDATE users SET change_seq = change_seq + :count
+            WHERE id = :userId
+            RETURNING change_seq""")
+    Optional<Long> advanceChangeSeq(@Param("userId") Long userId, @Param("count") int count);
+
+    @Query("SELECT u.changeSeq FROM User u WHERE u.id = :userId")
+    long findChangeSeqById(@Param("userId") Long userId);
+
+    // no-op write that row-locks the user until commit, every change reserves its sequence on that row
+    @Modifying
+    @Query("UPDATE User u SET u.changeSeq = u.changeSeq WHERE u.id = :userId")
+    int lockChangeSeq(@Param("userId") Long userId);
+
+    @Query("SELECT u.tombstonePurgedSeq FROM User u WHERE u.id = :userId")
+    Optional<Long> findTombstonePurgedSeqById(@Param("userId") Long userId);
+
+    // never moves back, a purge run with an older horizon cannot reopen purged watermarks
+    @Modifying
+    @Query("""
+            UPDATE User u SET u.tombstonePurgedSeq = :seq
+            WHERE u.id = :userId AND u.tombstonePurgedSeq < :seq""")
+    int advanceTombstonePurgedSeq(@Param("userId") Long userId, @Param("seq") long seq);
+
 }
@@ -0,0 +1,14 @@
+package com.ska.repository.projection;
+
+
+import java.time.Instant;
+
+
+/**
+ * Last known presence of a device.
+ * 
+ * @param id the device identifier
+ * @param lastSeenAt when the device was last seen, to the presence resolution
+ */
+public record DevicePresenceView(Long id, Instant lastSeenAt) {
+}
@@ -0,0 +1,15 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+
+/**
+ * Identity of a device, small and immutable enough to be cached.
+ * 
+ * @param id the row identifier
+ * @param uuid the client identifier
+ * @param ownerId the owner identifier
+ */
+public record DeviceRef(Long id, UUID uuid, Long ownerId) {
+}
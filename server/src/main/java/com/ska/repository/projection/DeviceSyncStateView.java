@@ -0,0 +1,16 @@
+package com.ska.repository.projection;
+
+
+import com.ska.model.sync_queue.SyncMode;
+
+
+/**
+ * Sync state of a device.
+ * 
+ * @param id the device identifier
+ * @param ownerId the owner identifier
+ * @param syncMode how the device learns about changes
+ * @param ackedChangeSeq the change sequence a WATERMARK device resumes after
+ */
+public record DeviceSyncStateView(Long id, Long ownerId, SyncMode syncMode, long ackedChangeSeq) {
+}
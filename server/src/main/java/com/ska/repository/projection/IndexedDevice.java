@@ -0,0 +1,17 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+import com.ska.model.sync_queue.SyncMode;
+
+
+/**
+ * Device as kept in the owner device index.
+ * 
+ * @param id the row identifier
+ * @param uuid the client identifier
+ * @param syncMode the sync path of the device
+ */
+public record IndexedDevice(Long id, UUID uuid, SyncMode syncMode) {
+}
@@ -0,0 +1,16 @@
+package com.ska.repository.projection;
+
+
+/**
+ * Change to fold into a hash tree node.
+ * 
+ * @param digest the leaf digests to XOR in, a removed leaf XORs out the same way
+ * @param entityCount the number of syncables added, negative when removed
+ */
+public record MerkleDelta(long digest, long entityCount) {
+
+    public MerkleDelta plus(MerkleDelta other) {
+        return new MerkleDelta(this.digest ^ other.digest(), this.entityCount + other.entityCount());
+    }
+
+}
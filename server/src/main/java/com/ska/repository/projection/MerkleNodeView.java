@@ -0,0 +1,12 @@
+package com.ska.repository.projection;
+
+
+/**
+ * Digest of a hash tree node.
+ * 
+ * @param prefix the UUID hex prefix of the node
+ * @param digest the XOR of the leaf digests under the node
+ * @param entityCount the number of syncables under the node
+ */
+public record MerkleNodeView(String prefix, long digest, long entityCount) {
+}
@@ -0,0 +1,14 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+
+/**
+ * Key of one sync_queue_pending marker.
+ * 
+ * @param instanceId the server instance that buffered the changes
+ * @param ownerId the owner of the changes
+ */
+public record PendingMarkerView(UUID instanceId, Long ownerId) {
+}
@@ -0,0 +1,14 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+
+/**
+ * Key of one sync queue row, matching uq_sync_queue_device_syncable.
+ * 
+ * @param deviceId the target device
+ * @param syncableUuid the changed syncable
+ */
+public record QueueTarget(Long deviceId, UUID syncableUuid) {
+}
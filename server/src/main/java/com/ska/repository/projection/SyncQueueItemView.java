@@ -0,0 +1,19 @@
+package com.ska.repository.projection;
+
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.ska.model.sync_queue.QueueAction;
+
+
+/**
+ * Claimed queue item, without the device it belongs to.
+ * 
+ * @param id the row identifier, echoed back on acknowledgement
+ * @param syncableUuid the changed syncable
+ * @param action the queued action
+ * @param leasedUntil the moment the claim expires
+ */
+public record SyncQueueItemView(Long id, UUID syncableUuid, QueueAction action, Instant leasedUntil) {
+}
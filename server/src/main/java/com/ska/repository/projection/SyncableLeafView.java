@@ -0,0 +1,16 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+
+/**
+ * Hash tree leaf of a syncable.
+ * 
+ * @param uuid the syncable identifier
+ * @param version the current optimistic lock version
+ * @param changeSeq the change sequence of the latest change, which the leaf
+ * digest is computed from
+ */
+public record SyncableLeafView(UUID uuid, long version, long changeSeq) {
+}
@@ -0,0 +1,26 @@
+package com.ska.repository.projection;
+
+
+import java.util.UUID;
+
+import com.ska.model.syncable.vo.EncryptedMetadata;
+
+
+/**
+ * Syncable without its encrypted content, for listings and metadata reads.
+ * 
+ * @param id the row identifier, used as keyset cursor
+ * @param ownerId the owner identifier
+ * @param uuid the client identifier
+ * @param version the current optimistic lock version
+ * @param changeSeq the owner change sequence of the last write
+ * @param encryptedMetadata the encrypted metadata
+ */
+public record SyncableMetadataView(
+        Long id,
+        Long ownerId,
+        UUID uuid,
+        long version,
+        long changeSeq,
+        EncryptedMetadata encryptedMetadata) {
+}
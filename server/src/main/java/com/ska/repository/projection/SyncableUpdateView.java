@@ -0,0 +1,23 @@
+package com.ska.repository.projection;
+
+
+/**
+ * Outcome of a conditional syncable update, read back with RETURNING.
+ * 
+ * An interface, as native queries map their columns to interface
+ * projections only.
+ */
+public interface SyncableUpdateView {
+
+    /**
+     * @return the version after the update
+     */
+    public long getVersion();
+
+    /**
+     * @return the change sequence the syncable had before the update, which
+     * its old hash tree leaf was computed from
+     */
+    public long getPreviousChangeSeq();
+
+}
@@ -0,0 +1,12 @@
+package com.ska.repository.projection;
+
+
+/**
+ * Owner and version of a syncable, read without its encrypted payload.
+ * 
+ * @param ownerId the owner identifier
+ * @param version the current optimistic lock version
+ * @param changeSeq the owner change sequence of the last write
+ */
+public record SyncableVersionView(Long ownerId, long version, long changeSeq) {
+}
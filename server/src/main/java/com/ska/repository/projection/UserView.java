@@ -0,0 +1,14 @@
+package com.ska.repository.projection;
+
+
+import com.ska.model.user.vo.Email;
+
+
+/**
+ * Identity of a user, small and immutable enough to be cached.
+ * 
+ * @param id the row identifier
+ * @param email the email value object
+ */
+public record UserView(Long id, Email email) {
+}
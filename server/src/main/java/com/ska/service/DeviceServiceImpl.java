@@ -0,0 +1,160 @@
+package com.ska.service;
+
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ska.exception.AccessDeniedException;
+import com.ska.exception.ResourceAlreadyExistsException;
+import com.ska.exception.ResourceNotFoundException;
+import com.ska.model.Device;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.model.user.User;
+import com.ska.repository.DeviceRepository;
+import com.ska.service.cache.DeviceIndex;
+import com.ska.service.contract.DeviceService;
+import com.ska.service.contract.UserService;
+import com.ska.util.LogTemplates;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Service registering the devices of a user.
+ * 
+ * Extends {@link BaseService}. A new device starts on the change log with
+ * nothing applied: it bootstraps from the owner snapshot, acknowledges its
+ * watermark and is promoted to the queue once caught up. Registration and
+ * removal are announced to {@link DeviceIndex}, so fan-outs see them as soon
+ * as they commit.
+ * 
+ * @see Device - device entity
+ * @see SnapshotServiceImpl - bootstrap snapshots
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeviceServiceImpl extends BaseService implements DeviceService {
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceIndex deviceIndex;
+    private final UserService userService;
+    private final EntityManager entityManager;
+
+    // =========== Helper methods ========== //
+
+    private final Device checkDeviceOwnershipAndGet(Long userId, UUID deviceUuid) {
+        Device device = deviceRepository.findByUuid(deviceUuid).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("Device with uuid=%s not found", deviceUuid)));
+        if (!userId.equals(device.getOwner().getId()))
+            throw new AccessDeniedException("Permission denied for user with id=" + userId);
+
+        return device;
+    }
+
+    // ===================================== //
+
+    /**
+     * Registers a device for the user.
+     * 
+     * Registering a device of the same user again returns it unchanged, so a
+     * client may retry a registration whose response was lost.
+     * 
+     * @param userId the owner identifier
+     * @param deviceUuid the client identifier of the device
+     * @return the registered device
+     * @throws ResourceNotFoundException if user does not exist
+     * @throws ResourceAlreadyExistsException if the device belongs to another
+     * user, or a concurrent registration of it committed first
+     */
+    @Transactional
+    @Override
+    public Device register(Long userId, UUID deviceUuid) {
+        log.info("Registering device with UUID: {} for user with ID: {}", deviceUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
+        userService.checkUserExistenceAndGet(userId);
+
+        log.debug(LogTemplates.EntityService.checkEntityExistenceStartLog("Device"));
+        Optional<Device> existing = deviceRepository.findByUuid(deviceUuid);
+        if (existing.isPresent()) {
+            if (!userId.equals(existing.get().getOwner().getId()))
+                throw new ResourceAlreadyExistsException(
+                        String.format("Device with uuid=%s already exists", deviceUuid));
+
+            log.info("Device with UUID: {} is already registered for user with ID: {}", deviceUuid, userId);
+            return existing.get();
+        }
+
+        deviceIndex.beginChange(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        Device savedDevice;
+        try {
+            // flushed here, so a lost race on the unique UUID surfaces as a conflict instead of failing the commit
+            savedDevice = deviceRepository.saveAndFlush(new Device(
+                    entityManager.getReference(User.class, userId),
+                    deviceUuid,
+                    SyncMode.WATERMARK));
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceAlreadyExistsException(String.format("Device with uuid=%s already exists", deviceUuid));
+        }
+
+        log.info("Device registered successfully for user with ID: {}", userId);
+        return savedDevice;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Device> getAll(Long userId) {
+        log.info("Getting devices for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
+        userService.checkUserExistenceAndGet(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        return deviceRepository.getAllByOwnerId(userId);
+    }
+
+    /**
+     * Removes a device of the user, its queue items go with it by cascade.
+     * Items still buffered for it are skipped when flushed.
+     * 
+     * @param userId the owner identifier
+     * @param deviceUuid the client identifier of the device
+     * @throws ResourceNotFoundException if device does not exist
+     * @throws AccessDeniedException if the device belongs to another user
+     */
+    @Transactional
+    @Override
+    public void delete(Long userId, UUID deviceUuid) {
+        log.info("Deleting device with UUID: {} for user with ID: {}", deviceUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Delete"));
+        Device device = checkDeviceOwnershipAndGet(userId, deviceUuid);
+
+        deviceIndex.beginChange(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        deviceRepository.delete(device);
+
+        log.info("Device deleted successfully for user with ID: {}", userId);
+    }
+
+}
@@ -1,10 +1,22 @@
 package com.ska.service;
 
 
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,16 +25,39 @@ import com.ska.dto.entity.request.EntityUpdateAllRequest;
 import com.ska.dto.entity.request.EntityUpdateMetadataRequest;
 import com.ska.exception.AccessDeniedException;
 import com.ska.exception.BusinessRuleViolationException;
+import com.ska.exception.PreconditionFailedException;
+import com.ska.exception.ResourceAlreadyExistsException;
 import com.ska.exception.ResourceNotFoundException;
+import com.ska.exception.WatermarkExpiredException;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.syncable.EntityTombstone;
 import com.ska.model.syncable.Syncable;
 import com.ska.model.syncable.vo.EncryptedContent;
 import com.ska.model.syncable.vo.EncryptedMetadata;
 import com.ska.model.user.User;
 import com.ska.repository.EntityRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.SyncableLeafView;
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.repository.projection.SyncableUpdateView;
+import com.ska.repository.projection.SyncableVersionView;
+import com.ska.service.cache.SyncablePayloadCache;
 import com.ska.service.contract.EntityService;
+import com.ska.service.contract.MerkleTreeService;
+import com.ska.service.contract.SyncFanOutService;
 import com.ska.service.contract.UserService;
+import com.ska.service.result.ChangeSet;
+import com.ska.service.result.CursorPage;
+import com.ska.service.result.ItemResult;
+import com.ska.service.result.ItemStatus;
+import com.ska.service.result.SyncablePayload;
+import com.ska.service.result.SyncableRevision;
+import com.ska.util.CursorCodec;
 import com.ska.util.LogTemplates;
+import com.ska.util.constant.EntityConstants;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,39 +68,157 @@ import lombok.extern.slf4j.Slf4j;
 public final class EntityServiceImpl extends BaseService implements EntityService {
 
     private final EntityRepository entityRepository;
+    private final EntityTombstoneRepository entityTombstoneRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
-
-    private static final String DATA_NULL_MESSAGE = "Data is <null>";
-    private static final String DATA_BLANK_MESSAGE = "Data is <blank>";
-    private static final String DATA_NOT_BASE64_MESSAGE = "Data is not <Base64>";
+    private final EntityManager entityManager;
+    private final SyncablePayloadCache payloadCache;
+    private final SyncFanOutService syncFanOutService;
+    private final MerkleTreeService merkleTreeService;
 
     // =========== Helper methods ========== //
 
-    private final User checkUserExistenceAndGet(Long userId) {
-        return userService.checkUserExistenceAndGet(userId);
+    private final int resolvePageSize(Integer limit) {
+        if (limit == null)
+            return EntityConstants.Page.SIZE_DEFAULT;
+        if (limit < 1 || limit > EntityConstants.Page.SIZE_MAX)
+            throw new BusinessRuleViolationException(EntityConstants.Page.INVALID_SIZE_MESSAGE);
+
+        return limit;
     }
 
-    private final byte[] decodeBase64(String coded) {
-        if (coded == null)
-            throw new BusinessRuleViolationException(DATA_NULL_MESSAGE);
-        else if (coded.isBlank())
-            throw new BusinessRuleViolationException(DATA_BLANK_MESSAGE);
+    private final <T> CursorPage<T> toPage(List<T> fetched, int pageSize, ToLongFunction<T> idOf) {
+        if (fetched.size() <= pageSize)
+            return new CursorPage<>(fetched, null);
 
-        try {
-            return Base64.getDecoder().decode(coded);
-        } catch (IllegalArgumentException e) {
-            throw new BusinessRuleViolationException(DATA_NOT_BASE64_MESSAGE);
+        List<T> items = fetched.subList(0, pageSize);
+        return new CursorPage<>(items, CursorCodec.encode(idOf.applyAsLong(items.get(pageSize - 1))));
+    }
+
+    private final long nextChangeSeq(Long userId) {
+        return userService.reserveChangeSeq(userId, 1);
+    }
+
+    private final ChangeSet<Syncable> mergeChanges(
+            List<Syncable> upserts,
+            List<EntityTombstone> tombstones,
+            int limit,
+            long since) {
+        List<Syncable> takenUpserts = new ArrayList<>();
+        List<EntityTombstone> takenTombstones = new ArrayList<>();
+        long watermark = since;
+
+        int i = 0;
+        int j = 0;
+        while (takenUpserts.size() + takenTombstones.size() < limit
+                && (i < upserts.size() || j < tombstones.size())) {
+            boolean upsertFirst = j == tombstones.size()
+                    || (i < upserts.size() && upserts.get(i).getChangeSeq() < tombstones.get(j).getChangeSeq());
+
+            if (upsertFirst) {
+                Syncable upsert = upserts.get(i++);
+                takenUpserts.add(upsert);
+                watermark = upsert.getChangeSeq();
+            } else {
+                EntityTombstone tombstone = tombstones.get(j++);
+                takenTombstones.add(tombstone);
+                watermark = tombstone.getChangeSeq();
+            }
         }
+
+        // a live entity is always newer than any tombstone with its UUID
+        Set<UUID> upsertedUuids = new HashSet<>();
+        takenUpserts.forEach(upsert -> upsertedUuids.add(upsert.getUuid()));
+        List<UUID> deleted = takenTombstones.stream()
+                .map(EntityTombstone::getUuid)
+                .filter(uuid -> !upsertedUuids.contains(uuid))
+                .toList();
+
+        boolean hasMore = i < upserts.size() || j < tombstones.size();
+        return new ChangeSet<>(takenUpserts, deleted, watermark, hasMore);
+    }
+
+    // drops duplicates, keeping the first position of each UUID
+    private final List<UUID> resolveBatch(List<UUID> uuids) {
+        if (uuids == null || uuids.isEmpty() || uuids.size() > EntityConstants.Batch.SIZE_MAX)
+            throw new BusinessRuleViolationException(EntityConstants.Batch.INVALID_SIZE_MESSAGE);
+        if (uuids.contains(null))
+            throw new BusinessRuleViolationException(EntityConstants.UUID_NULL_MESSAGE);
+
+        return new ArrayList<>(new LinkedHashSet<>(uuids));
+    }
+
+    // owned rows are already known, so any other existing UUID belongs to someone else
+    private final Set<UUID> findForeignUuids(List<UUID> misses) {
+        if (misses.isEmpty())
+            return Set.of();
+
+        return new HashSet<>(entityRepository.findExistingUuids(misses));
     }
 
-    private final void checkPermissionToAccess(Long userId, final Syncable entity) {
-        if (!userId.equals(entity.getOwner().getId()))
-            throw new AccessDeniedException("Permission denied for user with id=" + userId);
+    // owner row first, like every update, so deletes and updates of one owner never lock in opposite order;
+    // the lock also keeps the owned rows as read until the set-based DELETE removes them
+    private final List<UUID> deleteOwned(Long userId, List<UUID> uuids) {
+        userService.lockChangeSeq(userId);
+
+        List<SyncableLeafView> removed = entityRepository.findLeavesByOwnerIdAndUuidIn(userId, uuids);
+        if (removed.isEmpty())
+            return List.of();
+
+        List<UUID> deleted = removed.stream().map(SyncableLeafView::uuid).toList();
+        entityRepository.deleteAllByOwnerIdAndUuidIn(userId, deleted);
+
+        long lastSeq = userService.reserveChangeSeq(userId, deleted.size());
+        long firstSeq = lastSeq - deleted.size() + 1;
+        long changeSeq = firstSeq - 1;
+        User owner = entityManager.getReference(User.class, userId);
+
+        List<EntityTombstone> tombstones = new ArrayList<>(deleted.size());
+        for (UUID uuid : deleted) {
+            tombstones.add(new EntityTombstone(owner, uuid, ++changeSeq));
+            payloadCache.invalidateAfterCommit(userId, uuid);
+        }
+        entityTombstoneRepository.saveAll(tombstones);
+
+        syncFanOutService.enqueue(userId, deleted, QueueAction.DELETE, firstSeq, lastSeq);
+        merkleTreeService.remove(userId, removed);
+
+        return deleted;
     }
 
-    private final Syncable checkEntityExistenceAndGet(UUID uuid) {
-        return entityRepository.findByUuid(uuid).orElseThrow(
-                () -> new ResourceNotFoundException(String.format("Syncable with uuid=%s not found", uuid)));
+    private static ResourceNotFoundException entityNotFound(UUID uuid) {
+        return new ResourceNotFoundException(String.format("Syncable with uuid=%s not found", uuid));
+    }
+
+    private static AccessDeniedException accessDenied(Long userId) {
+        return new AccessDeniedException("Permission denied for user with id=" + userId);
+    }
+
+    private final SyncableVersionView checkVersionViewExistenceAndGet(Long userId, UUID uuid) {
+        SyncableVersionView view = entityRepository.findVersionByUuid(uuid).orElseThrow(() -> entityNotFound(uuid));
+        if (!userId.equals(view.ownerId()))
+            throw accessDenied(userId);
+
+        return view;
+    }
+
+    // runs only after an owner-scoped statement matched no row, to tell 404, 403 and 412 apart
+    private final RuntimeException explainMiss(Long userId, UUID uuid, Long expectedVersion, Long expectedChangeSeq) {
+        Optional<SyncableVersionView> view = entityRepository.findVersionByUuid(uuid);
+        if (view.isEmpty())
+            return entityNotFound(uuid);
+        if (!userId.equals(view.get().ownerId()))
+            return accessDenied(userId);
+        if (expectedVersion != null && view.get().version() != expectedVersion)
+            return new PreconditionFailedException(
+                    String.format("Syncable version is %d, expected %d", view.get().version(), expectedVersion));
+        if (expectedChangeSeq != null && view.get().changeSeq() != expectedChangeSeq)
+            return new PreconditionFailedException(String.format(
+                    "Syncable change sequence is %d, expected %d",
+                    view.get().changeSeq(),
+                    expectedChangeSeq));
+
+        return new PreconditionFailedException("Syncable was modified concurrently");
     }
 
     // ===================================== //
@@ -73,135 +226,431 @@ public final class EntityServiceImpl extends BaseService implements EntityServic
     @Transactional
     @Override
     public Syncable create(Long userId, UUID uuid, EntityCreateRequest request) {
+        return create(userId, uuid, request.encryptedMetadata(), request.encryptedContent());
+    }
+
+    @Transactional
+    @Override
+    public Syncable create(Long userId, UUID uuid, byte[] metadataBytes, byte[] contentBytes) {
         log.info("Creating entity for user with ID: {}", userId);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(userId);
 
-        log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
-        User user = checkUserExistenceAndGet(userId);
-
-        log.debug(LogTemplates.EntityService.checkBase64StartLog("Syncable metadata"));
-        byte[] decodedMetadata = decodeBase64(request.encryptedMetadata());
-
-        log.debug(LogTemplates.EntityService.checkBase64StartLog("Syncable content"));
-        byte[] decodedContent = decodeBase64(request.encryptedContent());
-
         log.debug(LogTemplates.validationStartLog("Syncable metadata"));
-        EncryptedMetadata metadata = new EncryptedMetadata(decodedMetadata);
+        EncryptedMetadata metadata = new EncryptedMetadata(metadataBytes);
 
         log.debug(LogTemplates.validationStartLog("Syncable content"));
-        EncryptedContent content = new EncryptedContent(decodedContent);
+        EncryptedContent content = new EncryptedContent(contentBytes);
 
-        Syncable entity = new Syncable(user, uuid, metadata, content);
+        // fails with 404 if user does not exist, so owner is taken as a reference
+        log.debug(LogTemplates.startLog("Change sequence reservation"));
+        long changeSeq = nextChangeSeq(userId);
+
+        Syncable entity = new Syncable(entityManager.getReference(User.class, userId), uuid, metadata, content);
+        entity.markChanged(changeSeq);
 
         log.debug(LogTemplates.dataBaseQueryStartLog());
-        Syncable savedSyncable = entityRepository.save(entity);
+        Syncable savedSyncable;
+        try {
+            // flushed here, so a taken UUID surfaces as a conflict instead of failing the commit
+            savedSyncable = entityRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceAlreadyExistsException(String.format("Syncable with uuid=%s already exists", uuid));
+        }
+
+        log.debug(LogTemplates.startLog("Sync queue fan-out"));
+        syncFanOutService.enqueueCreated(userId, uuid, changeSeq);
+
+        log.debug(LogTemplates.startLog("Syncable tree update"));
+        merkleTreeService.add(userId, uuid, changeSeq);
 
         log.info("Syncable created successfully for user with ID: {}", userId);
         return savedSyncable;
     }
 
-    // TODO: добавить пагинацию
     @Transactional(readOnly = true)
     @Override
-    public List<Syncable> getAll(Long userId) {
-        log.info("Getting all entities for user with ID: {}", userId);
+    public CursorPage<Syncable> getAll(Long userId, String cursor, Integer limit) {
+        log.info("Getting entities page for user with ID: {}", userId);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(userId);
 
+        log.debug(LogTemplates.validationStartLog("Page size"));
+        int pageSize = resolvePageSize(limit);
+
+        log.debug(LogTemplates.startLog("Cursor decoding"));
+        long afterId = cursor == null ? 0L : CursorCodec.decode(cursor);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        List<Syncable> retrievedEntities = entityRepository.findPageByOwnerId(
+                userId,
+                afterId,
+                PageRequest.ofSize(pageSize + 1));
+
+        CursorPage<Syncable> page = toPage(retrievedEntities, pageSize, Syncable::getId);
+
+        log.info("Retrieved {} entities for user with ID: {}", page.items().size(), userId);
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<SyncableMetadataView> getAllMetadata(Long userId, String cursor, Integer limit) {
+        log.info("Getting entity metadata page for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("Page size"));
+        int pageSize = resolvePageSize(limit);
+
+        log.debug(LogTemplates.startLog("Cursor decoding"));
+        long afterId = cursor == null ? 0L : CursorCodec.decode(cursor);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        List<SyncableMetadataView> retrievedViews = entityRepository.findMetadataPageByOwnerId(
+                userId,
+                afterId,
+                PageRequest.ofSize(pageSize + 1));
+
+        CursorPage<SyncableMetadataView> page = toPage(retrievedViews, pageSize, SyncableMetadataView::id);
+
+        log.info("Retrieved metadata of {} entities for user with ID: {}", page.items().size(), userId);
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ChangeSet<Syncable> getChanges(Long userId, Long since, Integer limit) {
+        log.info("Getting entity changes since {} for user with ID: {}", since, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("Watermark"));
+        long watermark = since == null ? 0L : since;
+        if (watermark < 0)
+            throw new BusinessRuleViolationException(EntityConstants.Changes.INVALID_WATERMARK_MESSAGE);
+
+        log.debug(LogTemplates.validationStartLog("Page size"));
+        int pageSize = resolvePageSize(limit);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        PageRequest fetch = PageRequest.ofSize(pageSize + 1);
+        List<Syncable> upserts = entityRepository.findChangesByOwnerId(userId, watermark, fetch);
+        List<EntityTombstone> tombstones = entityTombstoneRepository.findChangesByOwnerId(userId, watermark, fetch);
+
+        // read after the tombstones, a purge that committed before them has stored its horizon by now
+        log.debug(LogTemplates.validationStartLog("Watermark expiry"));
+        long purgedSeq = userRepository.findTombstonePurgedSeqById(userId).orElse(0L);
+        if (watermark > 0 && watermark < purgedSeq)
+            throw new WatermarkExpiredException(String.format(
+                    EntityConstants.Changes.WATERMARK_EXPIRED_TEMPLATE,
+                    purgedSeq));
+
+        ChangeSet<Syncable> changes = mergeChanges(upserts, tombstones, pageSize, watermark);
+
+        log.info(
+                "Retrieved {} upserts and {} deletes for user with ID: {}",
+                changes.upserts().size(),
+                changes.deleted().size(),
+                userId);
+        return changes;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportAll(Long userId, Consumer<Syncable> sink) {
+        log.info("Exporting all entities for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        long exported = 0;
+
         log.debug(LogTemplates.dataBaseQueryStartLog());
-        List<Syncable> retrievedEntities = entityRepository.getAllByUserId(userId);
+        try (Stream<Syncable> entities = entityRepository.streamAllByOwnerId(userId)) {
+            Iterator<Syncable> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                Syncable entity = iterator.next();
+                sink.accept(entity);
+
+                entityManager.detach(entity);
+                exported++;
+            }
+        }
 
-        log.info("Retrieved {} entities for user with ID: {}", retrievedEntities.size(), userId);
-        return retrievedEntities;
+        log.info("Exported {} entities for user with ID: {}", exported, userId);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Syncable getByUuid(Long userId, UUID entityUuid) {
+    public SyncablePayload getByUuid(Long userId, UUID entityUuid) {
         log.info("Getting entity with UUID: {} for user with ID: {}", entityUuid, userId);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(userId);
 
+        // one owner-scoped read either way: a cached payload is only confirmed, anything else reads the row
+        log.debug(LogTemplates.startLog("Payload cache lookup"));
+        Optional<SyncablePayload> cached = payloadCache.peek(userId, entityUuid);
+        if (cached.isPresent()) {
+            log.debug(LogTemplates.dataBaseQueryStartLog());
+            long changeSeq = entityRepository.findChangeSeqByUuidAndOwnerId(entityUuid, userId).orElseThrow(
+                    () -> explainMiss(userId, entityUuid, null, null));
+
+            if (cached.get().changeSeq() == changeSeq) {
+                log.info("Syncable with UUID: {} for user with ID: {} served from cache", entityUuid, userId);
+                return cached.get();
+            }
+        }
+
         log.debug(LogTemplates.dataBaseQueryStartLog());
-        Syncable retrievedEntity = checkEntityExistenceAndGet(entityUuid);
+        Syncable retrievedEntity = entityRepository.findByUuidAndOwnerId(entityUuid, userId).orElseThrow(
+                () -> explainMiss(userId, entityUuid, null, null));
 
-        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Get"));
-        checkPermissionToAccess(userId, retrievedEntity);
+        SyncablePayload payload = SyncablePayload.of(retrievedEntity);
+        payloadCache.put(userId, payload);
 
         log.info("Syncable with UUID: {} for user with ID: {} retrieved successfully", entityUuid, userId);
-        return retrievedEntity;
+        return payload;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public Syncable updateMetadataAndContent(Long userId, UUID entityUuid, EntityUpdateAllRequest request) {
-        log.info("Updating entity metadata and content for user with ID: {} and entity UUID: {}", userId, entityUuid);
+    public void getAllByUuids(Long userId, List<UUID> uuids, Consumer<ItemResult<Syncable>> sink) {
+        log.info("Getting entities by UUID list for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("UUID list"));
+        List<UUID> batch = resolveBatch(uuids);
+
+        long found = 0;
+        for (int from = 0; from < batch.size(); from += EntityConstants.Batch.CHUNK_SIZE) {
+            List<UUID> chunk = batch.subList(from, Math.min(from + EntityConstants.Batch.CHUNK_SIZE, batch.size()));
+
+            log.debug(LogTemplates.dataBaseQueryStartLog());
+            Map<UUID, Syncable> owned = new HashMap<>();
+            entityRepository.findAllByOwnerIdAndUuidIn(userId, chunk).forEach(
+                    entity -> owned.put(entity.getUuid(), entity));
+
+            List<UUID> misses = chunk.stream().filter(uuid -> !owned.containsKey(uuid)).toList();
+            Set<UUID> foreign = findForeignUuids(misses);
+
+            for (UUID uuid : chunk) {
+                Syncable entity = owned.get(uuid);
+                if (entity != null)
+                    sink.accept(ItemResult.ok(uuid, entity));
+                else
+                    sink.accept(ItemResult.failed(
+                            uuid,
+                            foreign.contains(uuid) ? ItemStatus.FORBIDDEN : ItemStatus.NOT_FOUND));
+            }
+
+            found += owned.size();
+            entityManager.clear();
+        }
+
+        log.info("Retrieved {} of {} requested entities for user with ID: {}", found, batch.size(), userId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public SyncableMetadataView getMetadataByUuid(Long userId, UUID entityUuid) {
+        log.info("Getting metadata of entity with UUID: {} for user with ID: {}", entityUuid, userId);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(userId);
 
-        log.debug(LogTemplates.EntityService.checkBase64StartLog("New entity metadata"));
-        byte[] decodedNewMetadata = decodeBase64(request.encryptedNewMetadata());
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        SyncableMetadataView view = entityRepository.findMetadataByUuid(entityUuid).orElseThrow(
+                () -> entityNotFound(entityUuid));
 
-        log.debug(LogTemplates.EntityService.checkBase64StartLog("New entity content"));
-        byte[] decodedNewContent = decodeBase64(request.encryptedNewContent());
+        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Get metadata"));
+        if (!userId.equals(view.ownerId()))
+            throw accessDenied(userId);
+
+        log.info("Metadata of entity with UUID: {} for user with ID: {} retrieved successfully", entityUuid, userId);
+        return view;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long getChangeSeq(Long userId, UUID entityUuid) {
+        log.info("Getting change sequence of entity with UUID: {} for user with ID: {}", entityUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        SyncableVersionView view = checkVersionViewExistenceAndGet(userId, entityUuid);
+
+        log.info(
+                "Syncable with UUID: {} for user with ID: {} has change sequence {}",
+                entityUuid,
+                userId,
+                view.changeSeq());
+        return view.changeSeq();
+    }
+
+    @Transactional
+    @Override
+    public SyncableRevision updateMetadataAndContent(
+            Long userId,
+            UUID entityUuid,
+            EntityUpdateAllRequest request,
+            Long expectedVersion,
+            Long expectedChangeSeq) {
+        return updateMetadataAndContent(
+                userId,
+                entityUuid,
+                request.encryptedNewMetadata(),
+                request.encryptedNewContent(),
+                expectedVersion,
+                expectedChangeSeq);
+    }
+
+    @Transactional
+    @Override
+    public SyncableRevision updateMetadataAndContent(
+            Long userId,
+            UUID entityUuid,
+            byte[] newMetadataBytes,
+            byte[] newContentBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq) {
+        log.info("Updating entity metadata and content for user with ID: {} and entity UUID: {}", userId, entityUuid);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
 
         log.debug(LogTemplates.validationStartLog("New entity metadata"));
-        EncryptedMetadata newMetadata = new EncryptedMetadata(decodedNewMetadata);
+        EncryptedMetadata newMetadata = new EncryptedMetadata(newMetadataBytes);
 
         log.debug(LogTemplates.validationStartLog("New entity content"));
-        EncryptedContent newContent = new EncryptedContent(decodedNewContent);
+        EncryptedContent newContent = new EncryptedContent(newContentBytes);
 
-        log.debug(LogTemplates.checkStartLog("Entity existence"));
-        Syncable retrievedEntity = checkEntityExistenceAndGet(entityUuid);
+        log.debug(LogTemplates.startLog("Change sequence reservation"));
+        long changeSeq = nextChangeSeq(userId);
 
-        retrievedEntity.changeMetadata(newMetadata);
-        retrievedEntity.changeContent(newContent);
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        SyncableUpdateView updated = entityRepository.updateMetadataAndContent(
+                entityUuid,
+                userId,
+                expectedVersion,
+                expectedChangeSeq,
+                newMetadata.getValue(),
+                newContent.getValue(),
+                changeSeq).orElseThrow(() -> explainMiss(userId, entityUuid, expectedVersion, expectedChangeSeq));
 
-        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Update entity metadata and content"));
-        checkPermissionToAccess(userId, retrievedEntity);
+        payloadCache.invalidateAfterCommit(userId, entityUuid);
 
-        log.debug(LogTemplates.dataBaseQueryStartLog());
-        entityRepository.save(retrievedEntity);
+        log.debug(LogTemplates.startLog("Sync queue fan-out"));
+        syncFanOutService.enqueue(userId, List.of(entityUuid), QueueAction.SYNC_FULL, changeSeq, changeSeq);
+
+        log.debug(LogTemplates.startLog("Syncable tree update"));
+        merkleTreeService.replace(userId, entityUuid, updated.getPreviousChangeSeq(), changeSeq);
 
         log.info(
                 "Syncable metadata and content was updated for user with ID: {} and entity UUID: {}",
                 userId,
                 entityUuid);
-        return retrievedEntity;
+        return new SyncableRevision(updated.getVersion(), changeSeq);
     }
 
     @Transactional
     @Override
-    public Syncable updateMetadata(Long userId, UUID entityUuid, EntityUpdateMetadataRequest request) {
+    public SyncableRevision updateMetadata(
+            Long userId,
+            UUID entityUuid,
+            EntityUpdateMetadataRequest request,
+            Long expectedVersion,
+            Long expectedChangeSeq) {
+        return updateMetadata(userId, entityUuid, request.encryptedNewMetadata(), expectedVersion, expectedChangeSeq);
+    }
+
+    @Transactional
+    @Override
+    public SyncableRevision updateMetadata(
+            Long userId,
+            UUID entityUuid,
+            byte[] newMetadataBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq) {
         log.info("Updating entity metadata for user with ID: {} and entity UUID: {}", userId, entityUuid);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(userId);
 
-        log.debug(LogTemplates.EntityService.checkBase64StartLog("New entity metadata"));
-        byte[] decodedNewMetadata = decodeBase64(request.encryptedNewMetadata());
-
         log.debug(LogTemplates.validationStartLog("New entity metadata"));
-        EncryptedMetadata newMetadata = new EncryptedMetadata(decodedNewMetadata);
+        EncryptedMetadata newMetadata = new EncryptedMetadata(newMetadataBytes);
+
+        log.debug(LogTemplates.startLog("Change sequence reservation"));
+        long changeSeq = nextChangeSeq(userId);
 
         log.debug(LogTemplates.dataBaseQueryStartLog());
-        Syncable retrievedEntity = checkEntityExistenceAndGet(entityUuid);
+        SyncableUpdateView updated = entityRepository.updateMetadata(
+                entityUuid,
+                userId,
+                expectedVersion,
+                expectedChangeSeq,
+                newMetadata.getValue(),
+                changeSeq).orElseThrow(() -> explainMiss(userId, entityUuid, expectedVersion, expectedChangeSeq));
 
-        retrievedEntity.changeMetadata(newMetadata);
+        payloadCache.invalidateAfterCommit(userId, entityUuid);
 
-        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Update entity metadata"));
-        checkPermissionToAccess(userId, retrievedEntity);
+        log.debug(LogTemplates.startLog("Sync queue fan-out"));
+        syncFanOutService.enqueue(userId, List.of(entityUuid), QueueAction.SYNC_METADATA, changeSeq, changeSeq);
 
-        log.debug(LogTemplates.dataBaseQueryStartLog());
-        entityRepository.save(retrievedEntity);
+        log.debug(LogTemplates.startLog("Syncable tree update"));
+        merkleTreeService.replace(userId, entityUuid, updated.getPreviousChangeSeq(), changeSeq);
 
         log.info("Syncable metadata was updated for user with ID: {} and entity UUID: {}", userId, entityUuid);
-        return retrievedEntity;
+        return new SyncableRevision(updated.getVersion(), changeSeq);
+    }
+
+    @Transactional
+    @Override
+    public SyncableRevision updateContent(
+            Long userId,
+            UUID entityUuid,
+            byte[] newContentBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq) {
+        log.info("Updating entity content for user with ID: {} and entity UUID: {}", userId, entityUuid);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("New entity content"));
+        EncryptedContent newContent = new EncryptedContent(newContentBytes);
+
+        log.debug(LogTemplates.startLog("Change sequence reservation"));
+        long changeSeq = nextChangeSeq(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        SyncableUpdateView updated = entityRepository.updateContent(
+                entityUuid,
+                userId,
+                expectedVersion,
+                expectedChangeSeq,
+                newContent.getValue(),
+                changeSeq).orElseThrow(() -> explainMiss(userId, entityUuid, expectedVersion, expectedChangeSeq));
+
+        payloadCache.invalidateAfterCommit(userId, entityUuid);
+
+        log.debug(LogTemplates.startLog("Sync queue fan-out"));
+        syncFanOutService.enqueue(userId, List.of(entityUuid), QueueAction.SYNC_FULL, changeSeq, changeSeq);
+
+        log.debug(LogTemplates.startLog("Syncable tree update"));
+        merkleTreeService.replace(userId, entityUuid, updated.getPreviousChangeSeq(), changeSeq);
+
+        log.info("Syncable content was updated for user with ID: {} and entity UUID: {}", userId, entityUuid);
+        return new SyncableRevision(updated.getVersion(), changeSeq);
     }
 
     @Transactional
@@ -213,13 +662,33 @@ public final class EntityServiceImpl extends BaseService implements EntityServic
         validateId(userId);
 
         log.debug(LogTemplates.dataBaseQueryStartLog());
-        Syncable retrievedEntity = checkEntityExistenceAndGet(entityUuid);
-
-        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Delete entity"));
-        checkPermissionToAccess(userId, retrievedEntity);
+        if (deleteOwned(userId, List.of(entityUuid)).isEmpty())
+            throw explainMiss(userId, entityUuid, null, null);
 
-        entityRepository.delete(retrievedEntity);
         log.info("Syncable was deleted successfully for user with ID: {} and entity with UUID: {}", userId, entityUuid);
     }
 
+    @Transactional
+    @Override
+    public List<UUID> deleteAll(Long userId, List<UUID> uuids) {
+        log.info("Deleting entities by UUID list for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("UUID list"));
+        List<UUID> batch = resolveBatch(uuids);
+
+        List<UUID> deleted = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += EntityConstants.Batch.CHUNK_SIZE) {
+            List<UUID> chunk = batch.subList(from, Math.min(from + EntityConstants.Batch.CHUNK_SIZE, batch.size()));
+
+            log.debug(LogTemplates.dataBaseQueryStartLog());
+            deleted.addAll(deleteOwned(userId, chunk));
+        }
+
+        log.info("Deleted {} of {} requested entities for user with ID: {}", deleted.size(), batch.size(), userId);
+        return deleted;
+    }
+
 }
@@ -0,0 +1,180 @@
+package com.ska.service;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.model.merkle.MerkleNode;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.MerkleNodeJdbcRepository;
+import com.ska.repository.MerkleNodeRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.MerkleDelta;
+import com.ska.repository.projection.MerkleNodeView;
+import com.ska.repository.projection.SyncableLeafView;
+import com.ska.service.contract.MerkleTreeService;
+import com.ska.service.contract.UserService;
+import com.ska.service.result.MerkleWalk;
+import com.ska.util.LogTemplates;
+import com.ska.util.MerkleDigest;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Service keeping the per-owner syncable hash tree, see {@link MerkleDigest}.
+ * 
+ * Extends {@link BaseService}. Mutations run inside the transaction of the
+ * syncable change and touch one node per level. A client compares digests
+ * top-down and only descends into differing prefixes, so a few differences
+ * among tens of thousands of syncables cost a few requests of a few KB.
+ * 
+ * @see MerkleNode - tree node
+ * @see MerkleNodeJdbcRepository - XOR delta upsert
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MerkleTreeServiceImpl extends BaseService implements MerkleTreeService {
+
+    private final MerkleNodeRepository merkleNodeRepository;
+    private final MerkleNodeJdbcRepository merkleNodeJdbcRepository;
+    private final EntityRepository entityRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    // =========== Helper methods ========== //
+
+    private static void collect(SortedMap<String, MerkleDelta> deltas, UUID uuid, MerkleDelta delta) {
+        for (int level = 0; level <= SyncConstants.Merkle.DEPTH; level++)
+            deltas.merge(MerkleDigest.prefix(uuid, level), delta, MerkleDelta::plus);
+    }
+
+    private final void apply(Long ownerId, SortedMap<String, MerkleDelta> deltas) {
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        merkleNodeJdbcRepository.apply(ownerId, deltas);
+    }
+
+    private final List<String> resolvePrefixes(List<String> prefixes) {
+        if (prefixes == null || prefixes.isEmpty())
+            return List.of("");
+        if (prefixes.size() > SyncConstants.Merkle.PREFIXES_MAX)
+            throw new BusinessRuleViolationException(SyncConstants.Merkle.INVALID_PREFIX_COUNT_MESSAGE);
+
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String prefix : prefixes)
+            resolved.add(MerkleDigest.validatePrefix(prefix));
+
+        return new ArrayList<>(resolved);
+    }
+
+    // ===================================== //
+
+    @Transactional
+    @Override
+    public void add(Long ownerId, UUID uuid, long changeSeq) {
+        SortedMap<String, MerkleDelta> deltas = new TreeMap<>();
+        collect(deltas, uuid, new MerkleDelta(MerkleDigest.leaf(uuid, changeSeq), 1));
+
+        apply(ownerId, deltas);
+    }
+
+    @Transactional
+    @Override
+    public void replace(Long ownerId, UUID uuid, long oldChangeSeq, long newChangeSeq) {
+        SortedMap<String, MerkleDelta> deltas = new TreeMap<>();
+        collect(deltas, uuid, new MerkleDelta(
+                MerkleDigest.leaf(uuid, oldChangeSeq) ^ MerkleDigest.leaf(uuid, newChangeSeq),
+                0));
+
+        apply(ownerId, deltas);
+    }
+
+    // a bulk delete folds into one write per touched node
+    @Transactional
+    @Override
+    public void remove(Long ownerId, Collection<SyncableLeafView> removed) {
+        if (removed.isEmpty())
+            return;
+
+        SortedMap<String, MerkleDelta> deltas = new TreeMap<>();
+        for (SyncableLeafView leaf : removed)
+            collect(deltas, leaf.uuid(), new MerkleDelta(MerkleDigest.leaf(leaf.uuid(), leaf.changeSeq()), -1));
+
+        apply(ownerId, deltas);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public MerkleWalk walk(Long userId, List<String> prefixes) {
+        log.info("Walking syncable tree for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        // an unknown user has no nodes either, which would read as an empty tree
+        log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
+        userService.checkUserExistenceAndGet(userId);
+
+        log.debug(LogTemplates.validationStartLog("Prefix list"));
+        List<String> resolved = resolvePrefixes(prefixes);
+
+        Set<String> nodePrefixes = new LinkedHashSet<>();
+        List<String> leafPrefixes = new ArrayList<>();
+        for (String prefix : resolved) {
+            nodePrefixes.add(prefix);
+            if (prefix.length() == SyncConstants.Merkle.DEPTH) {
+                leafPrefixes.add(prefix);
+                continue;
+            }
+            for (int digit = 0; digit < 16; digit++)
+                nodePrefixes.add(prefix + Character.forDigit(digit, 16));
+        }
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        List<MerkleNodeView> nodes = merkleNodeRepository.findAllByOwnerIdAndPrefixIn(userId, nodePrefixes);
+        List<SyncableLeafView> leaves = new ArrayList<>();
+        for (String prefix : leafPrefixes)
+            leaves.addAll(entityRepository.findLeavesByOwnerIdAndUuidBetween(
+                    userId,
+                    MerkleDigest.lowerBound(prefix),
+                    MerkleDigest.upperBound(prefix)));
+
+        log.info("Walked {} nodes and {} leaves for user with ID: {}", nodes.size(), leaves.size(), userId);
+        return new MerkleWalk(nodes, leaves);
+    }
+
+    // the owner row lock keeps changes out while the tree is recomputed
+    @Transactional
+    @Override
+    public void rebuild(Long ownerId) {
+        log.info("Rebuilding syncable tree for user with ID: {}", ownerId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        userRepository.lockChangeSeq(ownerId);
+        merkleNodeRepository.deleteAllByOwnerId(ownerId);
+
+        List<SyncableLeafView> leaves = entityRepository.findLeavesByOwnerId(ownerId);
+        SortedMap<String, MerkleDelta> nodes = new TreeMap<>();
+        nodes.put("", new MerkleDelta(0, 0));
+        for (SyncableLeafView leaf : leaves)
+            collect(nodes, leaf.uuid(), new MerkleDelta(MerkleDigest.leaf(leaf.uuid(), leaf.changeSeq()), 1));
+
+        apply(ownerId, nodes);
+
+        log.info("Rebuilt syncable tree of {} syncables for user with ID: {}", leaves.size(), ownerId);
+    }
+
+}
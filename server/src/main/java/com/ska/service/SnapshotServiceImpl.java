@@ -0,0 +1,259 @@
+package com.ska.service;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ska.model.syncable.Syncable;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.UserRepository;
+import com.ska.service.contract.SnapshotService;
+import com.ska.service.contract.UserService;
+import com.ska.service.result.Snapshot;
+import com.ska.util.LogTemplates;
+import com.ska.util.SnapshotWriter;
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Service building bootstrap snapshots for new devices.
+ * 
+ * Extends {@link BaseService}. A snapshot holds every syncable of the owner
+ * and the change watermark it is consistent with, so a new device downloads
+ * one file and then pulls only the changes after that watermark. The file is
+ * named after the watermark and handed to every device until the owner
+ * changes again. Files not handed out for the retention period are swept,
+ * whether superseded, current or left by a deleted owner.
+ * 
+ * @see SnapshotWriter - file format
+ */
+@Slf4j
+@Service
+public class SnapshotServiceImpl extends BaseService implements SnapshotService {
+
+    private final EntityRepository entityRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final EntityManager entityManager;
+    private final Path directory;
+
+    // one build per owner at a time, concurrent first devices wait and reuse it
+    private final ConcurrentHashMap<Long, ReentrantLock> buildLocks = new ConcurrentHashMap<>();
+
+    public SnapshotServiceImpl(
+            EntityRepository entityRepository,
+            UserRepository userRepository,
+            UserService userService,
+            EntityManager entityManager,
+            @Value("${" + SyncConstants.Snapshot.DIRECTORY_PROPERTY + ":}") String directory) {
+        this.entityRepository = entityRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.entityManager = entityManager;
+        this.directory = resolveDirectory(directory);
+    }
+
+    // =========== Helper methods ========== //
+
+    // temporary files left by a crash are never finished, so they are dropped
+    private static Path resolveDirectory(String configured) {
+        Path directory = configured.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), SyncConstants.Snapshot.DIRECTORY_DEFAULT)
+                : Path.of(configured);
+
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(
+                    directory,
+                    "*" + SyncConstants.Snapshot.TEMP_FILE_SUFFIX)) {
+                for (Path leftover : leftovers)
+                    Files.deleteIfExists(leftover);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return directory;
+    }
+
+    private final Path resolvePath(Long userId, long changeSeq) {
+        return this.directory.resolve(userId + "-" + changeSeq + SyncConstants.Snapshot.FILE_SUFFIX);
+    }
+
+    private final int write(Long userId, long changeSeq, Path path) throws IOException {
+        Path temp = Files.createTempFile(this.directory, userId + "-", SyncConstants.Snapshot.TEMP_FILE_SUFFIX);
+
+        try {
+            int written;
+            try (SnapshotWriter writer = new SnapshotWriter(temp, changeSeq);
+                    Stream<Syncable> entities = entityRepository.streamAllByOwnerId(userId)) {
+                Iterator<Syncable> iterator = entities.iterator();
+                while (iterator.hasNext()) {
+                    Syncable entity = iterator.next();
+                    writer.write(
+                            entity.getUuid(),
+                            entity.getVersion(),
+                            entity.getChangeSeq(),
+                            entity.getMetadataBytes().getValue(),
+                            entity.getContentBytes().getValue());
+
+                    entityManager.detach(entity);
+                }
+                written = writer.finish();
+            }
+
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private final void removeSuperseded(Long userId, Path current) throws IOException {
+        long expiredBefore = System.currentTimeMillis() - SyncConstants.Snapshot.RETENTION_MS;
+
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(
+                this.directory,
+                userId + "-*" + SyncConstants.Snapshot.FILE_SUFFIX)) {
+            for (Path snapshot : snapshots) {
+                if (snapshot.equals(current))
+                    continue;
+                if (Files.getLastModifiedTime(snapshot).toMillis() < expiredBefore)
+                    Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private final ReentrantLock lockBuild(Long userId) {
+        ReentrantLock lock = buildLocks.computeIfAbsent(userId, id -> new ReentrantLock());
+        lock.lock();
+        return lock;
+    }
+
+    // a thread that raced past the removal builds alongside, the atomic move keeps the file whole
+    private final void unlockBuild(Long userId, ReentrantLock lock) {
+        lock.unlock();
+        if (!lock.hasQueuedThreads())
+            buildLocks.remove(userId, lock);
+    }
+
+    private static Long ownerOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        int separator = name.indexOf('-');
+
+        try {
+            return separator > 0 ? Long.valueOf(name.substring(0, separator)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ===================================== //
+
+    /**
+     * Returns the snapshot of the owner at the current watermark.
+     * 
+     * The watermark and the syncables are read in one repeatable read
+     * transaction, so the snapshot shows every change up to the watermark and
+     * none after it. A reused snapshot gets its modification time refreshed,
+     * which keeps it past the retention of superseded snapshots while it is
+     * being downloaded.
+     * 
+     * @param userId the owner identifier
+     * @return the snapshot file and its watermark
+     * @throws ResourceNotFoundException if user does not exist
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public Snapshot getOrBuild(Long userId) {
+        log.info("Getting snapshot for user with ID: {}", userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
+        userService.checkUserExistenceAndGet(userId);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        long changeSeq = userRepository.findChangeSeqById(userId);
+        Path path = resolvePath(userId, changeSeq);
+
+        ReentrantLock lock = lockBuild(userId);
+        try {
+            if (Files.exists(path)) {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+                log.info("Reusing snapshot at change {} for user with ID: {}", changeSeq, userId);
+            } else {
+                int written = write(userId, changeSeq, path);
+                removeSuperseded(userId, path);
+                log.info("Built snapshot of {} entities at change {} for user with ID: {}", written, changeSeq, userId);
+            }
+
+            return new Snapshot(path, changeSeq, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            unlockBuild(userId, lock);
+        }
+    }
+
+    /**
+     * Deletes snapshot files not handed out for the retention period.
+     * 
+     * Removal on build only reaches owners that build again, so without the
+     * sweep the last snapshot of every owner stays on disk for good. The
+     * owner build lock is held per file, so a hand-out never refreshes a file
+     * that is being deleted. A file removed while still downloading stays
+     * readable through the open handle.
+     */
+    @Scheduled(fixedDelay = SyncConstants.Snapshot.SWEEP_INTERVAL_MS)
+    public void sweep() {
+        long expiredBefore = System.currentTimeMillis() - SyncConstants.Snapshot.RETENTION_MS;
+        int swept = 0;
+
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(
+                this.directory,
+                "*" + SyncConstants.Snapshot.FILE_SUFFIX)) {
+            for (Path snapshot : snapshots) {
+                Long userId = ownerOf(snapshot);
+                if (userId == null)
+                    continue;
+
+                ReentrantLock lock = lockBuild(userId);
+                try {
+                    if (Files.exists(snapshot) && Files.getLastModifiedTime(snapshot).toMillis() < expiredBefore) {
+                        Files.deleteIfExists(snapshot);
+                        swept++;
+                    }
+                } finally {
+                    unlockBuild(userId, lock);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Snapshot sweep failed after {} files: {}", swept, e.getMessage());
+            return;
+        }
+
+        if (swept > 0)
+            log.info("Swept {} expired snapshots", swept);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.ska.service;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncQueueItem;
+import com.ska.repository.projection.IndexedDevice;
+import com.ska.service.cache.DeviceIndex;
+import com.ska.service.contract.SyncFanOutService;
+import com.ska.service.presence.DevicePresenceTracker;
+import com.ska.service.queue.SyncModeSwitch;
+import com.ska.service.queue.SyncQueueBuffer;
+import com.ska.util.LogTemplates;
+import com.ska.util.OriginDevice;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Service queueing syncable changes for the other devices of their owner.
+ * 
+ * Runs inside the mutating transaction and hands the change to the
+ * write-behind buffer, which only takes it once the transaction commits.
+ * Only QUEUE devices are targeted. Devices are looked up after the change
+ * sequence was reserved, so the owner row lock orders the lookup against
+ * {@link SyncModeSwitch}, and {@link DeviceIndex} never serves the devices of
+ * a switch that has committed. A write sent by a known device counts as its
+ * heartbeat.
+ * 
+ * @see SyncQueueItem - queue entry
+ * @see QueueAction - coalescing precedence
+ * @see SyncQueueBuffer - batched, coalesced queue writes
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncFanOutServiceImpl implements SyncFanOutService {
+
+    private final DeviceIndex deviceIndex;
+    private final SyncQueueBuffer syncQueueBuffer;
+    private final DevicePresenceTracker devicePresenceTracker;
+
+    // =========== Helper methods ========== //
+
+    private final void fanOut(
+            Long ownerId,
+            Collection<UUID> syncableUuids,
+            QueueAction action,
+            boolean replace,
+            long firstSeq,
+            long lastSeq) {
+        if (syncableUuids.isEmpty())
+            return;
+
+        log.debug(LogTemplates.startLog("Device index lookup"));
+        UUID originUuid = OriginDevice.current().orElse(null);
+        if (originUuid != null)
+            heartbeat(ownerId, originUuid);
+
+        List<Long> deviceIds = deviceIndex.getQueueModeIds(ownerId, originUuid);
+        if (deviceIds.isEmpty())
+            return;
+
+        log.debug(LogTemplates.startLog("Sync queue buffering"));
+        syncQueueBuffer.offer(ownerId, firstSeq, lastSeq, deviceIds, syncableUuids, action, replace);
+
+        log.debug(
+                "Queued {} for {} syncables on {} devices of user with ID: {}",
+                action,
+                syncableUuids.size(),
+                deviceIds.size(),
+                ownerId);
+    }
+
+    // a header naming a device of another owner is only excluded from the fan-out, never seen
+    private final void heartbeat(Long ownerId, UUID originUuid) {
+        deviceIndex.get(ownerId).stream()
+                .filter(device -> device.uuid().equals(originUuid))
+                .map(IndexedDevice::id)
+                .findFirst()
+                .ifPresent(devicePresenceTracker::heartbeat);
+    }
+
+    // ===================================== //
+
+    @Transactional
+    @Override
+    public void enqueueCreated(Long ownerId, UUID syncableUuid, long changeSeq) {
+        fanOut(ownerId, List.of(syncableUuid), QueueAction.SYNC_FULL, true, changeSeq, changeSeq);
+    }
+
+    @Transactional
+    @Override
+    public void enqueue(
+            Long ownerId,
+            Collection<UUID> syncableUuids,
+            QueueAction action,
+            long firstSeq,
+            long lastSeq) {
+        fanOut(ownerId, syncableUuids, action, false, firstSeq, lastSeq);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.ska.service;
+
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ska.exception.AccessDeniedException;
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.exception.ResourceNotFoundException;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.model.sync_queue.SyncQueueItem;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.DeviceRef;
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.repository.projection.SyncQueueItemView;
+import com.ska.service.contract.SyncQueueService;
+import com.ska.service.presence.DevicePresenceTracker;
+import com.ska.service.queue.SyncModeSwitch;
+import com.ska.service.result.QueueClaim;
+import com.ska.util.LogTemplates;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Service draining the sync queue of a device.
+ * 
+ * Extends {@link BaseService}. A claim leases items under a fresh token, an
+ * acknowledgement deletes them. Items never acknowledged reappear once their
+ * lease expires. A device moved to its watermark claims nothing and pulls the
+ * change log instead, acknowledging the change sequence it reached.
+ * 
+ * @see SyncQueueItem - queue entry
+ * @see SyncModeSwitch - queue and watermark switches
+ * @see SyncQueueJdbcRepository - SKIP LOCKED claim
+ * @see SyncQueueItemRepository - acknowledgement
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncQueueServiceImpl extends BaseService implements SyncQueueService {
+
+    private final DeviceRepository deviceRepository;
+    private final SyncQueueItemRepository syncQueueItemRepository;
+    private final SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private final UserRepository userRepository;
+    private final SyncModeSwitch syncModeSwitch;
+    private final DevicePresenceTracker devicePresenceTracker;
+
+    // =========== Helper methods ========== //
+
+    private final int resolveClaimSize(Integer limit) {
+        if (limit == null)
+            return SyncConstants.Queue.CLAIM_SIZE_DEFAULT;
+        if (limit < 1 || limit > SyncConstants.Queue.CLAIM_SIZE_MAX)
+            throw new BusinessRuleViolationException(SyncConstants.Queue.INVALID_CLAIM_SIZE_MESSAGE);
+
+        return limit;
+    }
+
+    private final List<Long> resolveAck(UUID claimToken, List<Long> itemIds) {
+        if (claimToken == null)
+            throw new BusinessRuleViolationException(SyncConstants.Queue.CLAIM_TOKEN_REQUIRED_MESSAGE);
+        if (itemIds == null || itemIds.isEmpty() || itemIds.size() > SyncConstants.Queue.ACK_SIZE_MAX)
+            throw new BusinessRuleViolationException(SyncConstants.Queue.INVALID_ACK_SIZE_MESSAGE);
+        if (itemIds.contains(null))
+            throw new BusinessRuleViolationException(SyncConstants.Queue.ITEM_ID_NULL_MESSAGE);
+
+        return new ArrayList<>(new LinkedHashSet<>(itemIds));
+    }
+
+    private final void validateChangeSeq(Long changeSeq, long ownerChangeSeq) {
+        if (changeSeq == null)
+            throw new BusinessRuleViolationException(SyncConstants.Watermark.CHANGE_SEQ_REQUIRED_MESSAGE);
+        if (changeSeq < 0 || changeSeq > ownerChangeSeq)
+            throw new BusinessRuleViolationException(SyncConstants.Watermark.INVALID_CHANGE_SEQ_MESSAGE);
+    }
+
+    private final DeviceSyncStateView getSyncState(Long deviceId) {
+        return deviceRepository.findSyncStateById(deviceId).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("Device id=%d not found", deviceId)));
+    }
+
+    // ===================================== //
+
+    @Transactional(readOnly = true)
+    @Override
+    public Long checkDeviceOwnershipAndGetId(Long userId, UUID deviceUuid) {
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.EntityService.checkEntityExistenceStartLog("Device"));
+        DeviceRef device = deviceRepository.findRefByUuid(deviceUuid).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("Device with uuid=%s not found", deviceUuid)));
+        if (!userId.equals(device.ownerId()))
+            throw new AccessDeniedException("Permission denied for user with id=" + userId);
+
+        // every queue call of a device goes through here, writes and open streams beat elsewhere
+        devicePresenceTracker.heartbeat(device.id());
+        return device.id();
+    }
+
+    @Transactional
+    @Override
+    public QueueClaim claim(Long userId, UUID deviceUuid, Integer limit) {
+        log.info("Claiming sync queue items of device with UUID: {} for user with ID: {}", deviceUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("Claim size"));
+        int claimSize = resolveClaimSize(limit);
+
+        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Claim"));
+        Long deviceId = checkDeviceOwnershipAndGetId(userId, deviceUuid);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        DeviceSyncStateView state = getSyncState(deviceId);
+        if (state.syncMode() == SyncMode.WATERMARK) {
+            log.info("Device with UUID: {} pulls the change log after change {}", deviceUuid, state.ackedChangeSeq());
+            return new QueueClaim(null, null, List.of(), state.ackedChangeSeq());
+        }
+
+        UUID claimToken = UUID.randomUUID();
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        List<SyncQueueItemView> items = syncQueueJdbcRepository.claim(
+                deviceId,
+                claimToken,
+                SyncConstants.Queue.LEASE_DURATION,
+                claimSize);
+
+        log.info("Claimed {} sync queue items of device with UUID: {}", items.size(), deviceUuid);
+        return new QueueClaim(claimToken, items.isEmpty() ? null : items.get(0).leasedUntil(), items, null);
+    }
+
+    @Transactional
+    @Override
+    public int acknowledge(Long userId, UUID deviceUuid, UUID claimToken, List<Long> itemIds) {
+        log.info("Acknowledging sync queue items of device with UUID: {} for user with ID: {}", deviceUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.validationStartLog("Acknowledgement"));
+        List<Long> ids = resolveAck(claimToken, itemIds);
+
+        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Acknowledge"));
+        Long deviceId = checkDeviceOwnershipAndGetId(userId, deviceUuid);
+
+        int acknowledged = 0;
+        for (int from = 0; from < ids.size(); from += SyncConstants.Queue.ACK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SyncConstants.Queue.ACK_CHUNK_SIZE, ids.size()));
+
+            log.debug(LogTemplates.dataBaseQueryStartLog());
+            acknowledged += syncQueueItemRepository.deleteClaimed(deviceId, claimToken, chunk);
+        }
+
+        log.info(
+                "Acknowledged {} of {} sync queue items of device with UUID: {}",
+                acknowledged,
+                ids.size(),
+                deviceUuid);
+        return acknowledged;
+    }
+
+    @Transactional
+    @Override
+    public DeviceSyncStateView acknowledgeChangeSeq(Long userId, UUID deviceUuid, Long changeSeq) {
+        log.info("Acknowledging change {} by device with UUID: {} for user with ID: {}", changeSeq, deviceUuid, userId);
+
+        log.debug(LogTemplates.UserService.userIdValidationStartLog());
+        validateId(userId);
+
+        log.debug(LogTemplates.EntityService.checkPermissionStartLog("Acknowledge"));
+        Long deviceId = checkDeviceOwnershipAndGetId(userId, deviceUuid);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        long ownerChangeSeq = userRepository.findChangeSeqById(userId);
+
+        log.debug(LogTemplates.validationStartLog("Change sequence"));
+        validateChangeSeq(changeSeq, ownerChangeSeq);
+
+        log.debug(LogTemplates.dataBaseQueryStartLog());
+        deviceRepository.advanceAckedChangeSeq(deviceId, changeSeq);
+        DeviceSyncStateView state = syncModeSwitch.promoteIfCaughtUp(getSyncState(deviceId), ownerChangeSeq);
+
+        log.info(
+                "Device with UUID: {} is on {} after change {}",
+                deviceUuid,
+                state.syncMode(),
+                state.ackedChangeSeq());
+        return state;
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.ska.service;
 
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.ska.dto.user.request.UserCreateRequest;
 import com.ska.exception.BusinessRuleViolationException;
@@ -14,8 +18,10 @@ import com.ska.model.user.User;
 import com.ska.model.user.vo.Email;
 import com.ska.model.user.vo.Password;
 import com.ska.repository.UserRepository;
+import com.ska.repository.projection.UserView;
 import com.ska.service.contract.UserService;
 import com.ska.util.LogTemplates;
+import com.ska.util.constant.CacheConstants;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -45,6 +51,7 @@ public class UserServiceImpl extends BaseService implements UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
 
     // ===== Helper methods ===== //
 
@@ -59,12 +66,75 @@ public class UserServiceImpl extends BaseService implements UserService {
         return new Password(hashed);
     }
 
+    // devices of the user are removed by cascade, so cached device identities go too
+    private final void evictCached(Long userId) {
+        Cache users = cacheManager.getCache(CacheConstants.USERS);
+        if (users != null)
+            users.evict(userId);
+
+        Cache devices = cacheManager.getCache(CacheConstants.DEVICES);
+        if (devices != null)
+            devices.clear();
+    }
+
+    // evicting before commit lets a concurrent read cache the user again until the entry expires
+    private final void evictCachedAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictCached(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                evictCached(userId);
+            }
+
+        });
+    }
+
     @Override
-    public final User checkUserExistenceAndGet(Long userId) {
-        return userRepository.findById(userId).orElseThrow(
+    public final UserView checkUserExistenceAndGet(Long userId) {
+        return userRepository.findViewById(userId).orElseThrow(
                 () -> new ResourceNotFoundException(String.format("User id=%d not found", userId)));
     }
 
+    /**
+     * Reserves a range of owner change sequence numbers.
+     * 
+     * The increment locks the owner row until the transaction ends, so changes
+     * of one owner commit in sequence order and a watermark never skips a
+     * change that commits later.
+     * 
+     * @param userId the owner identifier
+     * @param count the number of sequence numbers to reserve
+     * @return the last reserved sequence number, the range starts at
+     * {@code last - count + 1}
+     * @throws ResourceNotFoundException if ID does not exist in database
+     */
+    @Transactional
+    @Override
+    public long reserveChangeSeq(Long userId, int count) {
+        return userRepository.advanceChangeSeq(userId, count).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("User id=%d not found", userId)));
+    }
+
+    /**
+     * Locks the owner row until the transaction ends, without reserving.
+     * 
+     * Taken first by writes that learn how many sequence numbers they need
+     * only after reading their rows, so every write of an owner locks the
+     * owner row before any syncable row.
+     * 
+     * @param userId the owner identifier
+     */
+    @Transactional
+    @Override
+    public void lockChangeSeq(Long userId) {
+        userRepository.lockChangeSeq(userId);
+    }
+
     // ========================== //
 
     /**
@@ -112,20 +182,20 @@ public class UserServiceImpl extends BaseService implements UserService {
      * @param id the user identifier
      * @return Optional containing user if found, empty otherwise
      * @throws BusinessRuleViolationException if ID is null or less than one
-     * @see User - user entity
+     * @see UserView - cached user view
      */
     @Transactional(readOnly = true)
     @Override
-    public User getById(Long id) {
+    public UserView getById(Long id) {
         log.info("Getting user with ID: {}", id);
 
         log.debug(LogTemplates.UserService.userIdValidationStartLog());
         validateId(id);
 
         log.debug(LogTemplates.UserService.checkUserExistenceStartLog());
-        User retrievedUser = checkUserExistenceAndGet(id);
+        UserView retrievedUser = checkUserExistenceAndGet(id);
 
-        log.info("User with ID: {} retrieved successfully, email: {}", id, retrievedUser.getEmail().getValue());
+        log.info("User with ID: {} retrieved successfully, email: {}", id, retrievedUser.email().getValue());
         return retrievedUser;
     }
 
@@ -149,6 +219,7 @@ public class UserServiceImpl extends BaseService implements UserService {
 
         log.debug(LogTemplates.dataBaseQueryStartLog());
         userRepository.deleteById(id);
+        evictCachedAfterCommit(id);
 
         log.info("User with ID: {} deleted successfully", id);
     }
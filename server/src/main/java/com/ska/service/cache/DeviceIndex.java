@@ -0,0 +1,207 @@
+package com.ska.service.cache;
+
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.projection.IndexedDevice;
+import com.ska.service.push.ChangeNotification;
+import com.ska.service.push.ChangeNotificationBus;
+import com.ska.util.constant.CacheConstants;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+
+/**
+ * Read-through index of owner to devices, bounded by the number of devices.
+ * 
+ * Every transaction that changes the devices of an owner announces it with
+ * {@link #beginChange(Long)}. Until that transaction completes the owner is
+ * read from the database and nothing is cached for it, so a reader never sees
+ * the index behind a committed change, not even between the commit and the
+ * after-commit invalidation. A load that overlaps the start of a change is
+ * dropped right after it was put.
+ * 
+ * The announcement is also published over the {@link ChangeNotificationBus},
+ * so other instances drop the owner once the change commits. They may serve
+ * the previous devices until the notification arrives, and drop every owner
+ * when notifications may have been lost.
+ * 
+ * Caffeine metrics are registered, plus resident devices gauge and a counter
+ * of reads that bypassed the index.
+ */
+@Component
+public final class DeviceIndex implements ChangeNotificationBus.Listener {
+
+    private final DeviceRepository deviceRepository;
+    private final ChangeNotificationBus changeNotificationBus;
+    private final Cache<Long, List<IndexedDevice>> owners;
+
+    // owners with device changes in flight, by their number
+    private final ConcurrentHashMap<Long, Integer> changing = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter bypassed;
+
+    @Autowired
+    public DeviceIndex(
+            DeviceRepository deviceRepository,
+            ChangeNotificationBus changeNotificationBus,
+            MeterRegistry meterRegistry) {
+        this(CacheConstants.DeviceIndex.DEVICES_MAX, deviceRepository, changeNotificationBus, meterRegistry);
+    }
+
+    DeviceIndex(
+            long devicesMax,
+            DeviceRepository deviceRepository,
+            ChangeNotificationBus changeNotificationBus,
+            MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.changeNotificationBus = changeNotificationBus;
+        this.owners = Caffeine.newBuilder()
+                .maximumWeight(devicesMax)
+                .<Long, List<IndexedDevice>>weigher(DeviceIndex::weigh)
+                .expireAfterAccess(CacheConstants.DeviceIndex.EXPIRE_AFTER_ACCESS)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.owners, CacheConstants.DeviceIndex.NAME);
+        Gauge.builder(CacheConstants.DeviceIndex.NAME + ".resident.devices", this.owners, DeviceIndex::residentDevices)
+                .register(meterRegistry);
+        this.bypassed = Counter.builder(CacheConstants.DeviceIndex.NAME + ".bypassed").register(meterRegistry);
+        changeNotificationBus.subscribe(this);
+    }
+
+    // ===== Helper methods ===== //
+
+    private static int weigh(Long ownerId, List<IndexedDevice> devices) {
+        return devices.size() + 1;
+    }
+
+    private static long residentDevices(Cache<Long, ?> owners) {
+        return owners.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private List<IndexedDevice> load(Long ownerId) {
+        if (this.changing.containsKey(ownerId)) {
+            this.bypassed.increment();
+            return this.deviceRepository.findIndexedByOwnerId(ownerId);
+        }
+
+        long loadedAt = this.generation.get();
+        List<IndexedDevice> devices = List.copyOf(this.deviceRepository.findIndexedByOwnerId(ownerId));
+
+        // put first, check after: a change starting in between either is seen here or invalidates after the put
+        this.owners.put(ownerId, devices);
+        if (this.generation.get() != loadedAt || this.changing.containsKey(ownerId))
+            this.owners.invalidate(ownerId);
+
+        return devices;
+    }
+
+    private void endChange(Long ownerId) {
+        this.changing.computeIfPresent(ownerId, (id, count) -> count == 1 ? null : count - 1);
+        this.owners.invalidate(ownerId);
+    }
+
+    // ========================== //
+
+    /**
+     * Returns all devices of the owner, ordered by ID.
+     * 
+     * @param ownerId the owner identifier
+     * @return the devices, empty if the owner has none
+     */
+    public List<IndexedDevice> get(Long ownerId) {
+        List<IndexedDevice> devices = this.owners.getIfPresent(ownerId);
+        return devices != null ? devices : load(ownerId);
+    }
+
+    /**
+     * Returns the IDs of the QUEUE devices of the owner, ordered by ID.
+     * WATERMARK devices pull the change log instead, so they are left out of
+     * every fan-out.
+     * 
+     * @param ownerId the owner identifier
+     * @param excludedUuid the device to leave out, usually the origin of the
+     * change, may be null
+     * @return the device IDs
+     */
+    public List<Long> getQueueModeIds(Long ownerId, UUID excludedUuid) {
+        return get(ownerId).stream()
+                .filter(device -> device.syncMode() == SyncMode.QUEUE && !device.uuid().equals(excludedUuid))
+                .map(IndexedDevice::id)
+                .toList();
+    }
+
+    /**
+     * Announces a change to the devices of the owner in the current
+     * transaction. The owner bypasses the index until the transaction
+     * completes, either way. Without a transaction the entry is invalidated at
+     * once.
+     * 
+     * @param ownerId the owner identifier
+     */
+    public void beginChange(Long ownerId) {
+        this.changeNotificationBus.publishDevicesChanged(ownerId);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ownerId);
+            return;
+        }
+
+        this.changing.merge(ownerId, 1, Integer::sum);
+        this.generation.incrementAndGet();
+        this.owners.invalidate(ownerId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                endChange(ownerId);
+            }
+
+        });
+    }
+
+    public void invalidate(Long ownerId) {
+        this.generation.incrementAndGet();
+        this.owners.invalidate(ownerId);
+    }
+
+    public long residentDevices() {
+        return residentDevices(this.owners);
+    }
+
+    // queued changes say nothing about the devices themselves
+    @Override
+    public void onChange(ChangeNotification notification) {
+    }
+
+    @Override
+    public void onDevicesChanged(Long ownerId) {
+        invalidate(ownerId);
+    }
+
+    @Override
+    public void onGap() {
+        this.generation.incrementAndGet();
+        this.owners.invalidateAll();
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.ska.service.cache;
+
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.service.result.SyncablePayload;
+import com.ska.util.constant.CacheConstants;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+
+/**
+ * Read-through cache of syncable payloads bounded by bytes.
+ * 
+ * Metadata is kept on heap, content in direct buffers, each tier with its own
+ * byte budget. Entries are keyed by owner and UUID and validated by change
+ * sequence, which is never reused for an owner, so an entry put by a reader
+ * that raced a write can never be served for a newer state. Write paths still
+ * invalidate after commit to release memory early.
+ * 
+ * Cached bytes are never handed out, every hit returns its own copy.
+ * 
+ * Caffeine metrics are registered per tier, plus resident bytes and hit ratio
+ * gauges tagged by tier.
+ */
+@Component
+public final class SyncablePayloadCache {
+
+    private static final String TIER_HEAP = "heap";
+    private static final String TIER_DIRECT = "direct";
+
+    private final Cache<Key, MetadataEntry> metadataTier;
+    private final Cache<Key, ContentEntry> contentTier;
+
+    @Autowired
+    public SyncablePayloadCache(MeterRegistry meterRegistry) {
+        this(CacheConstants.Payload.METADATA_BYTES_MAX, CacheConstants.Payload.CONTENT_BYTES_MAX, meterRegistry);
+    }
+
+    SyncablePayloadCache(long metadataBytesMax, long contentBytesMax, MeterRegistry meterRegistry) {
+        this.metadataTier = Caffeine.newBuilder()
+                .maximumWeight(metadataBytesMax)
+                .<Key, MetadataEntry>weigher(SyncablePayloadCache::weighMetadata)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.contentTier = Caffeine.newBuilder()
+                .maximumWeight(contentBytesMax)
+                .<Key, ContentEntry>weigher(SyncablePayloadCache::weighContent)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        registerMetrics(meterRegistry, this.metadataTier, TIER_HEAP);
+        registerMetrics(meterRegistry, this.contentTier, TIER_DIRECT);
+    }
+
+    // ===== Helper methods ===== //
+
+    private record Key(Long ownerId, UUID uuid) {
+    }
+
+    private record MetadataEntry(long changeSeq, long version, byte[] bytes) {
+    }
+
+    // read-only view of a direct buffer, released by GC after eviction
+    private record ContentEntry(long changeSeq, ByteBuffer bytes) {
+    }
+
+    private static int weighMetadata(Key key, MetadataEntry entry) {
+        return entry.bytes().length + CacheConstants.Payload.ENTRY_OVERHEAD;
+    }
+
+    private static int weighContent(Key key, ContentEntry entry) {
+        return entry.bytes().capacity() + CacheConstants.Payload.ENTRY_OVERHEAD;
+    }
+
+    private static void registerMetrics(MeterRegistry meterRegistry, Cache<Key, ?> tier, String tierName) {
+        CaffeineCacheMetrics.monitor(meterRegistry, tier, CacheConstants.Payload.NAME + "." + tierName);
+
+        Gauge.builder(CacheConstants.Payload.NAME + ".resident.bytes", tier, SyncablePayloadCache::residentBytes)
+                .tag("tier", tierName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(CacheConstants.Payload.NAME + ".hit.ratio", tier, t -> t.stats().hitRate())
+                .tag("tier", tierName)
+                .register(meterRegistry);
+    }
+
+    private static long residentBytes(Cache<Key, ?> tier) {
+        return tier.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] fromDirect(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.capacity()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    // ========================== //
+
+    /**
+     * Returns a copy of the cached payload if it is at the given change
+     * sequence.
+     * 
+     * @param ownerId the owner identifier
+     * @param uuid the syncable UUID
+     * @param changeSeq the current change sequence of the syncable
+     * @return the payload, empty if absent in any tier or outdated
+     */
+    public Optional<SyncablePayload> get(Long ownerId, UUID uuid, long changeSeq) {
+        return peek(ownerId, uuid).filter(payload -> payload.changeSeq() == changeSeq);
+    }
+
+    /**
+     * Returns a copy of the cached payload at whatever change sequence it was
+     * put with, for callers that confirm the change sequence themselves.
+     * 
+     * @param ownerId the owner identifier
+     * @param uuid the syncable UUID
+     * @return the payload, empty if absent in any tier or if the tiers differ
+     */
+    public Optional<SyncablePayload> peek(Long ownerId, UUID uuid) {
+        Key key = new Key(ownerId, uuid);
+
+        MetadataEntry metadata = this.metadataTier.getIfPresent(key);
+        if (metadata == null)
+            return Optional.empty();
+
+        ContentEntry content = this.contentTier.getIfPresent(key);
+        if (content == null || content.changeSeq() != metadata.changeSeq())
+            return Optional.empty();
+
+        return Optional.of(new SyncablePayload(
+                uuid,
+                metadata.version(),
+                metadata.changeSeq(),
+                new EncryptedMetadata(metadata.bytes().clone()),
+                new EncryptedContent(fromDirect(content.bytes()))));
+    }
+
+    public void put(Long ownerId, SyncablePayload payload) {
+        Key key = new Key(ownerId, payload.uuid());
+        byte[] metadata = payload.metadata().getValue().clone();
+
+        this.metadataTier.put(key, new MetadataEntry(payload.changeSeq(), payload.version(), metadata));
+        this.contentTier.put(key, new ContentEntry(payload.changeSeq(), toDirect(payload.content().getValue())));
+    }
+
+    public void invalidate(Long ownerId, UUID uuid) {
+        Key key = new Key(ownerId, uuid);
+
+        this.metadataTier.invalidate(key);
+        this.contentTier.invalidate(key);
+    }
+
+    /**
+     * Invalidates the entry once the current transaction commits, or at once
+     * if there is no transaction.
+     * 
+     * @param ownerId the owner identifier
+     * @param uuid the syncable UUID
+     */
+    public void invalidateAfterCommit(Long ownerId, UUID uuid) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ownerId, uuid);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                invalidate(ownerId, uuid);
+            }
+
+        });
+    }
+
+    public long residentBytes() {
+        return residentBytes(this.metadataTier) + residentBytes(this.contentTier);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.ska.service.contract;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.model.Device;
+
+
+public interface DeviceService {
+
+    public Device register(Long userId, UUID deviceUuid);
+
+    public List<Device> getAll(Long userId);
+
+    public void delete(Long userId, UUID deviceUuid);
+
+}
@@ -3,25 +3,80 @@ package com.ska.service.contract;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.ska.dto.entity.request.EntityCreateRequest;
 import com.ska.dto.entity.request.EntityUpdateAllRequest;
 import com.ska.dto.entity.request.EntityUpdateMetadataRequest;
 import com.ska.model.syncable.Syncable;
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.service.result.ChangeSet;
+import com.ska.service.result.CursorPage;
+import com.ska.service.result.ItemResult;
+import com.ska.service.result.SyncablePayload;
+import com.ska.service.result.SyncableRevision;
 
 
 public interface EntityService {
 
     public Syncable create(Long userId, UUID uuid, EntityCreateRequest request);
 
-    public List<Syncable> getAll(Long userId);
+    public Syncable create(Long userId, UUID uuid, byte[] metadataBytes, byte[] contentBytes);
 
-    public Syncable getByUuid(Long userId, UUID entityUuid);
+    public CursorPage<Syncable> getAll(Long userId, String cursor, Integer limit);
 
-    public Syncable updateMetadataAndContent(Long userId, UUID entityUuid, EntityUpdateAllRequest request);
+    public CursorPage<SyncableMetadataView> getAllMetadata(Long userId, String cursor, Integer limit);
 
-    public Syncable updateMetadata(Long userId, UUID entityUuid, EntityUpdateMetadataRequest request);
+    public ChangeSet<Syncable> getChanges(Long userId, Long since, Integer limit);
+
+    public void exportAll(Long userId, Consumer<Syncable> sink);
+
+    public SyncablePayload getByUuid(Long userId, UUID entityUuid);
+
+    public void getAllByUuids(Long userId, List<UUID> uuids, Consumer<ItemResult<Syncable>> sink);
+
+    public SyncableMetadataView getMetadataByUuid(Long userId, UUID entityUuid);
+
+    public long getChangeSeq(Long userId, UUID entityUuid);
+
+    public SyncableRevision updateMetadataAndContent(
+            Long userId,
+            UUID entityUuid,
+            EntityUpdateAllRequest request,
+            Long expectedVersion,
+            Long expectedChangeSeq);
+
+    public SyncableRevision updateMetadataAndContent(
+            Long userId,
+            UUID entityUuid,
+            byte[] newMetadataBytes,
+            byte[] newContentBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq);
+
+    public SyncableRevision updateMetadata(
+            Long userId,
+            UUID entityUuid,
+            EntityUpdateMetadataRequest request,
+            Long expectedVersion,
+            Long expectedChangeSeq);
+
+    public SyncableRevision updateMetadata(
+            Long userId,
+            UUID entityUuid,
+            byte[] newMetadataBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq);
+
+    public SyncableRevision updateContent(
+            Long userId,
+            UUID entityUuid,
+            byte[] newContentBytes,
+            Long expectedVersion,
+            Long expectedChangeSeq);
 
     public void delete(Long userId, UUID entityUuid);
 
+    public List<UUID> deleteAll(Long userId, List<UUID> uuids);
+
 }
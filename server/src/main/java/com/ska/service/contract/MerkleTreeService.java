@@ -0,0 +1,24 @@
+package com.ska.service.contract;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.repository.projection.SyncableLeafView;
+import com.ska.service.result.MerkleWalk;
+
+
+public interface MerkleTreeService {
+
+    public void add(Long ownerId, UUID uuid, long changeSeq);
+
+    public void replace(Long ownerId, UUID uuid, long oldChangeSeq, long newChangeSeq);
+
+    public void remove(Long ownerId, Collection<SyncableLeafView> removed);
+
+    public MerkleWalk walk(Long userId, List<String> prefixes);
+
+    public void rebuild(Long ownerId);
+
+}
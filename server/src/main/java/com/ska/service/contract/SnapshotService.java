@@ -0,0 +1,11 @@
+package com.ska.service.contract;
+
+
+import com.ska.service.result.Snapshot;
+
+
+public interface SnapshotService {
+
+    public Snapshot getOrBuild(Long userId);
+
+}
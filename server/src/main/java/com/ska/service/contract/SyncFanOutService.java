@@ -0,0 +1,21 @@
+package com.ska.service.contract;
+
+
+import java.util.Collection;
+import java.util.UUID;
+
+import com.ska.model.sync_queue.QueueAction;
+
+
+public interface SyncFanOutService {
+
+    public void enqueueCreated(Long ownerId, UUID syncableUuid, long changeSeq);
+
+    public void enqueue(
+            Long ownerId,
+            Collection<UUID> syncableUuids,
+            QueueAction action,
+            long firstSeq,
+            long lastSeq);
+
+}
@@ -0,0 +1,21 @@
+package com.ska.service.contract;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.service.result.QueueClaim;
+
+
+public interface SyncQueueService {
+
+    public Long checkDeviceOwnershipAndGetId(Long userId, UUID deviceUuid);
+
+    public QueueClaim claim(Long userId, UUID deviceUuid, Integer limit);
+
+    public int acknowledge(Long userId, UUID deviceUuid, UUID claimToken, List<Long> itemIds);
+
+    public DeviceSyncStateView acknowledgeChangeSeq(Long userId, UUID deviceUuid, Long changeSeq);
+
+}
@@ -3,16 +3,21 @@ package com.ska.service.contract;
 
 import com.ska.dto.user.request.UserCreateRequest;
 import com.ska.model.user.User;
+import com.ska.repository.projection.UserView;
 
 
 public interface UserService {
 
     public User create(UserCreateRequest request);
 
-    public User getById(Long id);
+    public UserView getById(Long id);
 
     public void delete(Long id);
 
-    public User checkUserExistenceAndGet(Long userId);
+    public UserView checkUserExistenceAndGet(Long userId);
+
+    public long reserveChangeSeq(Long userId, int count);
+
+    public void lockChangeSeq(Long userId);
 
 }
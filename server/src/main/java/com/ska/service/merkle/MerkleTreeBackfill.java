@@ -0,0 +1,40 @@
+package com.ska.service.merkle;
+
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import com.ska.repository.MerkleNodeRepository;
+import com.ska.service.contract.MerkleTreeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Builds the hash tree of owners whose syncables predate it.
+ * 
+ * Runs once all beans exist, before the web server accepts requests, so no
+ * incremental update lands on a tree that is still missing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MerkleTreeBackfill implements SmartInitializingSingleton {
+
+    private final MerkleNodeRepository merkleNodeRepository;
+    private final MerkleTreeService merkleTreeService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Long> ownerIds = merkleNodeRepository.findOwnerIdsWithoutTree();
+        if (ownerIds.isEmpty())
+            return;
+
+        log.info("Building syncable trees of {} users", ownerIds.size());
+        ownerIds.forEach(merkleTreeService::rebuild);
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.ska.service.presence;
+
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.projection.DevicePresenceView;
+import com.ska.service.queue.SyncModeSwitch;
+import com.ska.util.HierarchicalTimingWheel;
+import com.ska.util.constant.SyncConstants;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tracks device heartbeats and moves dormant devices to the change log.
+ * 
+ * Every sync call of a device is a heartbeat: queue calls, writes sent with
+ * the origin device header and open event streams, each of which beats while
+ * its sends go through. A heartbeat pushes the deadline on a
+ * {@link HierarchicalTimingWheel}, so expiry is O(1) per device however many
+ * are tracked. Deadlines only move once they are a resolution behind, so most
+ * heartbeats are a lookup, and only those write the coarse last-seen time,
+ * batched by the sweep. A device whose deadline passes is demoted through
+ * {@link SyncModeSwitch} unless the database shows it was seen meanwhile,
+ * which is how heartbeats on other instances count. Fan-outs skip it from then
+ * on and {@link com.ska.service.queue.SyncQueueCompaction} drops its rows.
+ * 
+ * QUEUE devices are loaded with their last-seen time on startup, so devices
+ * that went dormant before it are demoted too.
+ */
+@Slf4j
+@Component
+public class DevicePresenceTracker {
+
+    private static final String METRIC_NAME = "sync.presence";
+
+    private final DeviceRepository deviceRepository;
+    private final SyncModeSwitch syncModeSwitch;
+    private final TransactionTemplate transactionTemplate;
+    private final long dormantAfterMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    // devices whose last-seen time is due for a write
+    private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+    private final Counter expired;
+
+    public DevicePresenceTracker(
+            DeviceRepository deviceRepository,
+            SyncModeSwitch syncModeSwitch,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${" + SyncConstants.Presence.DORMANT_AFTER_PROPERTY + ":"
+                    + SyncConstants.Presence.DORMANT_AFTER_DEFAULT + "}") Duration dormantAfter) {
+        this.deviceRepository = deviceRepository;
+        this.syncModeSwitch = syncModeSwitch;
+        this.transactionTemplate = transactionTemplate;
+        this.dormantAfterMs = dormantAfter.toMillis();
+        this.wheel = new HierarchicalTimingWheel<>(
+                SyncConstants.Presence.TICK_MS,
+                SyncConstants.Presence.SLOT_BITS,
+                SyncConstants.Presence.LEVELS,
+                System.currentTimeMillis());
+
+        Gauge.builder(METRIC_NAME + ".tracked", this, DevicePresenceTracker::tracked).register(meterRegistry);
+        this.expired = Counter.builder(METRIC_NAME + ".expired").register(meterRegistry);
+    }
+
+    // =========== Helper methods ========== //
+
+    private boolean schedule(Long deviceId, long deadline) {
+        this.lock.lock();
+        try {
+            OptionalLong current = this.wheel.deadlineOf(deviceId);
+            if (current.isPresent() && deadline - current.getAsLong() < SyncConstants.Presence.RESOLUTION_MS)
+                return false;
+
+            this.wheel.schedule(deviceId, deadline);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean isTracked(Long deviceId) {
+        this.lock.lock();
+        try {
+            return this.wheel.deadlineOf(deviceId).isPresent();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private List<Long> advance(long now) {
+        List<Long> due = new ArrayList<>();
+
+        this.lock.lock();
+        try {
+            this.wheel.advance(now, due::add);
+        } finally {
+            this.lock.unlock();
+        }
+        return due;
+    }
+
+    private void writeLastSeen() {
+        if (this.seen.isEmpty())
+            return;
+
+        List<Long> deviceIds = new ArrayList<>(this.seen);
+        this.seen.removeAll(deviceIds);
+
+        Instant now = Instant.now();
+        int size = SyncConstants.Presence.LAST_SEEN_CHUNK_SIZE;
+        for (int from = 0; from < deviceIds.size(); from += size) {
+            List<Long> chunk = deviceIds.subList(from, Math.min(from + size, deviceIds.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> deviceRepository.advanceLastSeenAt(chunk, now));
+            } catch (RuntimeException e) {
+                log.warn("Writing last-seen time of {} devices failed, retrying with the next sweep", chunk.size(), e);
+                this.seen.addAll(chunk);
+            }
+        }
+    }
+
+    // ===================================== //
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> deviceRepository.initLastSeenAt(now));
+
+        List<DevicePresenceView> devices = deviceRepository.findQueueModePresence();
+        for (DevicePresenceView device : devices) {
+            Instant lastSeenAt = device.lastSeenAt() == null ? now : device.lastSeenAt();
+            schedule(device.id(), lastSeenAt.toEpochMilli() + this.dormantAfterMs);
+        }
+
+        log.info("Tracking presence of {} devices", devices.size());
+    }
+
+    /**
+     * Records that the device was just seen.
+     * 
+     * @param deviceId the device identifier
+     */
+    public void heartbeat(Long deviceId) {
+        if (schedule(deviceId, System.currentTimeMillis() + this.dormantAfterMs))
+            this.seen.add(deviceId);
+    }
+
+    @Scheduled(fixedDelay = SyncConstants.Presence.SWEEP_INTERVAL_MS)
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        List<Long> due = advance(now);
+
+        // written before the expiry check, so heartbeats of this instance count there
+        writeLastSeen();
+        if (due.isEmpty())
+            return;
+
+        Instant seenBefore = Instant.ofEpochMilli(now - this.dormantAfterMs);
+        for (Long deviceId : due) {
+            // came back since the advance
+            if (isTracked(deviceId))
+                continue;
+
+            try {
+                Optional<Instant> lastSeenAt = syncModeSwitch.demoteIfDormant(deviceId, seenBefore);
+                if (lastSeenAt.isPresent())
+                    schedule(deviceId, lastSeenAt.get().toEpochMilli() + this.dormantAfterMs);
+            } catch (RuntimeException e) {
+                log.warn("Demoting dormant device with ID: {} failed, retrying later", deviceId, e);
+                schedule(deviceId, now + SyncConstants.Presence.RESOLUTION_MS);
+            }
+        }
+
+        this.expired.increment(due.size());
+        log.debug("Checked {} devices whose presence expired", due.size());
+    }
+
+    public int tracked() {
+        this.lock.lock();
+        try {
+            return this.wheel.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
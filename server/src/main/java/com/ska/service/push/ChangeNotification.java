@@ -0,0 +1,13 @@
+package com.ska.service.push;
+
+
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * Syncables queued for one device, announced to the instances holding its
+ * open streams.
+ */
+public record ChangeNotification(Long deviceId, List<UUID> uuids) {
+}
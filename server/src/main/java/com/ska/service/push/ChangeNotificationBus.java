@@ -0,0 +1,49 @@
+package com.ska.service.push;
+
+
+import java.util.Collection;
+
+
+/**
+ * Carries queued changes to the listeners of every server instance, so a
+ * change committed on one instance wakes the device streams held by another.
+ * 
+ * Selected by {@link com.ska.util.constant.SyncConstants.Notify#BUS_PROPERTY}.
+ */
+public interface ChangeNotificationBus {
+
+    /**
+     * Publishes notifications once the current transaction commits, and drops
+     * them if it rolls back. Outside a transaction they are published at once.
+     * 
+     * @param notifications the notifications to publish
+     */
+    public void publish(Collection<ChangeNotification> notifications);
+
+    /**
+     * Publishes that the devices of an owner changed, with the same
+     * transaction semantics as {@link #publish(Collection)}, so every
+     * instance drops what it cached about them.
+     * 
+     * @param ownerId the owner whose devices changed
+     */
+    public void publishDevicesChanged(Long ownerId);
+
+    public void subscribe(Listener listener);
+
+    public interface Listener {
+
+        public void onChange(ChangeNotification notification);
+
+        public default void onDevicesChanged(Long ownerId) {
+        }
+
+        /**
+         * Called when notifications may have been lost, e.g. after the bus
+         * reconnected. Listeners have to fall back to a full resync.
+         */
+        public void onGap();
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.ska.service.push;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ska.util.constant.SyncConstants;
+
+
+/**
+ * One open event stream of a device.
+ * 
+ * Changed UUIDs are buffered up to {@link SyncConstants.Push#PENDING_MAX}
+ * and coalesced while a send is in flight. Past the bound the buffer is
+ * dropped for a single resync event, so a slow client costs a fixed amount of
+ * memory and the device drains its queue instead.
+ */
+final class DeviceChannel {
+
+    private final Long deviceId;
+    private final SseEmitter emitter;
+
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private boolean resync;
+    private boolean draining;
+
+    record ChangesEvent(List<UUID> uuids) {
+    }
+
+    DeviceChannel(Long deviceId, SseEmitter emitter) {
+        this.deviceId = deviceId;
+        this.emitter = emitter;
+    }
+
+    Long deviceId() {
+        return this.deviceId;
+    }
+
+    SseEmitter emitter() {
+        return this.emitter;
+    }
+
+    /**
+     * Buffers changed UUIDs.
+     * 
+     * @param uuids the changed syncables, empty to request a resync
+     * @return whether the caller has to start a drain
+     */
+    synchronized boolean offer(Collection<UUID> uuids) {
+        if (uuids.isEmpty())
+            this.resync = true;
+
+        if (!this.resync) {
+            this.pending.addAll(uuids);
+            if (this.pending.size() > SyncConstants.Push.PENDING_MAX)
+                this.resync = true;
+        }
+        if (this.resync)
+            this.pending.clear();
+
+        if (this.draining)
+            return false;
+
+        this.draining = true;
+        return true;
+    }
+
+    /**
+     * Sends buffered events until the buffer is empty. Only one drain runs at
+     * a time, offers made meanwhile are picked up by the running one.
+     * 
+     * @throws IOException if the client is gone
+     */
+    void drain() throws IOException {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+
+            synchronized (this) {
+                if (this.resync) {
+                    this.resync = false;
+                    event = SseEmitter.event().name(SyncConstants.Push.EVENT_RESYNC).data("");
+                } else if (!this.pending.isEmpty()) {
+                    event = SseEmitter.event()
+                            .name(SyncConstants.Push.EVENT_CHANGES)
+                            .data(new ChangesEvent(new ArrayList<>(this.pending)), MediaType.APPLICATION_JSON);
+                    this.pending.clear();
+                } else {
+                    this.draining = false;
+                    return;
+                }
+            }
+
+            try {
+                this.emitter.send(event);
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    this.draining = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    void heartbeat() throws IOException {
+        this.emitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ska.service.push;
+
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ska.service.presence.DevicePresenceTracker;
+import com.ska.util.constant.SyncConstants;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Open device event streams of this instance.
+ * 
+ * Streams run in async servlet mode, so an idle connection holds no thread.
+ * Sends and heartbeats run on virtual threads, so a slow client never blocks
+ * the publishing thread or the other devices. Changes arrive through the
+ * {@link ChangeNotificationBus}, whichever instance committed them. Every
+ * heartbeat that reaches the client counts as a heartbeat of its device, so
+ * a device that only listens is never taken for dormant.
+ */
+@Slf4j
+@Component
+public final class DevicePushRegistry implements ChangeNotificationBus.Listener {
+
+    private final DevicePresenceTracker devicePresenceTracker;
+
+    private final Map<Long, Set<DeviceChannel>> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DevicePushRegistry(
+            ChangeNotificationBus changeNotificationBus,
+            DevicePresenceTracker devicePresenceTracker,
+            MeterRegistry meterRegistry) {
+        this.devicePresenceTracker = devicePresenceTracker;
+        Gauge.builder(SyncConstants.Push.METRIC_NAME, this.connections, AtomicInteger::get)
+                .register(meterRegistry);
+        changeNotificationBus.subscribe(this);
+    }
+
+    // =========== Helper methods ========== //
+
+    private void remove(DeviceChannel channel) {
+        this.channels.computeIfPresent(channel.deviceId(), (deviceId, open) -> {
+            if (open.remove(channel))
+                this.connections.decrementAndGet();
+
+            return open.isEmpty() ? null : open;
+        });
+    }
+
+    private void submit(DeviceChannel channel, Task task) {
+        try {
+            this.senders.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Closing event stream of device with ID: {} - {}", channel.deviceId(), e.getMessage());
+                    remove(channel);
+                    channel.emitter().completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Event stream send rejected, registry is shutting down");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+
+        void run() throws IOException;
+
+    }
+
+    // ===================================== //
+
+    /**
+     * Opens an event stream for a device. The first event is a resync, so the
+     * device drains whatever was queued while it was offline.
+     * 
+     * @param deviceId the device identifier
+     * @return the emitter to return from the handler
+     */
+    public SseEmitter open(Long deviceId) {
+        return open(deviceId, new SseEmitter(SyncConstants.Push.CONNECTION_TIMEOUT_MS));
+    }
+
+    // the emitter is passed in by tests, which stand in for the servlet container
+    SseEmitter open(Long deviceId, SseEmitter emitter) {
+        DeviceChannel channel = new DeviceChannel(deviceId, emitter);
+
+        emitter.onCompletion(() -> remove(channel));
+        emitter.onTimeout(() -> remove(channel));
+        emitter.onError(e -> remove(channel));
+
+        this.channels.computeIfAbsent(deviceId, id -> ConcurrentHashMap.newKeySet()).add(channel);
+        this.connections.incrementAndGet();
+
+        if (channel.offer(List.of()))
+            submit(channel, channel::drain);
+
+        log.debug("Opened event stream of device with ID: {}", deviceId);
+        return emitter;
+    }
+
+    /**
+     * Pushes changed UUIDs to the open streams of the given devices.
+     * 
+     * @param deviceIds the devices the changes were queued for
+     * @param uuids the changed syncables
+     */
+    public void publish(Collection<Long> deviceIds, Collection<UUID> uuids) {
+        for (Long deviceId : deviceIds) {
+            Set<DeviceChannel> open = this.channels.get(deviceId);
+            if (open == null)
+                continue;
+
+            for (DeviceChannel channel : open)
+                if (channel.offer(uuids))
+                    submit(channel, channel::drain);
+        }
+    }
+
+    @Override
+    public void onChange(ChangeNotification notification) {
+        publish(List.of(notification.deviceId()), notification.uuids());
+    }
+
+    @Override
+    public void onGap() {
+        for (Set<DeviceChannel> open : this.channels.values())
+            for (DeviceChannel channel : open)
+                if (channel.offer(List.of()))
+                    submit(channel, channel::drain);
+    }
+
+    @Scheduled(fixedRate = SyncConstants.Push.HEARTBEAT_INTERVAL_MS)
+    public void heartbeat() {
+        for (Set<DeviceChannel> open : this.channels.values())
+            for (DeviceChannel channel : open)
+                submit(channel, () -> {
+                    channel.heartbeat();
+                    devicePresenceTracker.heartbeat(channel.deviceId());
+                });
+    }
+
+    public int connections() {
+        return this.connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.senders.shutdownNow();
+        this.channels.values().forEach(open -> open.forEach(channel -> channel.emitter().complete()));
+        this.channels.clear();
+    }
+
+}
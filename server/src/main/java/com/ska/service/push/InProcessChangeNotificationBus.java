@@ -0,0 +1,74 @@
+package com.ska.service.push;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ska.util.constant.SyncConstants;
+
+
+/**
+ * Bus of a single instance, also the stand-in for tests. Notifications reach
+ * the listeners of this instance only.
+ */
+@Component
+@ConditionalOnProperty(
+        name = SyncConstants.Notify.BUS_PROPERTY,
+        havingValue = SyncConstants.Notify.BUS_IN_PROCESS,
+        matchIfMissing = true)
+public final class InProcessChangeNotificationBus implements ChangeNotificationBus {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // =========== Helper methods ========== //
+
+    private void deliver(List<ChangeNotification> notifications) {
+        for (ChangeNotification notification : notifications)
+            for (Listener listener : this.listeners)
+                listener.onChange(notification);
+    }
+
+    private static void afterCommit(Runnable delivery) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delivery.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                delivery.run();
+            }
+
+        });
+    }
+
+    // ===================================== //
+
+    @Override
+    public void publish(Collection<ChangeNotification> notifications) {
+        List<ChangeNotification> published = List.copyOf(notifications);
+        if (published.isEmpty())
+            return;
+
+        afterCommit(() -> deliver(published));
+    }
+
+    @Override
+    public void publishDevicesChanged(Long ownerId) {
+        afterCommit(() -> this.listeners.forEach(listener -> listener.onDevicesChanged(ownerId)));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+}
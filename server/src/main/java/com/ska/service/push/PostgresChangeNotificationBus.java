@@ -0,0 +1,197 @@
+package com.ska.service.push;
+
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Bus over PostgreSQL LISTEN/NOTIFY, for instances sharing one database.
+ * 
+ * NOTIFY is transactional: issued on the connection of the current
+ * transaction it is delivered on commit and discarded on rollback, so no
+ * after-commit hook is needed. Every instance, the publishing one included,
+ * receives notifications on a dedicated connection outside the pool. When
+ * that connection drops, notifications sent meanwhile are lost, so listeners
+ * get a gap on every (re)connect.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = SyncConstants.Notify.BUS_PROPERTY, havingValue = SyncConstants.Notify.BUS_POSTGRES)
+public final class PostgresChangeNotificationBus implements ChangeNotificationBus {
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final String LISTEN_SQL = "LISTEN " + SyncConstants.Notify.CHANNEL;
+    private static final String LISTEN_DEVICES_SQL = "LISTEN " + SyncConstants.Notify.DEVICES_CHANNEL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresChangeNotificationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    // =========== Helper methods ========== //
+
+    // deviceId:uuid,uuid,...
+    static List<String> encode(ChangeNotification notification) {
+        List<String> payloads = new ArrayList<>();
+        List<UUID> uuids = notification.uuids();
+        int size = SyncConstants.Notify.PAYLOAD_UUIDS_MAX;
+
+        for (int from = 0; from < uuids.size(); from += size) {
+            List<UUID> chunk = uuids.subList(from, Math.min(from + size, uuids.size()));
+            payloads.add(notification.deviceId() + ":"
+                    + chunk.stream().map(UUID::toString).collect(Collectors.joining(",")));
+        }
+        return payloads;
+    }
+
+    static ChangeNotification decode(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 1 || separator == payload.length() - 1)
+            throw new IllegalArgumentException("Malformed change notification: " + payload);
+
+        return new ChangeNotification(
+                Long.valueOf(payload.substring(0, separator)),
+                Arrays.stream(payload.substring(separator + 1).split(","))
+                        .map(UUID::fromString)
+                        .toList());
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                this.dataSourceProperties.determineUrl(),
+                this.dataSourceProperties.determineUsername(),
+                this.dataSourceProperties.determinePassword());
+    }
+
+    private void dispatchDevicesChanged(PGNotification received) {
+        Long ownerId;
+        try {
+            ownerId = Long.valueOf(received.getParameter());
+        } catch (NumberFormatException e) {
+            log.warn("Skipping devices notification - {}", e.getMessage());
+            return;
+        }
+
+        for (Listener listener : this.listeners)
+            listener.onDevicesChanged(ownerId);
+    }
+
+    private void dispatch(PGNotification received) {
+        if (SyncConstants.Notify.DEVICES_CHANNEL.equals(received.getName())) {
+            dispatchDevicesChanged(received);
+            return;
+        }
+
+        ChangeNotification notification;
+        try {
+            notification = decode(received.getParameter());
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping change notification - {}", e.getMessage());
+            return;
+        }
+
+        for (Listener listener : this.listeners)
+            listener.onChange(notification);
+    }
+
+    private void listen() {
+        while (this.running) {
+            try (Connection connection = connect()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(LISTEN_SQL);
+                    statement.execute(LISTEN_DEVICES_SQL);
+                }
+
+                log.debug("Listening for change notifications on channel: {}", SyncConstants.Notify.CHANNEL);
+                this.listeners.forEach(Listener::onGap);
+
+                while (this.running) {
+                    PGNotification[] received = pgConnection.getNotifications(SyncConstants.Notify.POLL_TIMEOUT_MS);
+                    if (received != null)
+                        for (PGNotification notification : received)
+                            dispatch(notification);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!this.running)
+                    return;
+
+                log.warn("Change notification listener lost its connection, reconnecting", e);
+                try {
+                    Thread.sleep(SyncConstants.Notify.RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // ===================================== //
+
+    @Override
+    public void publish(Collection<ChangeNotification> notifications) {
+        for (ChangeNotification notification : notifications)
+            for (String payload : encode(notification))
+                this.jdbcTemplate.query(NOTIFY_SQL, rs -> {
+                }, SyncConstants.Notify.CHANNEL, payload);
+    }
+
+    @Override
+    public void publishDevicesChanged(Long ownerId) {
+        this.jdbcTemplate.query(NOTIFY_SQL, rs -> {
+        }, SyncConstants.Notify.DEVICES_CHANNEL, ownerId.toString());
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    // the driver blocks inside synchronized sections, which would pin a virtual thread
+    @PostConstruct
+    public void start() {
+        this.running = true;
+        this.listenerThread = Thread.ofPlatform()
+                .name("change-notification-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.running = false;
+        this.listenerThread.interrupt();
+    }
+
+}
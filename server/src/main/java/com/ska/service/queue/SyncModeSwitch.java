@@ -0,0 +1,152 @@
+package com.ska.service.queue;
+
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.service.cache.DeviceIndex;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Moves devices between the sync queue and the owner change log.
+ * 
+ * A QUEUE device whose backlog exceeds
+ * {@link SyncConstants.Watermark#BACKLOG_MAX} or unseen for the dormancy TTL
+ * is demoted to WATERMARK and its rows are dropped by
+ * {@link SyncQueueCompaction}, so a device that stays offline costs one row
+ * instead of one per change. A WATERMARK device that acknowledges up to
+ * {@link SyncConstants.Watermark#PROMOTION_LAG_MAX} changes behind its owner
+ * is promoted back, with the few changes since its watermark queued for it.
+ * 
+ * Both switches lock the owner row first. Every change reserves its sequence
+ * on that row before looking up its target devices, so no change of the owner
+ * is in flight meanwhile and later ones see the new mode: no change falls
+ * between the two paths. Both also announce the change to {@link DeviceIndex},
+ * so no fan-out serves the old mode from it. Callers must hold a transaction.
+ * 
+ * Lock order is owner row, then device rows, then queue rows, the order of
+ * every writer of the queue: a promotion upserts under the owner row, the
+ * upsert key-share locks the devices before their rows, and a flush never
+ * takes the owner row at all.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncModeSwitch {
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceIndex deviceIndex;
+    private final UserRepository userRepository;
+    private final EntityRepository entityRepository;
+    private final EntityTombstoneRepository entityTombstoneRepository;
+    private final SyncQueueItemRepository syncQueueItemRepository;
+    private final SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private final SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // =========== Helper methods ========== //
+
+    // rows are deleted in batches by SyncQueueCompaction, not in one long delete under the owner row
+    private void demote(Long deviceId) {
+        DeviceSyncStateView state = deviceRepository.findSyncStateById(deviceId).orElse(null);
+        if (state == null || state.syncMode() != SyncMode.QUEUE)
+            return;
+
+        userRepository.lockChangeSeq(state.ownerId());
+
+        // changes after the durable sequence may still be buffered for the device, on any instance
+        long acked = syncQueuePendingJdbcRepository.findDurableSeq(state.ownerId());
+        Long lowestQueued = syncQueueItemRepository.findLowestChangeSeqByDeviceId(deviceId);
+        if (lowestQueued != null)
+            acked = Math.min(acked, lowestQueued - 1);
+
+        deviceIndex.beginChange(state.ownerId());
+        deviceRepository.updateSyncState(deviceId, SyncMode.WATERMARK, Math.max(acked, 0));
+        log.info("Demoted device with ID: {} to the change log after change {}", deviceId, acked);
+    }
+
+    // ===================================== //
+
+    /**
+     * Promotes a WATERMARK device back to the queue if it caught up.
+     * 
+     * @param state the sync state after the acknowledgement
+     * @param ownerChangeSeq the latest change sequence of the owner
+     * @return the sync state the device ends up with
+     */
+    public DeviceSyncStateView promoteIfCaughtUp(DeviceSyncStateView state, long ownerChangeSeq) {
+        if (state.syncMode() != SyncMode.WATERMARK
+                || ownerChangeSeq - state.ackedChangeSeq() > SyncConstants.Watermark.PROMOTION_LAG_MAX)
+            return state;
+
+        userRepository.lockChangeSeq(state.ownerId());
+
+        long since = state.ackedChangeSeq();
+        List<Long> deviceIds = List.of(state.id());
+        List<UUID> deleted = entityTombstoneRepository.findChangedUuidsByOwnerId(state.ownerId(), since);
+        List<UUID> live = entityRepository.findChangedUuidsByOwnerId(state.ownerId(), since);
+
+        syncQueueJdbcRepository.upsertAll(deviceIds, deleted, QueueAction.DELETE, false, since + 1);
+        syncQueueJdbcRepository.upsertAll(deviceIds, live, QueueAction.SYNC_FULL, true, since + 1);
+        deviceIndex.beginChange(state.ownerId());
+        deviceRepository.updateSyncState(state.id(), SyncMode.QUEUE, since);
+
+        log.info(
+                "Promoted device with ID: {} to the queue with {} changes after change {}",
+                state.id(),
+                deleted.size() + live.size(),
+                since);
+        return new DeviceSyncStateView(state.id(), state.ownerId(), SyncMode.QUEUE, since);
+    }
+
+    /**
+     * Demotes a device unless it was seen since the cutoff, possibly through
+     * another instance. A device that comes back right after is promoted again
+     * by its next acknowledgement, so a late heartbeat costs one round trip.
+     * 
+     * @param deviceId the device whose presence expired
+     * @param seenBefore the cutoff of dormant devices
+     * @return the last time the device was seen if that is after the cutoff,
+     * empty if the device is dormant or gone
+     */
+    public Optional<Instant> demoteIfDormant(Long deviceId, Instant seenBefore) {
+        return transactionTemplate.execute(status -> {
+            Instant lastSeenAt = deviceRepository.findLastSeenAtById(deviceId);
+            if (lastSeenAt != null && !lastSeenAt.isBefore(seenBefore))
+                return Optional.of(lastSeenAt);
+
+            demote(deviceId);
+            return Optional.<Instant>empty();
+        });
+    }
+
+    @Scheduled(fixedDelay = SyncConstants.Watermark.REBALANCE_INTERVAL_MS)
+    public void rebalance() {
+        List<Long> backlogged = syncQueueItemRepository.findDeviceIdsWithBacklogAbove(
+                SyncConstants.Watermark.BACKLOG_MAX);
+
+        for (Long deviceId : backlogged)
+            transactionTemplate.executeWithoutResult(status -> demote(deviceId));
+    }
+
+}
@@ -0,0 +1,422 @@
+package com.ska.service.queue;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncQueuePending;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.projection.QueueTarget;
+import com.ska.service.push.ChangeNotification;
+import com.ska.service.push.ChangeNotificationBus;
+import com.ska.util.constant.SyncConstants;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Write-behind buffer of sync queue changes.
+ * 
+ * Committed changes are merged per (device, syncable) pair in lock-striped
+ * maps with {@link QueueAction} precedence, and flushed as batched upserts
+ * every {@link SyncConstants.Queue#FLUSH_INTERVAL_MS}. An entity saved many
+ * times between two flushes costs one queue row write per device.
+ * 
+ * Crash safety: the first offer of an owner after a flush widens the
+ * {@link SyncQueuePending} marker of this instance and owner within the
+ * transaction of the change, later offers of the owner are covered by it, so
+ * the marker costs one write per owner and flush window, not one per change.
+ * Every flush stops the coverage of its owners before it reads what is still
+ * unflushed, so an offer it does not see writes the marker again. After the
+ * queue rows of a flush committed, the markers are narrowed to what is still
+ * buffered or in a transaction, in a separate short transaction. Markers of
+ * a dead instance go stale and are replayed from the entity change log by
+ * {@link SyncQueueRecovery} on another one, so a crash loses latency, never
+ * queue items, and no instance vouches for the buffer of another.
+ * 
+ * Flushes run on the scheduler, or on a flusher thread once the buffer
+ * overflows, never on a committing thread: its finished transaction is still
+ * bound there, and the flush transactions would join it.
+ */
+@Slf4j
+@Component
+public final class SyncQueueBuffer {
+
+    private final SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private final SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private final ChangeNotificationBus changeNotificationBus;
+    private final TransactionTemplate transactionTemplate;
+
+    // identifies the markers of this instance, a restarted instance leaves its old ones to recovery
+    private final UUID instanceId = UUID.randomUUID();
+
+    private final Stripe[] stripes = new Stripe[SyncConstants.Queue.BUFFER_STRIPES];
+    private final AtomicInteger pendingPairs = new AtomicInteger();
+    private final Map<Long, Flight> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("sync-queue-flusher").factory());
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter offered;
+    private final Counter flushed;
+
+    public SyncQueueBuffer(
+            SyncQueueJdbcRepository syncQueueJdbcRepository,
+            SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository,
+            ChangeNotificationBus changeNotificationBus,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.syncQueueJdbcRepository = syncQueueJdbcRepository;
+        this.syncQueuePendingJdbcRepository = syncQueuePendingJdbcRepository;
+        this.changeNotificationBus = changeNotificationBus;
+        this.transactionTemplate = transactionTemplate;
+
+        for (int i = 0; i < this.stripes.length; i++)
+            this.stripes[i] = new Stripe();
+
+        // offered / flushed is the write amplification saved
+        this.offered = Counter.builder(SyncConstants.Queue.BUFFER_METRIC_NAME + ".offered").register(meterRegistry);
+        this.flushed = Counter.builder(SyncConstants.Queue.BUFFER_METRIC_NAME + ".flushed").register(meterRegistry);
+        Gauge.builder(SyncConstants.Queue.BUFFER_METRIC_NAME + ".pending", this.pendingPairs, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    // =========== Helper methods ========== //
+
+    private record Pending(Long ownerId, QueueAction action, boolean replace, long firstSeq, long lastSeq) {
+
+        // a replacing change wins, otherwise the stronger action; replace sticks until flushed
+        Pending merge(Pending newer) {
+            QueueAction merged = newer.replace() || newer.action().supersedes(this.action)
+                    ? newer.action()
+                    : this.action;
+
+            return new Pending(
+                    this.ownerId,
+                    merged,
+                    this.replace || newer.replace(),
+                    Math.min(this.firstSeq, newer.firstSeq()),
+                    Math.max(this.lastSeq, newer.lastSeq()));
+        }
+
+    }
+
+    // changes of one owner not in the buffer yet, and how far the marker of this instance covers them
+    private static final class Flight {
+
+        private static final long UNMARKED = Long.MAX_VALUE;
+
+        // lowest change sequence of every offer still inside its transaction
+        private final ConcurrentSkipListSet<Long> seqs = new ConcurrentSkipListSet<>();
+        // set once a marking transaction committed, cleared by every flush of the owner
+        private long markedFrom = UNMARKED;
+
+        private boolean isIdle() {
+            return this.seqs.isEmpty() && this.markedFrom == UNMARKED;
+        }
+
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<QueueTarget, Pending> pending = new HashMap<>();
+
+    }
+
+    private record Batch(QueueAction action, boolean replace) {
+    }
+
+    private Stripe stripeOf(QueueTarget target) {
+        return this.stripes[Math.floorMod(target.hashCode(), this.stripes.length)];
+    }
+
+    // a failed flush puts its snapshot back as older than whatever was buffered meanwhile
+    private void merge(QueueTarget target, Pending pending, boolean older) {
+        Stripe stripe = stripeOf(target);
+
+        stripe.lock.lock();
+        try {
+            Pending current = stripe.pending.get(target);
+            if (current == null)
+                this.pendingPairs.incrementAndGet();
+
+            stripe.pending.put(target, current == null
+                    ? pending
+                    : older ? pending.merge(current) : current.merge(pending));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void mergeAll(Collection<Long> deviceIds, Collection<UUID> uuids, Pending pending) {
+        for (Long deviceId : deviceIds)
+            for (UUID uuid : uuids)
+                merge(new QueueTarget(deviceId, uuid), pending, false);
+
+        this.offered.increment((double) deviceIds.size() * uuids.size());
+
+        if (this.pendingPairs.get() > SyncConstants.Queue.BUFFER_PAIRS_MAX)
+            requestFlush();
+    }
+
+    // at most one early flush is queued, the offering thread never waits for it
+    private void requestFlush() {
+        if (!this.flushRequested.compareAndSet(false, true))
+            return;
+
+        try {
+            this.flusher.execute(() -> {
+                this.flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            this.flushRequested.set(false);
+            log.debug("Early sync queue flush rejected, buffer is shutting down");
+        }
+    }
+
+    /**
+     * Enters an offer into flight.
+     * 
+     * @return whether the marker of this instance already covers the change
+     */
+    private boolean enterFlight(Long ownerId, long firstSeq) {
+        boolean[] covered = new boolean[1];
+
+        this.inFlight.compute(ownerId, (id, flight) -> {
+            Flight open = flight == null ? new Flight() : flight;
+            open.seqs.add(firstSeq);
+            covered[0] = open.markedFrom <= firstSeq;
+            return open;
+        });
+        return covered[0];
+    }
+
+    // a committed mark covers the later changes of the owner until its next flush
+    private void leaveFlight(Long ownerId, long firstSeq, boolean marked) {
+        this.inFlight.computeIfPresent(ownerId, (id, flight) -> {
+            flight.seqs.remove(firstSeq);
+            if (marked)
+                flight.markedFrom = Math.min(flight.markedFrom, firstSeq);
+
+            return flight.isIdle() ? null : flight;
+        });
+    }
+
+    // offers from here on write the marker again, so a release never drops one that vouches for them
+    private void unmark(Collection<Long> ownerIds) {
+        for (Long ownerId : ownerIds)
+            this.inFlight.computeIfPresent(ownerId, (id, flight) -> {
+                flight.markedFrom = Flight.UNMARKED;
+                return flight.isIdle() ? null : flight;
+            });
+    }
+
+    private Map<QueueTarget, Pending> drain() {
+        Map<QueueTarget, Pending> snapshot = new HashMap<>();
+
+        for (Stripe stripe : this.stripes) {
+            stripe.lock.lock();
+            try {
+                if (!stripe.pending.isEmpty()) {
+                    snapshot.putAll(stripe.pending);
+                    stripe.pending = new HashMap<>();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        this.pendingPairs.addAndGet(-snapshot.size());
+        return snapshot;
+    }
+
+    // in-flight is read before the buffer, an offer moving between the two is seen in the buffer
+    private Map<Long, Long> lowestUnflushedSeqs() {
+        Map<Long, Long> lowest = new HashMap<>();
+        this.inFlight.forEach((ownerId, flight) -> {
+            Long first = flight.seqs.ceiling(Long.MIN_VALUE);
+            if (first != null)
+                lowest.merge(ownerId, first, Math::min);
+        });
+
+        for (Stripe stripe : this.stripes) {
+            stripe.lock.lock();
+            try {
+                for (Pending pending : stripe.pending.values())
+                    lowest.merge(pending.ownerId(), pending.firstSeq(), Math::min);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return lowest;
+    }
+
+    private void write(Map<QueueTarget, Pending> snapshot) {
+        Map<Batch, Map<QueueTarget, Long>> batches = new HashMap<>();
+        Map<Long, Long> flushedSeqs = new HashMap<>();
+        snapshot.forEach((target, pending) -> {
+            batches.computeIfAbsent(new Batch(pending.action(), pending.replace()), batch -> new HashMap<>())
+                    .put(target, pending.firstSeq());
+            flushedSeqs.merge(pending.ownerId(), pending.lastSeq(), Math::max);
+        });
+
+        unmark(flushedSeqs.keySet());
+        Map<Long, Long> lowestUnflushed = lowestUnflushedSeqs();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            batches.forEach((batch, targets) -> syncQueueJdbcRepository.upsert(
+                    targets,
+                    batch.action(),
+                    batch.replace()));
+            changeNotificationBus.publish(notifications(snapshot));
+        });
+
+        // the queue rows are committed, a failure here only leaves markers for recovery to replay
+        try {
+            transactionTemplate.executeWithoutResult(status -> syncQueuePendingJdbcRepository.release(
+                    this.instanceId,
+                    flushedSeqs,
+                    lowestUnflushed));
+        } catch (RuntimeException e) {
+            log.warn("Releasing sync queue markers of {} users failed", flushedSeqs.size(), e);
+        }
+    }
+
+    private static List<ChangeNotification> notifications(Map<QueueTarget, Pending> snapshot) {
+        Map<Long, List<UUID>> byDevice = new HashMap<>();
+        snapshot.keySet().forEach(target -> byDevice
+                .computeIfAbsent(target.deviceId(), deviceId -> new ArrayList<>())
+                .add(target.syncableUuid()));
+
+        return byDevice.entrySet().stream()
+                .map(device -> new ChangeNotification(device.getKey(), device.getValue()))
+                .toList();
+    }
+
+    // ===================================== //
+
+    /**
+     * Marks a change pending in the current transaction, unless the marker
+     * already covers it, and buffers it once that transaction commits.
+     * 
+     * @param ownerId the owner of the changed syncables
+     * @param firstSeq the lowest change sequence of the change
+     * @param lastSeq the highest change sequence of the change
+     * @param deviceIds the devices to queue the change for
+     * @param uuids the distinct changed syncables
+     * @param action the action to queue
+     * @param replace whether to overwrite any queued action
+     */
+    public void offer(
+            Long ownerId,
+            long firstSeq,
+            long lastSeq,
+            Collection<Long> deviceIds,
+            Collection<UUID> uuids,
+            QueueAction action,
+            boolean replace) {
+        Pending pending = new Pending(ownerId, action, replace, firstSeq, lastSeq);
+        List<Long> targets = List.copyOf(deviceIds);
+        List<UUID> changed = List.copyOf(uuids);
+
+        boolean marked = !enterFlight(ownerId, firstSeq);
+        try {
+            if (marked)
+                syncQueuePendingJdbcRepository.mark(this.instanceId, ownerId, firstSeq, lastSeq);
+        } catch (RuntimeException e) {
+            leaveFlight(ownerId, firstSeq, false);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                mergeAll(targets, changed, pending);
+            } finally {
+                leaveFlight(ownerId, firstSeq, marked);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                try {
+                    if (committed)
+                        mergeAll(targets, changed, pending);
+                } finally {
+                    leaveFlight(ownerId, firstSeq, marked && committed);
+                }
+            }
+
+        });
+    }
+
+    @Scheduled(fixedDelay = SyncConstants.Queue.FLUSH_INTERVAL_MS)
+    public void flush() {
+        if (!this.flushLock.tryLock())
+            return;
+
+        try {
+            Map<QueueTarget, Pending> snapshot = drain();
+            if (snapshot.isEmpty())
+                return;
+
+            try {
+                write(snapshot);
+            } catch (RuntimeException e) {
+                log.error("Sync queue flush of {} pairs failed, keeping them buffered", snapshot.size(), e);
+                snapshot.forEach((target, pending) -> merge(target, pending, true));
+                return;
+            }
+
+            this.flushed.increment(snapshot.size());
+
+            log.debug("Flushed {} sync queue pairs", snapshot.size());
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.flusher.shutdown();
+        try {
+            this.flusher.awaitTermination(SyncConstants.Queue.FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.ska.service.queue;
+
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Drops the queue items of devices on the change log.
+ * 
+ * Items are deleted in batches of {@link SyncConstants.Watermark#COMPACTION_BATCH_SIZE},
+ * each in its own transaction, so a device demoted with a large backlog does
+ * not hold locks for one long delete. Every batch locks the owner row and
+ * checks the mode under it, as {@link SyncModeSwitch} does, so no batch
+ * deletes what a promotion just queued. Rows locked by a flush or a claim are
+ * skipped, not waited for, and go with a later run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncQueueCompaction {
+
+    private final DeviceRepository deviceRepository;
+    private final UserRepository userRepository;
+    private final SyncQueueItemRepository syncQueueItemRepository;
+    private final SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // =========== Helper methods ========== //
+
+    private int deleteBatch(Long deviceId) {
+        DeviceSyncStateView state = deviceRepository.findSyncStateById(deviceId).orElse(null);
+        if (state == null)
+            return 0;
+
+        userRepository.lockChangeSeq(state.ownerId());
+
+        // read again under the owner row, a promotion may have committed meanwhile
+        DeviceSyncStateView locked = deviceRepository.findSyncStateById(deviceId).orElse(null);
+        if (locked == null || locked.syncMode() != SyncMode.WATERMARK)
+            return 0;
+
+        return syncQueueJdbcRepository.deleteBatch(deviceId, SyncConstants.Watermark.COMPACTION_BATCH_SIZE);
+    }
+
+    // ===================================== //
+
+    @Scheduled(fixedDelay = SyncConstants.Watermark.COMPACTION_INTERVAL_MS)
+    public void compact() {
+        List<Long> deviceIds = syncQueueItemRepository.findWatermarkDeviceIdsWithItems();
+
+        long compacted = 0;
+        for (Long deviceId : deviceIds) {
+            int deleted;
+            do {
+                Integer batch = transactionTemplate.execute(status -> deleteBatch(deviceId));
+                deleted = batch == null ? 0 : batch;
+                compacted += deleted;
+            } while (deleted == SyncConstants.Watermark.COMPACTION_BATCH_SIZE);
+        }
+
+        if (compacted > 0)
+            log.info("Compacted {} sync queue items of {} devices on the change log", compacted, deviceIds.size());
+    }
+
+}
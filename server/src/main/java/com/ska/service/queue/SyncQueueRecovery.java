@@ -0,0 +1,107 @@
+package com.ska.service.queue;
+
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncQueuePending;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.PendingMarkerView;
+import com.ska.service.cache.DeviceIndex;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Rebuilds sync queue items lost with the {@link SyncQueueBuffer} of a dead
+ * instance.
+ * 
+ * For every stale {@link SyncQueuePending} marker, the changes of its owner
+ * from the marker on are queued again for all of the QUEUE devices: deletes
+ * from tombstones first, then live syncables as replacing SYNC_FULL, so a
+ * re-created syncable ends up live. The origin device is not known any more,
+ * so it gets its own changes back, which only costs a redundant sync. Each
+ * marker is replayed in its own transaction under the owner row, the lock
+ * every change takes first, and markers another recovery holds are skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncQueueRecovery {
+
+    private final UserRepository userRepository;
+    private final DeviceIndex deviceIndex;
+    private final EntityRepository entityRepository;
+    private final EntityTombstoneRepository entityTombstoneRepository;
+    private final SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private final SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // =========== Helper methods ========== //
+
+    private void replay(PendingMarkerView marker) {
+        Long ownerId = marker.ownerId();
+
+        // the owner is gone with its queue, so is anything left to replay
+        if (userRepository.lockChangeSeq(ownerId) == 0) {
+            syncQueuePendingJdbcRepository.release(marker.instanceId(), ownerId, Long.MAX_VALUE);
+            return;
+        }
+
+        Long firstSeq = syncQueuePendingJdbcRepository
+                .lockStale(marker, SyncConstants.Queue.PENDING_STALE_AFTER)
+                .orElse(null);
+        if (firstSeq == null)
+            return;
+
+        long since = firstSeq - 1;
+        long changeSeq = userRepository.findChangeSeqById(ownerId);
+
+        List<Long> deviceIds = deviceIndex.getQueueModeIds(ownerId, null);
+        if (!deviceIds.isEmpty()) {
+            List<UUID> deleted = entityTombstoneRepository.findChangedUuidsByOwnerId(ownerId, since);
+            List<UUID> live = entityRepository.findChangedUuidsByOwnerId(ownerId, since);
+
+            syncQueueJdbcRepository.upsertAll(deviceIds, deleted, QueueAction.DELETE, false, firstSeq);
+            syncQueueJdbcRepository.upsertAll(deviceIds, live, QueueAction.SYNC_FULL, true, firstSeq);
+
+            log.info(
+                    "Replayed {} deletes and {} upserts after change {} for user with ID: {}",
+                    deleted.size(),
+                    live.size(),
+                    since,
+                    ownerId);
+        }
+
+        syncQueuePendingJdbcRepository.release(marker.instanceId(), ownerId, changeSeq);
+    }
+
+    // ===================================== //
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = SyncConstants.Queue.RECOVERY_INTERVAL_MS)
+    public void recover() {
+        List<PendingMarkerView> stale = syncQueuePendingJdbcRepository.findStale(
+                SyncConstants.Queue.PENDING_STALE_AFTER);
+        if (stale.isEmpty())
+            return;
+
+        log.info("Recovering {} stale sync queue markers", stale.size());
+        for (PendingMarkerView marker : stale)
+            transactionTemplate.executeWithoutResult(status -> replay(marker));
+    }
+
+}
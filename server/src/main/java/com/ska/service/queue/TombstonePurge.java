@@ -0,0 +1,97 @@
+package com.ska.service.queue;
+
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.util.constant.SyncConstants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Purges tombstones no device or replay reads any more.
+ * 
+ * The horizon of an owner is the lowest of the acknowledged sequence of its
+ * WATERMARK devices, the change before the oldest queue row of its QUEUE
+ * devices, which is where a demotion resumes them on the change log, and the
+ * durable sequence that {@link SyncQueueRecovery} replays buffered changes
+ * after. Tombstones up to it are deleted in batches of
+ * {@link SyncConstants.Watermark#PURGE_BATCH_SIZE}, each in its own
+ * transaction under the owner row, as {@link SyncModeSwitch} takes it, so no
+ * mode switch moves a device below the horizon meanwhile.
+ * 
+ * The horizon is stored on the owner before the delete. A change log pull
+ * since a watermark below it would miss deletes, so it answers 410 and the
+ * client bootstraps again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TombstonePurge {
+
+    private final UserRepository userRepository;
+    private final DeviceRepository deviceRepository;
+    private final EntityTombstoneRepository entityTombstoneRepository;
+    private final SyncQueueItemRepository syncQueueItemRepository;
+    private final SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // =========== Helper methods ========== //
+
+    private long horizon(Long ownerId) {
+        long horizon = syncQueuePendingJdbcRepository.findDurableSeq(ownerId);
+
+        Long watermarkAcked = deviceRepository.findLowestWatermarkAckedByOwnerId(ownerId);
+        if (watermarkAcked != null)
+            horizon = Math.min(horizon, watermarkAcked);
+
+        Long lowestQueued = syncQueueItemRepository.findLowestQueueModeChangeSeqByOwnerId(ownerId);
+        if (lowestQueued != null)
+            horizon = Math.min(horizon, lowestQueued - 1);
+
+        return horizon;
+    }
+
+    private int deleteBatch(Long ownerId) {
+        if (userRepository.lockChangeSeq(ownerId) == 0)
+            return 0;
+
+        long horizon = horizon(ownerId);
+        if (horizon <= 0)
+            return 0;
+
+        userRepository.advanceTombstonePurgedSeq(ownerId, horizon);
+        return entityTombstoneRepository.deleteBatchUpTo(ownerId, horizon, SyncConstants.Watermark.PURGE_BATCH_SIZE);
+    }
+
+    // ===================================== //
+
+    @Scheduled(fixedDelay = SyncConstants.Watermark.PURGE_INTERVAL_MS)
+    public void purge() {
+        List<Long> ownerIds = entityTombstoneRepository.findOwnerIdsWithTombstones();
+
+        long purged = 0;
+        for (Long ownerId : ownerIds) {
+            int deleted;
+            do {
+                Integer batch = transactionTemplate.execute(status -> deleteBatch(ownerId));
+                deleted = batch == null ? 0 : batch;
+                purged += deleted;
+            } while (deleted == SyncConstants.Watermark.PURGE_BATCH_SIZE);
+        }
+
+        if (purged > 0)
+            log.info("Purged {} tombstones of {} owners", purged, ownerIds.size());
+    }
+
+}
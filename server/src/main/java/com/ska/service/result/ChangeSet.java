@@ -0,0 +1,25 @@
+package com.ska.service.result;
+
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+
+/**
+ * Changes of one owner after a client watermark.
+ * 
+ * @param T the type of upserted items
+ * @param upserts the created or updated items in change order
+ * @param deleted the UUIDs of deleted items in change order
+ * @param watermark the change sequence to pass as {@code since} next time
+ * @param hasMore whether more changes exist after the watermark
+ */
+public record ChangeSet<T>(List<T> upserts, List<UUID> deleted, long watermark, boolean hasMore) {
+
+    public <R> ChangeSet<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = this.upserts.stream().<R>map(mapper).toList();
+        return new ChangeSet<>(mapped, this.deleted, this.watermark, this.hasMore);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.ska.service.result;
+
+
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * One page of keyset pagination.
+ * 
+ * @param T the type of page items
+ * @param items the page items in cursor order
+ * @param nextCursor the opaque cursor of the next page, <null> on the last page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return this.nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = this.items.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, this.nextCursor);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.ska.service.result;
+
+
+import java.util.UUID;
+
+
+/**
+ * Outcome of one item of a batch operation.
+ * 
+ * @param T the type of item value
+ * @param uuid the requested UUID
+ * @param status the item outcome
+ * @param value the item value, <null> unless status is {@link ItemStatus#OK}
+ * and the operation yields a value
+ */
+public record ItemResult<T>(UUID uuid, ItemStatus status, T value) {
+
+    public static <T> ItemResult<T> ok(UUID uuid, T value) {
+        return new ItemResult<>(uuid, ItemStatus.OK, value);
+    }
+
+    public static <T> ItemResult<T> failed(UUID uuid, ItemStatus status) {
+        return new ItemResult<>(uuid, status, null);
+    }
+
+}
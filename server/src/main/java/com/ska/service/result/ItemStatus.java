@@ -0,0 +1,8 @@
+package com.ska.service.result;
+
+
+public enum ItemStatus {
+    OK,
+    NOT_FOUND,
+    FORBIDDEN
+}
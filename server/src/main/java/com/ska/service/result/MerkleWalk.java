@@ -0,0 +1,18 @@
+package com.ska.service.result;
+
+
+import java.util.List;
+
+import com.ska.repository.projection.MerkleNodeView;
+import com.ska.repository.projection.SyncableLeafView;
+
+
+/**
+ * One step of a top-down hash tree walk.
+ * 
+ * @param nodes the requested inner nodes and their children, empty nodes
+ * omitted
+ * @param leaves the syncables of the requested bottom level nodes
+ */
+public record MerkleWalk(List<MerkleNodeView> nodes, List<SyncableLeafView> leaves) {
+}
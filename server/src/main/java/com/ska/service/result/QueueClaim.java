@@ -0,0 +1,22 @@
+package com.ska.service.result;
+
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.ska.repository.projection.SyncQueueItemView;
+
+
+/**
+ * Queue items leased to one device.
+ * 
+ * @param claimToken the token to acknowledge the items with
+ * @param leasedUntil the moment the items become claimable again, or null if
+ * nothing was claimed
+ * @param items the claimed items in queue order
+ * @param since null on the queue, otherwise the change sequence to pull the
+ * owner change log after, as the device was moved to its watermark
+ */
+public record QueueClaim(UUID claimToken, Instant leasedUntil, List<SyncQueueItemView> items, Long since) {
+}
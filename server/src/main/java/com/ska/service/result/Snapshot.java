@@ -0,0 +1,16 @@
+package com.ska.service.result;
+
+
+import java.nio.file.Path;
+
+
+/**
+ * Bootstrap snapshot file of an owner.
+ * 
+ * @param path the snapshot file
+ * @param changeSeq the owner change watermark the snapshot is consistent with,
+ * changes after it are pulled from the change log
+ * @param size the file size in bytes
+ */
+public record Snapshot(Path path, long changeSeq, long size) {
+}
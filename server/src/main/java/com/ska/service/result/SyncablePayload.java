@@ -0,0 +1,40 @@
+package com.ska.service.result;
+
+
+import java.util.Objects;
+import java.util.UUID;
+
+import com.ska.model.syncable.Syncable;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.util.constant.EntityConstants;
+
+
+/**
+ * Detached payload of a syncable, as served by reads and the payload cache.
+ * 
+ * @param uuid the client identifier
+ * @param version the optimistic lock version
+ * @param changeSeq the owner change sequence of the last write, never reused
+ * @param metadata the encrypted metadata
+ * @param content the encrypted content
+ */
+public record SyncablePayload(
+        UUID uuid,
+        long version,
+        long changeSeq,
+        EncryptedMetadata metadata,
+        EncryptedContent content) {
+
+    public static SyncablePayload of(final Syncable entity) {
+        Objects.requireNonNull(entity, EntityConstants.NULL_MESSAGE);
+
+        return new SyncablePayload(
+                entity.getUuid(),
+                entity.getVersion(),
+                entity.getChangeSeq(),
+                entity.getMetadataBytes(),
+                entity.getContentBytes());
+    }
+
+}
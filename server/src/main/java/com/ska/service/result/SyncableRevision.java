@@ -0,0 +1,11 @@
+package com.ska.service.result;
+
+
+/**
+ * Revision of a syncable written by an update.
+ * 
+ * @param version the new optimistic lock version
+ * @param changeSeq the owner change sequence of the write, never reused
+ */
+public record SyncableRevision(long version, long changeSeq) {
+}
@@ -0,0 +1,41 @@
+package com.ska.util;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+/**
+ * Util class for reading raw binary request bodies.
+ * 
+ * Reads at most {@code maxSize + 1} bytes, so an oversized body is rejected
+ * without being buffered completely.
+ * 
+ * @see BusinessRuleViolationException - thrown if body is larger than allowed
+ */
+public final class BoundedBytes {
+
+    private static final String TOO_LARGE_TEMPLATE_MESSAGE = "%s is larger than %d bytes";
+
+    private BoundedBytes() {
+        throw new UnsupportedOperationException("BoundedBytes.java - <util> class");
+    }
+
+    public static byte[] read(InputStream inputStream, int maxSize, String name) {
+        byte[] bytes;
+        try {
+            bytes = inputStream.readNBytes(maxSize + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (bytes.length > maxSize)
+            throw new BusinessRuleViolationException(String.format(TOO_LARGE_TEMPLATE_MESSAGE, name, maxSize));
+
+        return bytes;
+    }
+
+}
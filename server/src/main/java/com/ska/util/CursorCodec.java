@@ -0,0 +1,56 @@
+package com.ska.util;
+
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+/**
+ * Util class for opaque keyset pagination cursors.
+ * 
+ * Cursor wraps the last seen row identifier into URL-safe Base64 so clients
+ * treat it as a token and never build it by hand.
+ * 
+ * @see BusinessRuleViolationException - thrown if cursor is malformed
+ */
+public final class CursorCodec {
+
+    private static final String INVALID_MESSAGE = "Cursor is invalid";
+
+    private CursorCodec() {
+        throw new UnsupportedOperationException("CursorCodec.java - <util> class");
+    }
+
+    public static String encode(long position) {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(position).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodes cursor back to the last seen row identifier.
+     * 
+     * @param cursor the opaque cursor received from client
+     * @return the last seen row identifier
+     * @throws BusinessRuleViolationException if cursor is not a valid token
+     */
+    public static long decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException(INVALID_MESSAGE);
+        }
+
+        if (bytes.length != Long.BYTES)
+            throw new BusinessRuleViolationException(INVALID_MESSAGE);
+
+        long position = ByteBuffer.wrap(bytes).getLong();
+        if (position < 0)
+            throw new BusinessRuleViolationException(INVALID_MESSAGE);
+
+        return position;
+    }
+
+}
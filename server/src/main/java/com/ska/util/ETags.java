@@ -0,0 +1,85 @@
+package com.ska.util;
+
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+/**
+ * Util class for entity tags built from owner change sequences.
+ * 
+ * Tag is the quoted decimal change sequence of the last write, so it is strong
+ * and compares exactly. Unlike the version it is never reused, a tag of a
+ * deleted syncable never matches the one re-created with its UUID.
+ * 
+ * @see BusinessRuleViolationException - thrown if tag is malformed
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String INVALID_MESSAGE = "Entity tag is invalid";
+
+    private ETags() {
+        throw new UnsupportedOperationException("ETags.java - <util> class");
+    }
+
+    public static String of(long changeSeq) {
+        return "\"" + changeSeq + "\"";
+    }
+
+    /**
+     * Weak comparison of a change sequence against an {@code If-None-Match}
+     * header.
+     * 
+     * @param header the header value, may be <null>
+     * @param changeSeq the current change sequence
+     * @return whether any listed tag matches, malformed tags never match
+     */
+    public static boolean matchesAny(String header, long changeSeq) {
+        if (header == null)
+            return false;
+
+        String current = of(changeSeq);
+        for (String listed : header.split(",")) {
+            String tag = listed.strip();
+            if (tag.startsWith(WEAK_PREFIX))
+                tag = tag.substring(WEAK_PREFIX.length());
+
+            if (tag.equals(ANY) || tag.equals(current))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses a single entity tag from a conditional request header.
+     * 
+     * @param header the header value, may be <null>
+     * @return the change sequence the client expects, <null> if header is
+     * absent or {@code *}
+     * @throws BusinessRuleViolationException if header is not a single strong
+     * tag of this server
+     */
+    public static Long parseChangeSeq(String header) {
+        if (header == null)
+            return null;
+
+        String tag = header.strip();
+        if (tag.equals(ANY))
+            return null;
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"')
+            throw new BusinessRuleViolationException(INVALID_MESSAGE);
+
+        try {
+            long changeSeq = Long.parseLong(tag, 1, tag.length() - 1, 10);
+            if (changeSeq < 0)
+                throw new BusinessRuleViolationException(INVALID_MESSAGE);
+
+            return changeSeq;
+        } catch (NumberFormatException e) {
+            throw new BusinessRuleViolationException(INVALID_MESSAGE);
+        }
+    }
+
+}
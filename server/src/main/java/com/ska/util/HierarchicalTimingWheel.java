@@ -0,0 +1,216 @@
+package com.ska.util;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+
+/**
+ * Hierarchical timing wheel of keyed deadlines.
+ * 
+ * Level 0 has one slot per tick, every higher level has slots as long as a
+ * whole turn of the level below. A deadline lands on the lowest level whose
+ * turn covers it, and is moved one level down when its slot comes up, so
+ * scheduling, rescheduling and cancelling are O(1) and every deadline is
+ * moved at most once per level before it expires. Deadlines beyond the top
+ * level are parked in its last slot and placed again from there.
+ * 
+ * Deadlines fire on the first {@link #advance(long, Consumer)} at or after
+ * them, never before. Not thread-safe.
+ * 
+ * @param <K> the key type, a key has at most one deadline
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int slotBits;
+    private final int levels;
+    private final long slotMask;
+
+    private final Node<K>[][] slots;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+
+    private long currentTick;
+
+    /**
+     * @param tickMillis the length of a level 0 slot
+     * @param slotBits the number of slots per level as a power of two
+     * @param levels the number of levels, the top one turns every
+     * {@code tickMillis << (slotBits * levels)}
+     * @param nowMillis the current time
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int slotBits, int levels, long nowMillis) {
+        if (tickMillis < 1 || slotBits < 1 || levels < 1 || slotBits * levels > 62)
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+
+        this.tickMillis = tickMillis;
+        this.slotBits = slotBits;
+        this.levels = levels;
+        this.slotMask = (1L << slotBits) - 1;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+
+        this.slots = new Node[levels][1 << slotBits];
+        for (Node<K>[] level : this.slots)
+            for (int slot = 0; slot < level.length; slot++)
+                level[slot] = Node.sentinel();
+    }
+
+    // ===== Helper methods ===== //
+
+    private static final class Node<K> {
+
+        private final K key;
+        private long deadlineTick;
+
+        private Node<K> prev = this;
+        private Node<K> next = this;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        private static <K> Node<K> sentinel() {
+            return new Node<>(null);
+        }
+
+        private void link(Node<K> head) {
+            this.prev = head.prev;
+            this.next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            this.prev.next = this.next;
+            this.next.prev = this.prev;
+            this.prev = this;
+            this.next = this;
+        }
+
+    }
+
+    // rounded up, so a deadline never fires early
+    private long toTick(long millis) {
+        return Math.floorDiv(millis + this.tickMillis - 1, this.tickMillis);
+    }
+
+    private void place(Node<K> node, long earliestTick) {
+        long tick = Math.max(node.deadlineTick, earliestTick);
+        long delta = tick - this.currentTick;
+
+        for (int level = 0; level < this.levels; level++) {
+            if (delta < 1L << (this.slotBits * (level + 1))) {
+                node.link(this.slots[level][slotOf(tick, level)]);
+                return;
+            }
+        }
+
+        long parked = this.currentTick + (1L << (this.slotBits * this.levels)) - 1;
+        node.link(this.slots[this.levels - 1][slotOf(parked, this.levels - 1)]);
+    }
+
+    private int slotOf(long tick, int level) {
+        return (int) ((tick >>> (this.slotBits * level)) & this.slotMask);
+    }
+
+    // a level comes up whenever all levels below it complete a turn
+    private void cascade() {
+        for (int level = 1; level < this.levels; level++) {
+            if (slotOf(this.currentTick, level - 1) != 0)
+                return;
+
+            Node<K> head = this.slots[level][slotOf(this.currentTick, level)];
+            if (head.next == head)
+                continue;
+
+            Node<K> moved = head.next;
+            head.prev.next = null;
+            head.prev = head;
+            head.next = head;
+
+            while (moved != null) {
+                Node<K> next = moved.next;
+                moved.prev = moved;
+                moved.next = moved;
+                place(moved, this.currentTick);
+                moved = next;
+            }
+        }
+    }
+
+    // ========================== //
+
+    /**
+     * Sets the deadline of the key, replacing any earlier one.
+     * 
+     * @param key the key
+     * @param deadlineMillis the time to fire at, a past one fires on the next
+     * advance
+     */
+    public void schedule(K key, long deadlineMillis) {
+        Node<K> node = this.nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            this.nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+
+        node.deadlineTick = toTick(deadlineMillis);
+        place(node, this.currentTick + 1);
+    }
+
+    public boolean cancel(K key) {
+        Node<K> node = this.nodes.remove(key);
+        if (node == null)
+            return false;
+
+        node.unlink();
+        return true;
+    }
+
+    public OptionalLong deadlineOf(K key) {
+        Node<K> node = this.nodes.get(key);
+        return node == null ? OptionalLong.empty() : OptionalLong.of(node.deadlineTick * this.tickMillis);
+    }
+
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Moves the wheel up to the given time and removes every key whose
+     * deadline has passed.
+     * 
+     * @param nowMillis the current time, an earlier one is a no-op
+     * @param expired receives the removed keys tick by tick, must not change
+     * the wheel
+     */
+    public void advance(long nowMillis, Consumer<K> expired) {
+        long targetTick = Math.floorDiv(nowMillis, this.tickMillis);
+
+        while (this.currentTick < targetTick) {
+            this.currentTick++;
+            cascade();
+
+            Node<K> head = this.slots[0][slotOf(this.currentTick, 0)];
+            while (head.next != head) {
+                Node<K> node = head.next;
+                node.unlink();
+
+                // a parked deadline of a single level wheel
+                if (node.deadlineTick > this.currentTick) {
+                    place(node, this.currentTick + 1);
+                    continue;
+                }
+
+                this.nodes.remove(node.key);
+                expired.accept(node.key);
+            }
+        }
+    }
+
+}
@@ -53,10 +53,6 @@ public final class LogTemplates {
             throw new UnsupportedOperationException("LogTemplates.EntityService.java - <util> class");
         }
 
-        public static String checkBase64StartLog(String encryptedName) {
-            return checkStartLog(encryptedName + " Base64");
-        }
-
         public static String checkPermissionStartLog(String operationName) {
             return checkStartLog(operationName + " permission");
         }
@@ -0,0 +1,93 @@
+package com.ska.util;
+
+
+import java.util.UUID;
+
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.util.constant.SyncConstants;
+
+
+/**
+ * Util class for the per-owner syncable hash tree.
+ * 
+ * A node is identified by a lowercase hex prefix of the syncable UUID, up to
+ * {@link SyncConstants.Merkle#DEPTH} digits, the empty prefix being the root.
+ * Its digest is the XOR of the leaf digests of every syncable under it, so a
+ * change updates each level by XOR-ing the old leaf out and the new one in,
+ * in any order. Clients compute leaves the same way:
+ * 
+ * leaf = mix(msb ^ mix(lsb ^ mix(changeSeq + 0x9E3779B97F4A7C15))), with mix
+ * the SplitMix64 finalizer and msb/lsb the two halves of the UUID.
+ * 
+ * The change sequence never repeats within an owner, unlike the version that
+ * starts over when a syncable is deleted and created again, so a re-created
+ * syncable never matches a replica that still holds its old incarnation.
+ * 
+ * @see BusinessRuleViolationException - thrown if a prefix is malformed
+ */
+public final class MerkleDigest {
+
+    private static final long CHANGE_SEQ_SEED = 0x9E3779B97F4A7C15L;
+    private static final int HEX_DIGITS = 32;
+
+    private MerkleDigest() {
+        throw new UnsupportedOperationException("MerkleDigest.java - <util> class");
+    }
+
+    // =========== Helper methods ========== //
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static UUID pad(String prefix, char digit) {
+        String hex = prefix + String.valueOf(digit).repeat(HEX_DIGITS - prefix.length());
+        return new UUID(
+                Long.parseUnsignedLong(hex.substring(0, HEX_DIGITS / 2), 16),
+                Long.parseUnsignedLong(hex.substring(HEX_DIGITS / 2), 16));
+    }
+
+    // ===================================== //
+
+    public static long leaf(UUID uuid, long changeSeq) {
+        return mix(uuid.getMostSignificantBits()
+                ^ mix(uuid.getLeastSignificantBits() ^ mix(changeSeq + CHANGE_SEQ_SEED)));
+    }
+
+    // the first 8 characters of the canonical form hold no dash
+    public static String prefix(UUID uuid, int length) {
+        return uuid.toString().substring(0, length);
+    }
+
+    /**
+     * Validates a node prefix received from a client.
+     * 
+     * @param prefix the prefix, empty for the root
+     * @return the prefix in lowercase
+     * @throws BusinessRuleViolationException if it is longer than the tree
+     * or not hex
+     */
+    public static String validatePrefix(String prefix) {
+        if (prefix == null || prefix.length() > SyncConstants.Merkle.DEPTH)
+            throw new BusinessRuleViolationException(SyncConstants.Merkle.INVALID_PREFIX_MESSAGE);
+
+        String normalized = prefix.toLowerCase();
+        for (int i = 0; i < normalized.length(); i++)
+            if (Character.digit(normalized.charAt(i), 16) < 0)
+                throw new BusinessRuleViolationException(SyncConstants.Merkle.INVALID_PREFIX_MESSAGE);
+
+        return normalized;
+    }
+
+    // UUIDs compare as unsigned 128-bit numbers, so a prefix spans one contiguous range
+    public static UUID lowerBound(String prefix) {
+        return pad(prefix, '0');
+    }
+
+    public static UUID upperBound(String prefix) {
+        return pad(prefix, 'f');
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.ska.util;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+
+/**
+ * Writes values as newline delimited JSON (one value per line).
+ * 
+ * First line is flushed immediately so client gets bytes before the whole
+ * result is produced, next lines are flushed in groups of {@code flushEvery}.
+ * Does not close the underlying stream.
+ */
+public final class NdjsonWriter implements Closeable {
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+    private final int flushEvery;
+
+    private long written;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream, int flushEvery) throws IOException {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.flushEvery = flushEvery;
+    }
+
+    public void write(Object value) {
+        try {
+            this.objectWriter.writeValue(this.generator, value);
+            this.generator.writeRaw('\n');
+
+            this.written++;
+            if (this.written == 1 || this.written % this.flushEvery == 0)
+                this.generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getWritten() {
+        return this.written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.generator.close();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.ska.util;
+
+
+import java.util.Optional;
+import java.util.UUID;
+
+
+/**
+ * Util class holding the device the current request came from.
+ * 
+ * Set per request from the device header, so a change is not queued back to
+ * the device that made it.
+ */
+public final class OriginDevice {
+
+    private static final ThreadLocal<UUID> CURRENT = new ThreadLocal<>();
+
+    private OriginDevice() {
+        throw new UnsupportedOperationException("OriginDevice.java - <util> class");
+    }
+
+    public static void set(UUID deviceUuid) {
+        CURRENT.set(deviceUuid);
+    }
+
+    public static Optional<UUID> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+}
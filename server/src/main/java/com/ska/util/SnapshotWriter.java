@@ -0,0 +1,94 @@
+package com.ska.util;
+
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import com.ska.util.constant.SyncConstants;
+
+
+/**
+ * Writes a bootstrap snapshot of syncables as a length-prefixed binary file.
+ * 
+ * All numbers are big-endian:
+ * 
+ * <pre>
+ * header: magic (int), format version (short), change seq (long), count (int)
+ * record: uuid (2 longs), version (long), change seq (long),
+ *         metadata length (int), metadata, content length (int), content
+ * </pre>
+ * 
+ * The count is patched into the header by {@link #finish()}, so a file that
+ * was not finished cannot pass for a complete snapshot of zero syncables.
+ */
+public final class SnapshotWriter implements Closeable {
+
+    // magic + format version + change seq
+    static final long COUNT_OFFSET = Integer.BYTES + Short.BYTES + Long.BYTES;
+
+    private final FileChannel channel;
+    private final DataOutputStream output;
+
+    private int written;
+
+    public SnapshotWriter(Path path, long changeSeq) throws IOException {
+        this.channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.output = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(this.channel),
+                SyncConstants.Snapshot.WRITE_BUFFER_SIZE));
+
+        this.output.writeInt(SyncConstants.Snapshot.MAGIC);
+        this.output.writeShort(SyncConstants.Snapshot.FORMAT_VERSION);
+        this.output.writeLong(changeSeq);
+        this.output.writeInt(0);
+    }
+
+    public void write(UUID uuid, long version, long changeSeq, byte[] metadata, byte[] content) throws IOException {
+        this.output.writeLong(uuid.getMostSignificantBits());
+        this.output.writeLong(uuid.getLeastSignificantBits());
+        this.output.writeLong(version);
+        this.output.writeLong(changeSeq);
+
+        this.output.writeInt(metadata.length);
+        this.output.write(metadata);
+        this.output.writeInt(content.length);
+        this.output.write(content);
+
+        this.written++;
+    }
+
+    /**
+     * Patches the record count into the header and forces the file to disk.
+     * 
+     * @return the number of written records
+     */
+    public int finish() throws IOException {
+        this.output.flush();
+        this.channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, this.written), COUNT_OFFSET);
+        this.channel.force(false);
+
+        return this.written;
+    }
+
+    public int getWritten() {
+        return this.written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.output.close();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.ska.util.constant;
+
+
+import java.time.Duration;
+
+
+public final class CacheConstants {
+
+    // must match spring.cache.cache-names
+    public static final String USERS = "users";
+    public static final String DEVICES = "devices";
+
+    private CacheConstants() {
+        throw new UnsupportedOperationException("CacheConstants.java - <util> class");
+    }
+
+    public static class Payload {
+
+        public static final String NAME = "syncable.payload.cache";
+
+        public static final long METADATA_BYTES_MAX = 16L * 1024 * 1024;
+        public static final long CONTENT_BYTES_MAX = 256L * 1024 * 1024;
+
+        // approximate per-entry bookkeeping, so tiny payloads still count
+        public static final int ENTRY_OVERHEAD = 64;
+
+    }
+
+    public static class DeviceIndex {
+
+        public static final String NAME = "device.index";
+
+        // weighed in devices, an owner without devices still counts as one
+        public static final long DEVICES_MAX = 200_000L;
+        public static final Duration EXPIRE_AFTER_ACCESS = Duration.ofMinutes(30);
+
+    }
+
+}
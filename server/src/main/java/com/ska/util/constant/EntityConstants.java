@@ -6,6 +6,9 @@ public final class EntityConstants {
     public static final String NULL_MESSAGE = "Entity is <null>";
     public static final String UUID_NULL_MESSAGE = "Entity UUID us <null>";
 
+    public static final String DATA_BLANK_MESSAGE = "Data is <blank>";
+    public static final String DATA_NOT_BASE64_MESSAGE = "Data is not <Base64>";
+
     private EntityConstants() {
         throw new UnsupportedOperationException("EntityConstants.java - <util> class");
     }
@@ -13,14 +16,12 @@ public final class EntityConstants {
     public static class Metadata {
 
         public static final int ENCRYPTED_DATA_SIZE_MAX = 512;
-        public static final int BASE64_SIZE_MAX = 700; // depends of MAX_ENCRYPTED_DATA_SIZE (formula:
-                                                       // ceil(MAX_ENCRYPTED_DATA_SIZE / 3) * 4)
 
         public static final String NULL_MESSAGE = "EncryptedMetadata to set is <null>";
 
         public static final String DTO_REQUIRED_MESSAGE = "Base64 string of encrypted metadata is required";
-        public static final String DTO_INVALID_BASE64_LENGTH_MESSAGE = "Base64 string of encrypted metadata is longer than " +
-                BASE64_SIZE_MAX;
+        public static final String DTO_INVALID_SIZE_MESSAGE = "Encrypted metadata is larger than " +
+                ENCRYPTED_DATA_SIZE_MAX + " bytes";
 
         private static final String DOMAIN_TEMPLATE_INVALID_DATA_SIZE_MESSAGE = "EncryptedMetadata value cannot be larger than %d (actual size=%d)";
 
@@ -33,14 +34,12 @@ public final class EntityConstants {
     public static class Content {
 
         public static final int ENCRYPTED_DATA_SIZE_MAX = 65536;
-        public static final int BASE64_SIZE_MAX = 88000; // depends of MAX_ENCRYPTED_DATA_SIZE (formula:
-                                                         // ceil(MAX_ENCRYPTED_DATA_SIZE / 3) * 4)
 
         public static final String NULL_MESSAGE = "EncryptedContent to set is <null>";
 
         public static final String DTO_REQUIRED_MESSAGE = "Base64 encrypted content required";
-        public static final String DTO_INVALID_BASE64_LENGTH_MESSAGE = "Base64 string of encrypted content is longer than " +
-                BASE64_SIZE_MAX;
+        public static final String DTO_INVALID_SIZE_MESSAGE = "Encrypted content is larger than " +
+                ENCRYPTED_DATA_SIZE_MAX + " bytes";
 
         private static final String DOMAIN_TEMPLATE_INVALID_DATA_SIZE_MESSAGE = "EncryptedContent value cannot be larger than %d (actual size=%d)";
 
@@ -50,4 +49,42 @@ public final class EntityConstants {
 
     }
 
+    public static class Page {
+
+        public static final int SIZE_DEFAULT = 50;
+        public static final int SIZE_MAX = 200;
+
+        public static final String NULL_MESSAGE = "Page is <null>";
+        public static final String INVALID_SIZE_MESSAGE = "Page size must be between 1 and " + SIZE_MAX;
+
+    }
+
+    public static class Export {
+
+        public static final String FETCH_SIZE = "256";
+        public static final int FLUSH_EVERY = 64;
+
+    }
+
+    public static class Changes {
+
+        public static final String NULL_MESSAGE = "Change set is <null>";
+        public static final String INVALID_WATERMARK_MESSAGE = "Watermark is less than 0";
+        public static final String WATERMARK_EXPIRED_TEMPLATE =
+                "Deletes up to change %d are purged, bootstrap from a snapshot or pull since 0";
+
+    }
+
+    public static class Batch {
+
+        public static final int SIZE_MAX = 1000;
+        // bind parameters per IN list, keeps statements plan-cache friendly
+        public static final int CHUNK_SIZE = 100;
+
+        public static final String ITEM_NULL_MESSAGE = "Batch item is <null>";
+        public static final String DTO_REQUIRED_MESSAGE = "UUID list is required";
+        public static final String INVALID_SIZE_MESSAGE = "UUID list size must be between 1 and " + SIZE_MAX;
+
+    }
+
 }
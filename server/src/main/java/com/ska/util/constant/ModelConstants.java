@@ -0,0 +1,25 @@
+package com.ska.util.constant;
+
+
+public final class ModelConstants {
+
+    public static final String MODEL_ID_GENERATOR = "model_id_generator";
+    public static final String MODEL_ID_SEQUENCE = "model_id_seq";
+
+    public static final String CLIENT_MODEL_ID_GENERATOR = "client_model_id_generator";
+    public static final String CLIENT_MODEL_ID_SEQUENCE = "client_model_id_seq";
+
+    public static final String SYNC_QUEUE_ID_GENERATOR = "sync_queue_id_generator";
+    public static final String SYNC_QUEUE_ID_SEQUENCE = "sync_queue_id_seq";
+
+    // one value per nextval() of a queue upsert, see SyncQueueJdbcRepository
+    public static final int SYNC_QUEUE_ID_ALLOCATION_SIZE = 1;
+
+    // must match hibernate.jdbc.batch_size, so one sequence call covers one batch
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    private ModelConstants() {
+        throw new UnsupportedOperationException("ModelConstants.java - <util> class");
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.ska.util.constant;
+
+
+import java.time.Duration;
+
+
+public final class SyncConstants {
+
+    public static final String DEVICE_ID_HEADER = "X-Device-Id";
+    public static final String INVALID_DEVICE_ID_MESSAGE = DEVICE_ID_HEADER + " is not a valid UUID";
+
+    private SyncConstants() {
+        throw new UnsupportedOperationException("SyncConstants.java - <util> class");
+    }
+
+    public static class Queue {
+
+        private Queue() {
+            throw new UnsupportedOperationException("SyncConstants.Queue.java - <util> class");
+        }
+
+        // rows per JDBC batch, rewritten by the driver into one multi-row INSERT
+        public static final int BATCH_SIZE = 1000;
+
+        public static final int CLAIM_SIZE_DEFAULT = 100;
+        public static final int CLAIM_SIZE_MAX = 500;
+        public static final Duration LEASE_DURATION = Duration.ofSeconds(60);
+
+        // bind parameters per acknowledged DELETE
+        public static final int ACK_CHUNK_SIZE = 100;
+        public static final int ACK_SIZE_MAX = CLAIM_SIZE_MAX;
+
+        public static final String INVALID_CLAIM_SIZE_MESSAGE = "Claim size must be between 1 and " + CLAIM_SIZE_MAX;
+        public static final String CLAIM_TOKEN_REQUIRED_MESSAGE = "Claim token is required";
+        public static final String ACK_REQUIRED_MESSAGE = "Item ID list is required";
+        public static final String INVALID_ACK_SIZE_MESSAGE = "Item ID list size must be between 1 and " + ACK_SIZE_MAX;
+        public static final String ITEM_ID_NULL_MESSAGE = "Item ID is <null>";
+
+        // write-behind window, repeated changes of one pair within it cost one row write
+        public static final long FLUSH_INTERVAL_MS = 1_000L;
+        public static final int BUFFER_STRIPES = 16;
+        // pending pairs that trigger an early flush on the flusher thread
+        public static final int BUFFER_PAIRS_MAX = 50_000;
+
+        public static final String BUFFER_METRIC_NAME = "sync.queue.buffer";
+
+        // longest a live instance goes without touching its pending markers, well above the flush interval
+        public static final Duration PENDING_STALE_AFTER = Duration.ofMinutes(5);
+        public static final long RECOVERY_INTERVAL_MS = 60_000L;
+
+    }
+
+    public static class Watermark {
+
+        private Watermark() {
+            throw new UnsupportedOperationException("SyncConstants.Watermark.java - <util> class");
+        }
+
+        // queue rows of one device before it is moved to the change log
+        public static final long BACKLOG_MAX = 1_000L;
+        // changes a WATERMARK device may lag behind its owner to be moved back to the queue
+        public static final long PROMOTION_LAG_MAX = 100L;
+
+        public static final long REBALANCE_INTERVAL_MS = 60_000L;
+
+        // queue rows of WATERMARK devices deleted per transaction
+        public static final int COMPACTION_BATCH_SIZE = 1_000;
+        public static final long COMPACTION_INTERVAL_MS = 60_000L;
+
+        // tombstones deleted per transaction once no device or replay reads them any more
+        public static final int PURGE_BATCH_SIZE = 1_000;
+        public static final long PURGE_INTERVAL_MS = 10 * 60_000L;
+
+        public static final String CHANGE_SEQ_REQUIRED_MESSAGE = "Change sequence is required";
+        public static final String INVALID_CHANGE_SEQ_MESSAGE =
+                "Change sequence must be between 0 and the latest change";
+
+    }
+
+    public static class Presence {
+
+        private Presence() {
+            throw new UnsupportedOperationException("SyncConstants.Presence.java - <util> class");
+        }
+
+        // a QUEUE device unseen this long is moved to the change log
+        public static final String DORMANT_AFTER_PROPERTY = "ska.sync.dormant-after";
+        public static final String DORMANT_AFTER_DEFAULT = "30d";
+
+        // 64 slots of 1 s per level, 4 levels cover about 194 days
+        public static final long TICK_MS = 1_000L;
+        public static final int SLOT_BITS = 6;
+        public static final int LEVELS = 4;
+
+        // heartbeats closer than this to the last one move no deadline and write nothing
+        public static final long RESOLUTION_MS = 5 * 60_000L;
+        public static final long SWEEP_INTERVAL_MS = 10_000L;
+        public static final int LAST_SEEN_CHUNK_SIZE = 500;
+
+    }
+
+    public static class Merkle {
+
+        private Merkle() {
+            throw new UnsupportedOperationException("SyncConstants.Merkle.java - <util> class");
+        }
+
+        // 4096 leaf buckets, about a dozen syncables each at 50k syncables
+        public static final int DEPTH = 3;
+        public static final int PREFIXES_MAX = 16;
+
+        public static final String INVALID_PREFIX_MESSAGE = "Prefix must be up to " + DEPTH + " hex digits";
+        public static final String INVALID_PREFIX_COUNT_MESSAGE = "Prefix list size must be between 1 and "
+                + PREFIXES_MAX;
+
+    }
+
+    public static class Push {
+
+        private Push() {
+            throw new UnsupportedOperationException("SyncConstants.Push.java - <util> class");
+        }
+
+        public static final String METRIC_NAME = "sync.push.connections";
+
+        public static final String EVENT_CHANGES = "changes";
+        public static final String EVENT_RESYNC = "resync";
+
+        // clients reconnect after the timeout, which also reaps silently dropped connections
+        public static final long CONNECTION_TIMEOUT_MS = 30L * 60 * 1000;
+        // below common proxy idle timeouts
+        public static final long HEARTBEAT_INTERVAL_MS = 15_000L;
+
+        // UUIDs buffered per connection before it collapses to a single resync event
+        public static final int PENDING_MAX = 256;
+
+    }
+
+    public static class Socket {
+
+        private Socket() {
+            throw new UnsupportedOperationException("SyncConstants.Socket.java - <util> class");
+        }
+
+        public static final String PATH = "/ws/sync/{userId}/devices/{deviceUuid}";
+
+        public static final String USER_ID_ATTRIBUTE = "sync.userId";
+        public static final String DEVICE_UUID_ATTRIBUTE = "sync.deviceUuid";
+
+        // about 15 pushes of maximum size entities, a full batch of those would take ~16 MiB,
+        // so clients split large batches by bytes as well as by ops
+        public static final int FRAME_BYTES_MAX = 1024 * 1024;
+        public static final int OPS_PER_FRAME_MAX = 256;
+
+        // a client that does not read its replies is disconnected instead of buffered for
+        public static final int SEND_TIME_LIMIT_MS = 10_000;
+        public static final int SEND_BUFFER_BYTES_MAX = 4 * FRAME_BYTES_MAX;
+
+        public static final String MALFORMED_FRAME_MESSAGE = "Malformed sync frame";
+        public static final String TOO_MANY_OPS_MESSAGE = "Sync frame carries more than " + OPS_PER_FRAME_MAX + " ops";
+        public static final String CHANGE_LOG_MESSAGE = "Device pulls the change log after change ";
+        public static final String REPLY_TOO_LARGE_MESSAGE = "Reply does not fit into a single frame";
+        public static final String UNEXPECTED_ERROR_MESSAGE = "An unexpected error occurred";
+
+    }
+
+    public static class Notify {
+
+        private Notify() {
+            throw new UnsupportedOperationException("SyncConstants.Notify.java - <util> class");
+        }
+
+        public static final String BUS_PROPERTY = "ska.sync.notification-bus";
+        public static final String BUS_IN_PROCESS = "in-process";
+        public static final String BUS_POSTGRES = "postgres";
+
+        public static final String CHANNEL = "sync_changes";
+        public static final String DEVICES_CHANNEL = "device_changes";
+
+        // NOTIFY payloads are capped at 8000 bytes, a UUID takes 37 of them
+        public static final int PAYLOAD_UUIDS_MAX = 200;
+
+        // how often the listener wakes up to check for shutdown
+        public static final int POLL_TIMEOUT_MS = 1_000;
+        public static final long RECONNECT_DELAY_MS = 5_000L;
+
+    }
+
+    public static class Snapshot {
+
+        private Snapshot() {
+            throw new UnsupportedOperationException("SyncConstants.Snapshot.java - <util> class");
+        }
+
+        // defaults to ska-snapshots under java.io.tmpdir
+        public static final String DIRECTORY_PROPERTY = "ska.sync.snapshot-directory";
+        public static final String DIRECTORY_DEFAULT = "ska-snapshots";
+
+        public static final String FILE_SUFFIX = ".snap";
+        public static final String TEMP_FILE_SUFFIX = ".tmp";
+
+        // "SKAS"
+        public static final int MAGIC = 0x534B4153;
+        public static final short FORMAT_VERSION = 1;
+
+        public static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+        // superseded snapshots are kept this long after the last hand-out, so downloads in flight can finish
+        public static final long RETENTION_MS = 10 * 60 * 1_000L;
+        // current snapshots not handed out for a retention period are swept too and rebuilt on demand
+        public static final long SWEEP_INTERVAL_MS = 5 * 60 * 1_000L;
+
+        // request attributes of the Tomcat sendfile support
+        public static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+        public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+        public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+        public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.ska.benchmark;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.Device;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncQueueItem;
+import com.ska.model.syncable.Syncable;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.util.constant.ModelConstants;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Inserts per second for bulk vault upload and sync queue fan-out.
+ * 
+ * "unbatched" flushes every row on its own with JDBC batch size 1, the way
+ * inserts were executed with IDENTITY ids. "batched" uses the configured
+ * pooled sequence and hibernate.jdbc.batch_size. Sync queue rows draw one
+ * value of their unpooled sequence each, as the fan-out SQL does.
+ * 
+ * Run with: mvn test -P benchmark
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkInsertBenchmarkTest {
+
+    private static final int WARM_UP_ROWS = 500;
+    private static final int VAULT_SIZE = 5_000;
+    private static final int DEVICE_COUNT = 10;
+    private static final int FAN_OUT_ENTITIES = 500;
+
+    private static final byte[] METADATA = new byte[256];
+    private static final byte[] CONTENT = new byte[1024];
+    private static final String HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void createOwner() {
+        ownerId = transactionTemplate.execute(status -> {
+            User owner = new User(
+                    new Email("bench-" + UUID.randomUUID() + "@example.com"),
+                    new Password(HASHED_PASSWORD));
+            entityManager.persist(owner);
+            return owner.getId();
+        });
+    }
+
+    @Test
+    void bulkVaultUpload() {
+        Scenario warmUp = (session, batched) -> upload(session, batched, WARM_UP_ROWS);
+        run("Vault upload warm-up", WARM_UP_ROWS, false, warmUp);
+        run("Vault upload warm-up", WARM_UP_ROWS, true, warmUp);
+
+        Scenario vaultUpload = (session, batched) -> upload(session, batched, VAULT_SIZE);
+        double unbatchedRate = run("Vault upload", VAULT_SIZE, false, vaultUpload);
+        double batchedRate = run("Vault upload", VAULT_SIZE, true, vaultUpload);
+
+        log.info("Vault upload speed-up: x{}", String.format("%.2f", batchedRate / unbatchedRate));
+    }
+
+    @Test
+    void syncQueueFanOut() {
+        List<Long> deviceIds = transactionTemplate.execute(status -> createDevices());
+        List<UUID> entityUuids = transactionTemplate.execute(status -> createEntities(FAN_OUT_ENTITIES));
+        int rows = DEVICE_COUNT * FAN_OUT_ENTITIES;
+
+        Scenario queueFanOut = (session, batched) -> fanOut(session, batched, deviceIds, entityUuids);
+        double unbatchedRate = run("Sync queue fan-out", rows, false, queueFanOut);
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM SyncQueueItem")
+                .executeUpdate());
+        double batchedRate = run("Sync queue fan-out", rows, true, queueFanOut);
+
+        log.info("Sync queue fan-out speed-up: x{}", String.format("%.2f", batchedRate / unbatchedRate));
+    }
+
+    // === Helper-methods === //
+
+    @FunctionalInterface
+    private interface Scenario {
+
+        void execute(Session session, boolean batched);
+
+    }
+
+    private double run(String scenario, int rows, boolean batched, Scenario work) {
+        long start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            if (!batched)
+                session.setJdbcBatchSize(1);
+
+            work.execute(session, batched);
+            session.flush();
+            session.clear();
+        });
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rowsPerSecond = rows / seconds;
+
+        log.info(
+                "{} ({}): {} rows in {} ms, {} inserts/s",
+                scenario,
+                batched ? "batched" : "unbatched",
+                rows,
+                Math.round(seconds * 1000),
+                Math.round(rowsPerSecond));
+        return rowsPerSecond;
+    }
+
+    private void upload(Session session, boolean batched, int rows) {
+        for (int i = 0; i < rows; i++) {
+            User owner = session.getReference(User.class, ownerId);
+            session.persist(new Syncable(
+                    owner,
+                    UUID.randomUUID(),
+                    new EncryptedMetadata(METADATA.clone()),
+                    new EncryptedContent(CONTENT.clone())));
+
+            flushIfNeeded(session, batched, i);
+        }
+    }
+
+    private void fanOut(Session session, boolean batched, List<Long> deviceIds, List<UUID> entityUuids) {
+        int i = 0;
+
+        for (UUID entityUuid : entityUuids) {
+            for (Long deviceId : deviceIds) {
+                session.persist(new SyncQueueItem(
+                        session.getReference(Device.class, deviceId),
+                        entityUuid,
+                        QueueAction.SYNC_FULL,
+                        1L));
+
+                flushIfNeeded(session, batched, i++);
+            }
+        }
+    }
+
+    private void flushIfNeeded(Session session, boolean batched, int index) {
+        if (!batched || (index + 1) % ModelConstants.ID_ALLOCATION_SIZE == 0) {
+            session.flush();
+            session.clear();
+        }
+    }
+
+    private List<Long> createDevices() {
+        User owner = entityManager.getReference(User.class, ownerId);
+        List<Long> deviceIds = new ArrayList<>();
+
+        for (int i = 0; i < DEVICE_COUNT; i++) {
+            Device device = new Device(owner, UUID.randomUUID());
+            entityManager.persist(device);
+            deviceIds.add(device.getId());
+        }
+        return deviceIds;
+    }
+
+    private List<UUID> createEntities(int count) {
+        User owner = entityManager.getReference(User.class, ownerId);
+        List<UUID> entityUuids = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Syncable entity = new Syncable(
+                    owner,
+                    UUID.randomUUID(),
+                    new EncryptedMetadata(METADATA.clone()),
+                    new EncryptedContent(CONTENT.clone()));
+            entityManager.persist(entity);
+            entityUuids.add(entity.getUuid());
+        }
+        return entityUuids;
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.ska.benchmark;
+
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ska.dto.entity.response.EntityMetadataPageResponse;
+import com.ska.dto.entity.response.EntityPageResponse;
+import com.ska.model.syncable.Syncable;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.service.contract.EntityService;
+import com.ska.util.constant.EntityConstants;
+import com.ska.util.constant.ModelConstants;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Time and response bytes of listing a 10k-entity vault.
+ * 
+ * "full" pages through getAll, which hydrates encrypted content. "metadata"
+ * pages through the metadata projection used by {@code ?fields=metadata}.
+ * 
+ * Run with: mvn test -P benchmark
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MetadataListingBenchmarkTest {
+
+    private static final int VAULT_SIZE = 10_000;
+    private static final int ROUNDS = 3;
+
+    private static final byte[] METADATA = new byte[EntityConstants.Metadata.ENCRYPTED_DATA_SIZE_MAX];
+    private static final byte[] CONTENT = new byte[8 * 1024];
+    private static final String HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long ownerId;
+
+    @BeforeAll
+    void createVault() {
+        ownerId = transactionTemplate.execute(status -> {
+            User owner = new User(
+                    new Email("bench-" + UUID.randomUUID() + "@example.com"),
+                    new Password(HASHED_PASSWORD));
+            entityManager.persist(owner);
+            return owner.getId();
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < VAULT_SIZE; i++) {
+                entityManager.persist(new Syncable(
+                        entityManager.getReference(User.class, ownerId),
+                        UUID.randomUUID(),
+                        new EncryptedMetadata(METADATA.clone()),
+                        new EncryptedContent(CONTENT.clone())));
+
+                if ((i + 1) % ModelConstants.ID_ALLOCATION_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+
+    @Test
+    void listVault() {
+        Function<String, Page> full = cursor -> {
+            EntityPageResponse page = EntityPageResponse.of(
+                    entityService.getAll(ownerId, cursor, EntityConstants.Page.SIZE_MAX));
+            return new Page(serializedSize(page), page.nextCursor());
+        };
+        Function<String, Page> metadata = cursor -> {
+            EntityMetadataPageResponse page = EntityMetadataPageResponse.of(
+                    entityService.getAllMetadata(ownerId, cursor, EntityConstants.Page.SIZE_MAX));
+            return new Page(serializedSize(page), page.nextCursor());
+        };
+
+        run("full", full);
+        run("metadata", metadata);
+
+        long fullBytes = 0;
+        long metadataBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            fullBytes = run("full", full);
+            metadataBytes = run("metadata", metadata);
+        }
+
+        log.info("Metadata listing moves {}% of full listing bytes",
+                String.format("%.2f", 100.0 * metadataBytes / fullBytes));
+    }
+
+    // === Helper-methods === //
+
+    private record Page(long bytes, String nextCursor) {
+    }
+
+    private long run(String mode, Function<String, Page> fetch) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        int pages = 0;
+
+        String cursor = null;
+        do {
+            Page page = fetch.apply(cursor);
+            bytes += page.bytes();
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        log.info(
+                "Listing ({}): {} pages, {} KB in {} ms",
+                mode,
+                pages,
+                bytes / 1024,
+                Math.round((System.nanoTime() - start) / 1_000_000.0));
+        return bytes;
+    }
+
+    private long serializedSize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.ska.controller;
+
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ska.controller.advice.GlobalExceptionHandler;
+import com.ska.exception.PreconditionFailedException;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.repository.projection.SyncableMetadataView;
+import com.ska.service.contract.EntityService;
+import com.ska.service.contract.MerkleTreeService;
+import com.ska.service.contract.SnapshotService;
+import com.ska.service.result.SyncableRevision;
+
+
+class EntityControllerTest {
+
+    private static final Long TEST_USER_ID = 1L;
+    private static final UUID TEST_UUID = UUID.randomUUID();
+    private static final String METADATA_URL = "/api/entities/{userId}/{uuid}/metadata";
+    private static final byte[] TEST_METADATA = { 1, 2, 3 };
+
+    private EntityService entityService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        entityService = mock(EntityService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new EntityController(
+                entityService,
+                mock(MerkleTreeService.class),
+                mock(SnapshotService.class),
+                new ObjectMapper()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    // === Helper-methods === //
+
+    private void givenCurrent(long version, long changeSeq) {
+        when(entityService.getChangeSeq(TEST_USER_ID, TEST_UUID)).thenReturn(changeSeq);
+        when(entityService.getMetadataByUuid(TEST_USER_ID, TEST_UUID)).thenReturn(new SyncableMetadataView(
+                10L,
+                TEST_USER_ID,
+                TEST_UUID,
+                version,
+                changeSeq,
+                new EncryptedMetadata(TEST_METADATA)));
+    }
+
+    @Test
+    public void shouldReturn304_whenIfNoneMatchHoldsCurrentChangeSeq() throws Exception {
+        givenCurrent(3L, 42L);
+
+        mockMvc.perform(get(METADATA_URL, TEST_USER_ID, TEST_UUID).header(HttpHeaders.IF_NONE_MATCH, "\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"42\""));
+
+        verify(entityService, never()).getMetadataByUuid(any(), any());
+    }
+
+    // same version, but the syncable was deleted and re-created since the tag was issued
+    @Test
+    public void shouldReturn200_whenIfNoneMatchHoldsTagOfRecreatedSyncable() throws Exception {
+        givenCurrent(3L, 57L);
+
+        mockMvc.perform(get(METADATA_URL, TEST_USER_ID, TEST_UUID).header(HttpHeaders.IF_NONE_MATCH, "\"42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"57\""))
+                .andExpect(content().bytes(TEST_METADATA));
+    }
+
+    @Test
+    public void shouldPassIfMatchAsExpectedChangeSeq_andReturnNewTag() throws Exception {
+        when(entityService.updateMetadata(eq(TEST_USER_ID), eq(TEST_UUID), any(byte[].class), isNull(), eq(42L)))
+                .thenReturn(new SyncableRevision(4L, 43L));
+
+        mockMvc.perform(put(METADATA_URL, TEST_USER_ID, TEST_UUID)
+                .header(HttpHeaders.IF_MATCH, "\"42\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(TEST_METADATA))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"43\""));
+    }
+
+    @Test
+    public void shouldReturn412_whenIfMatchIsStale() throws Exception {
+        when(entityService.updateMetadata(eq(TEST_USER_ID), eq(TEST_UUID), any(byte[].class), isNull(), eq(42L)))
+                .thenThrow(new PreconditionFailedException("Syncable change sequence is 57, expected 42"));
+
+        mockMvc.perform(put(METADATA_URL, TEST_USER_ID, TEST_UUID)
+                .header(HttpHeaders.IF_MATCH, "\"42\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(TEST_METADATA))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void shouldReturn400_whenIfMatchIsWeak() throws Exception {
+        mockMvc.perform(put(METADATA_URL, TEST_USER_ID, TEST_UUID)
+                .header(HttpHeaders.IF_MATCH, "W/\"42\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(TEST_METADATA))
+                .andExpect(status().isBadRequest());
+
+        verify(entityService, never()).updateMetadata(any(), any(), any(byte[].class), any(), any());
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.ska.controller.ws;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.ska.exception.BusinessRuleViolationException;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.repository.projection.SyncQueueItemView;
+import com.ska.util.constant.SyncConstants;
+
+
+class SyncFrameCodecTest {
+
+    private static final UUID TEST_UUID = UUID.randomUUID();
+    private static final UUID TEST_CLAIM_TOKEN = UUID.randomUUID();
+    private static final byte[] TEST_METADATA = { 1, 2, 3 };
+    private static final byte[] TEST_CONTENT = { 4, 5, 6, 7 };
+
+    // === Helper-methods === //
+
+    private static void putUuid(ByteBuffer frame, UUID uuid) {
+        frame.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void putPush(ByteBuffer frame, int requestId, QueueAction action, int flags, byte[] metadata) {
+        frame.put(SyncFrameCodec.OP_PUSH).putInt(requestId);
+        putUuid(frame, TEST_UUID);
+        frame.put(SyncFrameCodec.actionCode(action)).put((byte) flags).putLong(7L);
+        frame.putShort((short) metadata.length).put(metadata);
+        frame.putInt(TEST_CONTENT.length).put(TEST_CONTENT);
+    }
+
+    @Test
+    public void shouldDecodePipelinedOpsInFrameOrder() {
+        ByteBuffer frame = ByteBuffer.allocate(512);
+        putPush(frame, 1, QueueAction.SYNC_FULL, SyncFrameCodec.FLAG_EXPECTED_CHANGE_SEQ, TEST_METADATA);
+        frame.put(SyncFrameCodec.OP_PULL).putInt(2);
+        putUuid(frame, TEST_UUID);
+        frame.put(SyncFrameCodec.OP_CLAIM).putInt(3).putShort((short) 50);
+        frame.put(SyncFrameCodec.OP_ACK).putInt(4);
+        putUuid(frame, TEST_CLAIM_TOKEN);
+        frame.putShort((short) 2).putLong(10L).putLong(11L);
+
+        List<SyncOp> ops = SyncFrameCodec.decode(frame.flip());
+
+        assertEquals(4, ops.size());
+
+        SyncOp.Push push = assertInstanceOf(SyncOp.Push.class, ops.get(0));
+        assertEquals(1, push.requestId());
+        assertEquals(TEST_UUID, push.uuid());
+        assertEquals(QueueAction.SYNC_FULL, push.action());
+        assertFalse(push.create());
+        assertEquals(7L, push.expectedChangeSeq());
+        assertArrayEquals(TEST_METADATA, push.metadata());
+        assertArrayEquals(TEST_CONTENT, push.content());
+
+        assertEquals(new SyncOp.Pull(2, TEST_UUID), ops.get(1));
+        assertEquals(new SyncOp.Claim(3, 50), ops.get(2));
+        assertEquals(new SyncOp.Ack(4, TEST_CLAIM_TOKEN, List.of(10L, 11L)), ops.get(3));
+    }
+
+    @Test
+    public void shouldDecodeCreateWithoutExpectedChangeSeq() {
+        ByteBuffer frame = ByteBuffer.allocate(128);
+        putPush(frame, 1, QueueAction.SYNC_FULL, SyncFrameCodec.FLAG_CREATE, TEST_METADATA);
+
+        SyncOp.Push push = (SyncOp.Push) SyncFrameCodec.decode(frame.flip()).get(0);
+
+        assertTrue(push.create());
+        assertNull(push.expectedChangeSeq());
+    }
+
+    @Test
+    public void shouldThrowBusinessRuleViolationException_whenTruncatedFrame() {
+        ByteBuffer frame = ByteBuffer.allocate(128);
+        putPush(frame, 1, QueueAction.SYNC_METADATA, 0, TEST_METADATA);
+        frame.flip().limit(frame.limit() - 1);
+
+        BusinessRuleViolationException exception = assertThrows(
+                BusinessRuleViolationException.class,
+                () -> SyncFrameCodec.decode(frame));
+        assertEquals(SyncConstants.Socket.MALFORMED_FRAME_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    public void shouldThrowBusinessRuleViolationException_whenOversizedMetadata() {
+        ByteBuffer frame = ByteBuffer.allocate(2048);
+        putPush(frame, 1, QueueAction.SYNC_METADATA, 0, new byte[1024]);
+
+        assertThrows(BusinessRuleViolationException.class, () -> SyncFrameCodec.decode(frame.flip()));
+    }
+
+    @Test
+    public void shouldThrowBusinessRuleViolationException_whenUnknownOpcode() {
+        ByteBuffer frame = ByteBuffer.allocate(8).put((byte) 0x7F).putInt(1);
+
+        assertThrows(BusinessRuleViolationException.class, () -> SyncFrameCodec.decode(frame.flip()));
+    }
+
+    @Test
+    public void shouldThrowBusinessRuleViolationException_whenTooManyOps() {
+        int ops = SyncConstants.Socket.OPS_PER_FRAME_MAX + 1;
+        ByteBuffer frame = ByteBuffer.allocate(ops * 7);
+        for (int i = 0; i < ops; i++)
+            frame.put(SyncFrameCodec.OP_CLAIM).putInt(i).putShort((short) 1);
+
+        BusinessRuleViolationException exception = assertThrows(
+                BusinessRuleViolationException.class,
+                () -> SyncFrameCodec.decode(frame.flip()));
+        assertEquals(SyncConstants.Socket.TOO_MANY_OPS_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    public void shouldEncodeRepliesInOpOrder() {
+        Instant leasedUntil = Instant.ofEpochMilli(1_000L);
+        List<SyncReply> replies = List.of(
+                new SyncReply.Done(1, 3L),
+                new SyncReply.Claimed(
+                        2,
+                        TEST_CLAIM_TOKEN,
+                        List.of(new SyncQueueItemView(9L, TEST_UUID, QueueAction.DELETE, leasedUntil))),
+                new SyncReply.Failed(3, 404, "missing"));
+
+        List<ByteBuffer> frames = SyncFrameCodec.encode(replies, SyncConstants.Socket.FRAME_BYTES_MAX);
+        assertEquals(1, frames.size());
+
+        ByteBuffer frame = frames.get(0);
+        assertEquals(SyncFrameCodec.REPLY_DONE, frame.get());
+        assertEquals(1, frame.getInt());
+        assertEquals(3L, frame.getLong());
+
+        assertEquals(SyncFrameCodec.REPLY_CLAIMED, frame.get());
+        assertEquals(2, frame.getInt());
+        assertEquals(TEST_CLAIM_TOKEN, new UUID(frame.getLong(), frame.getLong()));
+        assertEquals(leasedUntil.toEpochMilli(), frame.getLong());
+        assertEquals(1, frame.getShort());
+        assertEquals(9L, frame.getLong());
+        assertEquals(TEST_UUID, new UUID(frame.getLong(), frame.getLong()));
+        assertEquals(QueueAction.DELETE, SyncFrameCodec.action(frame.get()));
+
+        assertEquals(SyncFrameCodec.REPLY_FAILED, frame.get());
+        assertEquals(3, frame.getInt());
+        assertEquals(404, frame.getShort());
+        assertEquals(7, frame.getShort());
+        frame.position(frame.position() + 7);
+
+        assertFalse(frame.hasRemaining());
+    }
+
+    @Test
+    public void shouldSplitReplies_whenFrameLimitExceeded() {
+        List<SyncReply> replies = List.of(
+                new SyncReply.Entity(1, TEST_UUID, 1L, 5L, TEST_METADATA, new byte[100]),
+                new SyncReply.Entity(2, TEST_UUID, 1L, 5L, TEST_METADATA, new byte[100]));
+
+        List<ByteBuffer> frames = SyncFrameCodec.encode(replies, 150);
+
+        assertEquals(2, frames.size());
+        assertEquals(SyncFrameCodec.REPLY_ENTITY, frames.get(1).get(0));
+        assertEquals(2, frames.get(1).getInt(1));
+    }
+
+    @Test
+    public void shouldReplyPayloadTooLarge_whenReplyExceedsFrameLimit() {
+        List<SyncReply> replies = List.of(
+                new SyncReply.Entity(1, TEST_UUID, 1L, 5L, TEST_METADATA, new byte[200]),
+                new SyncReply.Done(2, 3L));
+
+        List<ByteBuffer> frames = SyncFrameCodec.encode(replies, 150);
+
+        assertEquals(1, frames.size());
+        ByteBuffer frame = frames.get(0);
+        assertTrue(frame.limit() <= 150);
+        assertEquals(SyncFrameCodec.REPLY_FAILED, frame.get());
+        assertEquals(1, frame.getInt());
+        assertEquals(413, frame.getShort());
+        frame.position(frame.position() + Short.BYTES + SyncConstants.Socket.REPLY_TOO_LARGE_MESSAGE.length());
+        assertEquals(SyncFrameCodec.REPLY_DONE, frame.get());
+        assertEquals(2, frame.getInt());
+    }
+
+}
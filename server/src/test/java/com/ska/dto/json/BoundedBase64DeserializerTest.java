@@ -0,0 +1,96 @@
+package com.ska.dto.json;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.ska.util.constant.EntityConstants;
+
+
+class BoundedBase64DeserializerTest {
+
+    private static final int MAX_SIZE = EntityConstants.Metadata.ENCRYPTED_DATA_SIZE_MAX;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(
+                new SimpleModule().addDeserializer(byte[].class, new EncryptedMetadataDeserializer()));
+    }
+
+    // === Helper-methods === //
+
+    private static String json(byte[] bytes) {
+        return "\"" + Base64.getEncoder().encodeToString(bytes) + "\"";
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++)
+            bytes[i] = (byte) i;
+        return bytes;
+    }
+
+    private byte[] read(String json) throws IOException {
+        return objectMapper.readValue(json, byte[].class);
+    }
+
+    private void assertRejected(String json, String message) {
+        InvalidEncryptedDataException exception = assertThrows(
+                InvalidEncryptedDataException.class,
+                () -> read(json));
+        assertEquals(message, exception.getOriginalMessage());
+    }
+
+    @Test
+    public void shouldDecodeBytes_whenValidBase64() throws IOException {
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, read("\"AQIDBA==\""));
+    }
+
+    @Test
+    public void shouldDecodeBytes_whenExactlyMaxSize() throws IOException {
+        byte[] bytes = bytes(MAX_SIZE);
+
+        assertArrayEquals(bytes, read(json(bytes)));
+    }
+
+    @Test
+    public void shouldThrowInvalidEncryptedDataException_whenOneByteOverMaxSize() {
+        assertRejected(json(bytes(MAX_SIZE + 1)), EntityConstants.Metadata.DTO_INVALID_SIZE_MESSAGE);
+    }
+
+    @Test
+    public void shouldThrowInvalidEncryptedDataException_whenFarOverMaxSize() {
+        assertRejected(json(bytes(MAX_SIZE * 64)), EntityConstants.Metadata.DTO_INVALID_SIZE_MESSAGE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "\"not base64!\"", "\"AQI\"", "\"AQIDBA=A\"", "\"@@@@\"" })
+    public void shouldThrowInvalidEncryptedDataException_whenMalformedBase64(String json) {
+        assertRejected(json, EntityConstants.DATA_NOT_BASE64_MESSAGE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "42", "true", "[\"AQIDBA==\"]", "{\"data\":\"AQIDBA==\"}" })
+    public void shouldThrowInvalidEncryptedDataException_whenNotString(String json) {
+        assertRejected(json, EntityConstants.DATA_NOT_BASE64_MESSAGE);
+    }
+
+    @Test
+    public void shouldThrowInvalidEncryptedDataException_whenEmptyString() {
+        assertRejected("\"\"", EntityConstants.DATA_BLANK_MESSAGE);
+    }
+
+}
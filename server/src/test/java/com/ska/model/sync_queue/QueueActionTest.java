@@ -0,0 +1,44 @@
+package com.ska.model.sync_queue;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+
+class QueueActionTest {
+
+    @Test
+    public void shouldSupersedeWeakerActions() {
+        assertTrue(QueueAction.DELETE.supersedes(QueueAction.SYNC_FULL));
+        assertTrue(QueueAction.DELETE.supersedes(QueueAction.SYNC_METADATA));
+        assertTrue(QueueAction.SYNC_FULL.supersedes(QueueAction.SYNC_METADATA));
+    }
+
+    @Test
+    public void shouldNotSupersedeStrongerActions() {
+        assertFalse(QueueAction.SYNC_METADATA.supersedes(QueueAction.SYNC_FULL));
+        assertFalse(QueueAction.SYNC_METADATA.supersedes(QueueAction.DELETE));
+        assertFalse(QueueAction.SYNC_FULL.supersedes(QueueAction.DELETE));
+    }
+
+    @ParameterizedTest
+    @EnumSource(QueueAction.class)
+    public void shouldNotSupersedeItself(QueueAction action) {
+        assertFalse(action.supersedes(action));
+    }
+
+    @Test
+    public void shouldListSupersededActions() {
+        assertEquals(List.of(), QueueAction.SYNC_METADATA.superseded());
+        assertEquals(List.of(QueueAction.SYNC_METADATA), QueueAction.SYNC_FULL.superseded());
+        assertEquals(List.of(QueueAction.SYNC_METADATA, QueueAction.SYNC_FULL), QueueAction.DELETE.superseded());
+    }
+
+}
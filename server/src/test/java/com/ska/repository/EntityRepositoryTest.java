@@ -0,0 +1,108 @@
+package com.ska.repository;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ska.model.syncable.Syncable;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.repository.projection.SyncableLeafView;
+
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EntityRepositoryTest {
+
+    private static final String TEST_HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityRepository entityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User stranger;
+
+    // === Helper-methods === //
+
+    private User user(String email) {
+        return testEntityManager.persist(new User(new Email(email), new Password(TEST_HASHED_PASSWORD)));
+    }
+
+    private UUID syncable(User user, long changeSeq) {
+        Syncable syncable = new Syncable(
+                user,
+                UUID.randomUUID(),
+                new EncryptedMetadata(new byte[] { 1 }),
+                new EncryptedContent(new byte[] { 2 }));
+        syncable.markChanged(changeSeq);
+
+        return testEntityManager.persist(syncable).getUuid();
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner@example.com");
+        stranger = user("stranger@example.com");
+    }
+
+    @Test
+    public void shouldFindLeavesOfOwnedSyncablesOnly() {
+        UUID first = syncable(owner, 1L);
+        UUID second = syncable(owner, 2L);
+        UUID foreign = syncable(stranger, 1L);
+        testEntityManager.flush();
+
+        List<SyncableLeafView> leaves = entityRepository.findLeavesByOwnerIdAndUuidIn(
+                owner.getId(),
+                List.of(first, second, foreign, UUID.randomUUID()));
+
+        assertEquals(
+                Set.of(first, second),
+                leaves.stream().map(SyncableLeafView::uuid).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void shouldDeleteOwnedSyncablesOnly() {
+        UUID first = syncable(owner, 1L);
+        UUID kept = syncable(owner, 2L);
+        UUID foreign = syncable(stranger, 1L);
+        testEntityManager.flush();
+
+        int deleted = entityRepository.deleteAllByOwnerIdAndUuidIn(owner.getId(), List.of(first, foreign));
+        testEntityManager.clear();
+
+        assertEquals(1, deleted);
+        assertEquals(
+                Set.of(kept, foreign),
+                Set.copyOf(entityRepository.findExistingUuids(List.of(first, kept, foreign))));
+    }
+
+    @Test
+    public void shouldLockExistingOwnerRowOnly() {
+        assertEquals(1, userRepository.lockChangeSeq(owner.getId()));
+        assertEquals(0, userRepository.lockChangeSeq(Long.MAX_VALUE));
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.ska.repository;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.Device;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.repository.projection.SyncQueueItemView;
+
+import jakarta.persistence.EntityManager;
+
+
+// claims race across connections, so every step commits on its own
+@Import(SyncQueueJdbcRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncQueueJdbcRepositoryTest extends PostgresRepositoryTest {
+
+    private static final String TEST_HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+    private static final Duration TEST_LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private SyncQueueJdbcRepository syncQueueJdbcRepository;
+
+    @Autowired
+    private SyncQueueItemRepository syncQueueItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long firstDeviceId;
+    private Long secondDeviceId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User owner = new User(new Email("owner@example.com"), new Password(TEST_HASHED_PASSWORD));
+            entityManager.persist(owner);
+
+            Device first = new Device(owner, UUID.randomUUID());
+            Device second = new Device(owner, UUID.randomUUID());
+            entityManager.persist(first);
+            entityManager.persist(second);
+            entityManager.flush();
+
+            firstDeviceId = first.getId();
+            secondDeviceId = second.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM sync_queue");
+        jdbcTemplate.update("DELETE FROM devices");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    // === Helper-methods === //
+
+    private Map<UUID, String> actionsOf(Long deviceId) {
+        return jdbcTemplate.query(
+                "SELECT syncable_uuid, action FROM sync_queue WHERE device_id = ?",
+                (row, rowNum) -> Map.entry(row.getObject("syncable_uuid", UUID.class), row.getString("action")),
+                deviceId)
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private long changeSeqOf(Long deviceId, UUID syncableUuid) {
+        return jdbcTemplate.queryForObject(
+                "SELECT change_seq FROM sync_queue WHERE device_id = ? AND syncable_uuid = ?",
+                Long.class,
+                deviceId,
+                syncableUuid);
+    }
+
+    private Set<Long> idsOf(List<SyncQueueItemView> items) {
+        Set<Long> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.id()));
+        return ids;
+    }
+
+    private List<UUID> queue(int count) {
+        List<UUID> syncableUuids = Stream.generate(UUID::randomUUID).limit(count).toList();
+        syncQueueJdbcRepository.upsertAll(List.of(firstDeviceId), syncableUuids, QueueAction.SYNC_FULL, false, 1L);
+        return syncableUuids;
+    }
+
+    @Test
+    public void shouldFanOutOneRowPerDeviceAndSyncable_skippingRemovedDevices() {
+        List<UUID> syncableUuids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        syncQueueJdbcRepository.upsertAll(
+                List.of(firstDeviceId, secondDeviceId, Long.MAX_VALUE),
+                syncableUuids,
+                QueueAction.SYNC_METADATA,
+                false,
+                5L);
+
+        assertEquals(3, actionsOf(firstDeviceId).size());
+        assertEquals(3, actionsOf(secondDeviceId).size());
+        assertEquals(6L, syncQueueItemRepository.count());
+
+        // one sequence value per row, nothing burnt in between
+        Long idSpan = jdbcTemplate.queryForObject("SELECT MAX(id) - MIN(id) FROM sync_queue", Long.class);
+        assertEquals(5L, idSpan);
+    }
+
+    @Test
+    public void shouldCoalesceToStrongerAction_keepingLowestChangeSeq() {
+        UUID syncableUuid = UUID.randomUUID();
+        List<Long> deviceIds = List.of(firstDeviceId);
+
+        syncQueueJdbcRepository.upsertAll(deviceIds, List.of(syncableUuid), QueueAction.SYNC_METADATA, false, 5L);
+        syncQueueJdbcRepository.upsertAll(deviceIds, List.of(syncableUuid), QueueAction.SYNC_FULL, false, 7L);
+        syncQueueJdbcRepository.upsertAll(deviceIds, List.of(syncableUuid), QueueAction.SYNC_METADATA, false, 9L);
+
+        assertEquals(Map.of(syncableUuid, QueueAction.SYNC_FULL.name()), actionsOf(firstDeviceId));
+        assertEquals(5L, changeSeqOf(firstDeviceId, syncableUuid));
+
+        syncQueueJdbcRepository.upsertAll(deviceIds, List.of(syncableUuid), QueueAction.SYNC_METADATA, true, 11L);
+
+        assertEquals(Map.of(syncableUuid, QueueAction.SYNC_METADATA.name()), actionsOf(firstDeviceId));
+    }
+
+    @Test
+    public void shouldSkipRowsLockedByConcurrentClaim() throws Exception {
+        queue(4);
+        UUID firstToken = UUID.randomUUID();
+        UUID secondToken = UUID.randomUUID();
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<List<SyncQueueItemView>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                List<SyncQueueItemView> items = syncQueueJdbcRepository.claim(firstDeviceId, firstToken, TEST_LEASE, 2);
+                claimed.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return items;
+            }));
+
+            assertTrue(claimed.await(10, TimeUnit.SECONDS));
+            List<SyncQueueItemView> second = syncQueueJdbcRepository.claim(firstDeviceId, secondToken, TEST_LEASE, 10);
+            release.countDown();
+            List<SyncQueueItemView> firstItems = first.get(10, TimeUnit.SECONDS);
+
+            assertEquals(2, firstItems.size());
+            assertEquals(2, second.size());
+            assertTrue(Collections.disjoint(idsOf(firstItems), idsOf(second)));
+            assertTrue(syncQueueJdbcRepository.claim(firstDeviceId, UUID.randomUUID(), TEST_LEASE, 10).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldAckOwnClaimOnly() {
+        queue(2);
+        UUID token = UUID.randomUUID();
+        List<SyncQueueItemView> claimed = syncQueueJdbcRepository.claim(firstDeviceId, token, TEST_LEASE, 10);
+
+        int foreign = transactionTemplate.execute(status -> syncQueueItemRepository.deleteClaimed(
+                firstDeviceId,
+                UUID.randomUUID(),
+                idsOf(claimed)));
+        int own = transactionTemplate.execute(status -> syncQueueItemRepository.deleteClaimed(
+                firstDeviceId,
+                token,
+                idsOf(claimed)));
+
+        assertEquals(0, foreign);
+        assertEquals(2, own);
+        assertEquals(0L, syncQueueItemRepository.count());
+    }
+
+    @Test
+    public void shouldDropClaim_whenClaimedRowIsRequeued() {
+        List<UUID> syncableUuids = queue(1);
+        UUID token = UUID.randomUUID();
+        List<SyncQueueItemView> claimed = syncQueueJdbcRepository.claim(firstDeviceId, token, TEST_LEASE, 10);
+
+        syncQueueJdbcRepository.upsertAll(List.of(firstDeviceId), syncableUuids, QueueAction.SYNC_FULL, false, 2L);
+        int acked = transactionTemplate.execute(status -> syncQueueItemRepository.deleteClaimed(
+                firstDeviceId,
+                token,
+                idsOf(claimed)));
+
+        assertEquals(0, acked);
+        assertEquals(1, syncQueueJdbcRepository.claim(firstDeviceId, UUID.randomUUID(), TEST_LEASE, 10).size());
+    }
+
+    @Test
+    public void shouldFindDevicesWithBacklogAboveLimit_only() {
+        queue(3);
+
+        assertEquals(List.of(firstDeviceId), syncQueueItemRepository.findDeviceIdsWithBacklogAbove(2L));
+        assertTrue(syncQueueItemRepository.findDeviceIdsWithBacklogAbove(3L).isEmpty());
+    }
+
+}
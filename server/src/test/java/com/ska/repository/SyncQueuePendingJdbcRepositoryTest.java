@@ -0,0 +1,125 @@
+package com.ska.repository;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.repository.projection.PendingMarkerView;
+
+import jakarta.persistence.EntityManager;
+
+
+@Import(SyncQueuePendingJdbcRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyncQueuePendingJdbcRepositoryTest extends PostgresRepositoryTest {
+
+    private static final String TEST_HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+    private static final UUID TEST_INSTANCE_ID = UUID.randomUUID();
+    private static final UUID OTHER_INSTANCE_ID = UUID.randomUUID();
+
+    @Autowired
+    private SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = transactionTemplate.execute(status -> {
+            User owner = new User(new Email("owner@example.com"), new Password(TEST_HASHED_PASSWORD));
+            entityManager.persist(owner);
+            entityManager.flush();
+            return owner.getId();
+        });
+        jdbcTemplate.update("UPDATE users SET change_seq = 20 WHERE id = ?", ownerId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM sync_queue_pending");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    // === Helper-methods === //
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_queue_pending", Long.class);
+    }
+
+    @Test
+    public void shouldWidenMarker_andBoundDurableSeqBelowIt() {
+        assertEquals(20L, syncQueuePendingJdbcRepository.findDurableSeq(ownerId));
+
+        syncQueuePendingJdbcRepository.mark(TEST_INSTANCE_ID, ownerId, 12L, 12L);
+        syncQueuePendingJdbcRepository.mark(TEST_INSTANCE_ID, ownerId, 15L, 16L);
+        syncQueuePendingJdbcRepository.mark(OTHER_INSTANCE_ID, ownerId, 9L, 9L);
+
+        assertEquals(8L, syncQueuePendingJdbcRepository.findDurableSeq(ownerId));
+        assertEquals(
+                Map.of("first_seq", 12L, "last_seq", 16L),
+                jdbcTemplate.queryForMap(
+                        "SELECT first_seq, last_seq FROM sync_queue_pending WHERE instance_id = ?",
+                        TEST_INSTANCE_ID));
+    }
+
+    @Test
+    public void shouldKeepMarker_whenChangeMarkedAfterFlushSnapshot() {
+        syncQueuePendingJdbcRepository.mark(TEST_INSTANCE_ID, ownerId, 12L, 14L);
+
+        syncQueuePendingJdbcRepository.release(TEST_INSTANCE_ID, Map.of(ownerId, 13L), Map.of());
+        assertEquals(1L, count());
+
+        syncQueuePendingJdbcRepository.release(TEST_INSTANCE_ID, Map.of(ownerId, 14L), Map.of());
+        assertEquals(0L, count());
+    }
+
+    @Test
+    public void shouldNarrowMarker_toLowestUnflushedChange() {
+        syncQueuePendingJdbcRepository.mark(TEST_INSTANCE_ID, ownerId, 12L, 16L);
+
+        syncQueuePendingJdbcRepository.release(TEST_INSTANCE_ID, Map.of(ownerId, 14L), Map.of(ownerId, 15L));
+
+        assertEquals(14L, syncQueuePendingJdbcRepository.findDurableSeq(ownerId));
+    }
+
+    @Test
+    public void shouldLockStaleMarkersOnly() {
+        syncQueuePendingJdbcRepository.mark(TEST_INSTANCE_ID, ownerId, 12L, 12L);
+        PendingMarkerView marker = new PendingMarkerView(TEST_INSTANCE_ID, ownerId);
+
+        assertTrue(syncQueuePendingJdbcRepository.findStale(Duration.ofMinutes(5)).isEmpty());
+        assertEquals(List.of(marker), syncQueuePendingJdbcRepository.findStale(Duration.ZERO));
+        assertEquals(
+                12L,
+                transactionTemplate.execute(status -> syncQueuePendingJdbcRepository
+                        .lockStale(marker, Duration.ZERO)
+                        .orElseThrow()));
+    }
+
+}
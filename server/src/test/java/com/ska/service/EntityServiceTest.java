@@ -1,7 +1,412 @@
 package com.ska.service;
 
 
-// TODO: реализовать тесты
-public class EntityServiceTest {
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ska.exception.AccessDeniedException;
+import com.ska.exception.PreconditionFailedException;
+import com.ska.exception.ResourceNotFoundException;
+import com.ska.exception.WatermarkExpiredException;
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.syncable.EntityTombstone;
+import com.ska.model.syncable.Syncable;
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.model.user.User;
+import com.ska.model.user.vo.Email;
+import com.ska.model.user.vo.Password;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.SyncableLeafView;
+import com.ska.repository.projection.SyncableUpdateView;
+import com.ska.repository.projection.SyncableVersionView;
+import com.ska.service.cache.SyncablePayloadCache;
+import com.ska.service.contract.MerkleTreeService;
+import com.ska.service.contract.SyncFanOutService;
+import com.ska.service.contract.UserService;
+import com.ska.service.result.ChangeSet;
+import com.ska.service.result.ItemResult;
+import com.ska.service.result.ItemStatus;
+import com.ska.service.result.SyncablePayload;
+import com.ska.service.result.SyncableRevision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+
+@ExtendWith(MockitoExtension.class)
+class EntityServiceTest {
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private EntityTombstoneRepository entityTombstoneRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private SyncablePayloadCache payloadCache = new SyncablePayloadCache(new SimpleMeterRegistry());
+
+    @Mock
+    private SyncFanOutService syncFanOutService;
+
+    @Mock
+    private MerkleTreeService merkleTreeService;
+
+    @Captor
+    private ArgumentCaptor<List<EntityTombstone>> tombstonesCaptor;
+
+    @InjectMocks
+    private EntityServiceImpl entityService;
+
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long TEST_OTHER_USER_ID = 2L;
+    private static final UUID TEST_UUID = UUID.randomUUID();
+    private static final byte[] TEST_METADATA = { 1, 2, 3 };
+    private static final byte[] TEST_CONTENT = { 4, 5, 6, 7 };
+    private static final String TEST_EMAIL = "test@example.com";
+    private static final String TEST_HASHED_PASSWORD = "$2a$10$validBcryptHashWith60Characters1234567890123456781234";
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // === Helper-methods === //
+
+    private static User owner() {
+        return new User(new Email(TEST_EMAIL), new Password(TEST_HASHED_PASSWORD));
+    }
+
+    private static Syncable syncable(UUID uuid, long changeSeq) {
+        Syncable syncable = new Syncable(
+                owner(),
+                uuid,
+                new EncryptedMetadata(TEST_METADATA),
+                new EncryptedContent(TEST_CONTENT));
+        syncable.markChanged(changeSeq);
+        return syncable;
+    }
+
+    private static SyncableUpdateView updateView(long version, long previousChangeSeq) {
+        SyncableUpdateView view = mock(SyncableUpdateView.class);
+        when(view.getVersion()).thenReturn(version);
+        when(view.getPreviousChangeSeq()).thenReturn(previousChangeSeq);
+        return view;
+    }
+
+    private void whenFindVersionByUuid(Optional<SyncableVersionView> optional) {
+        when(entityRepository.findVersionByUuid(TEST_UUID)).thenReturn(optional);
+    }
+
+    private void whenReserveChangeSeq(int count, long lastSeq) {
+        when(userService.reserveChangeSeq(TEST_USER_ID, count)).thenReturn(lastSeq);
+    }
+
+    private void whenUpdateMetadata(Long expectedChangeSeq, long changeSeq, Optional<SyncableUpdateView> optional) {
+        when(entityRepository.updateMetadata(
+                eq(TEST_UUID),
+                eq(TEST_USER_ID),
+                isNull(),
+                eq(expectedChangeSeq),
+                any(byte[].class),
+                eq(changeSeq))).thenReturn(optional);
+    }
+
+    private void whenFindChanges(long since, List<Syncable> upserts, List<EntityTombstone> tombstones, long purged) {
+        when(entityRepository.findChangesByOwnerId(eq(TEST_USER_ID), eq(since), any(Pageable.class)))
+                .thenReturn(upserts);
+        when(entityTombstoneRepository.findChangesByOwnerId(eq(TEST_USER_ID), eq(since), any(Pageable.class)))
+                .thenReturn(tombstones);
+        when(userRepository.findTombstonePurgedSeqById(TEST_USER_ID)).thenReturn(Optional.of(purged));
+    }
+
+    @Nested
+    class GetByUuidTests {
+
+        @Test
+        public void shouldReadRowOnce_whenNotCached() {
+            when(entityRepository.findByUuidAndOwnerId(TEST_UUID, TEST_USER_ID))
+                    .thenReturn(Optional.of(syncable(TEST_UUID, 5L)));
+
+            SyncablePayload result = entityService.getByUuid(TEST_USER_ID, TEST_UUID);
+
+            assertEquals(5L, result.changeSeq());
+            verify(entityRepository, times(1)).findByUuidAndOwnerId(TEST_UUID, TEST_USER_ID);
+            verify(entityRepository, never()).findChangeSeqByUuidAndOwnerId(any(), any());
+            verify(entityRepository, never()).findVersionByUuid(any());
+        }
+
+        @Test
+        public void shouldConfirmChangeSeqOnly_whenCached() {
+            payloadCache.put(TEST_USER_ID, SyncablePayload.of(syncable(TEST_UUID, 5L)));
+            when(entityRepository.findChangeSeqByUuidAndOwnerId(TEST_UUID, TEST_USER_ID)).thenReturn(Optional.of(5L));
+
+            SyncablePayload result = entityService.getByUuid(TEST_USER_ID, TEST_UUID);
+
+            assertEquals(5L, result.changeSeq());
+            verify(entityRepository, never()).findByUuidAndOwnerId(any(), any());
+            verify(entityRepository, never()).findVersionByUuid(any());
+        }
+
+        @Test
+        public void shouldReadRow_whenCachedPayloadOutdated() {
+            payloadCache.put(TEST_USER_ID, SyncablePayload.of(syncable(TEST_UUID, 5L)));
+            when(entityRepository.findChangeSeqByUuidAndOwnerId(TEST_UUID, TEST_USER_ID)).thenReturn(Optional.of(6L));
+            when(entityRepository.findByUuidAndOwnerId(TEST_UUID, TEST_USER_ID))
+                    .thenReturn(Optional.of(syncable(TEST_UUID, 6L)));
+
+            SyncablePayload result = entityService.getByUuid(TEST_USER_ID, TEST_UUID);
+
+            assertEquals(6L, result.changeSeq());
+        }
+
+        @Test
+        public void shouldThrowException_whenNotFoundUuid() {
+            when(entityRepository.findByUuidAndOwnerId(TEST_UUID, TEST_USER_ID)).thenReturn(Optional.empty());
+            whenFindVersionByUuid(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class, () -> entityService.getByUuid(TEST_USER_ID, TEST_UUID));
+        }
+
+        @Test
+        public void shouldThrowException_whenForeignUuid() {
+            when(entityRepository.findByUuidAndOwnerId(TEST_UUID, TEST_USER_ID)).thenReturn(Optional.empty());
+            whenFindVersionByUuid(Optional.of(new SyncableVersionView(TEST_OTHER_USER_ID, 1L, 5L)));
+
+            assertThrows(AccessDeniedException.class, () -> entityService.getByUuid(TEST_USER_ID, TEST_UUID));
+        }
+
+    }
+
+    @Nested
+    class UpdateTests {
+
+        @Test
+        public void shouldUpdateOwnedRow_whenChangeSeqMatches() {
+            whenReserveChangeSeq(1, 43L);
+            whenUpdateMetadata(42L, 43L, Optional.of(updateView(4L, 42L)));
+
+            SyncableRevision result = entityService.updateMetadata(TEST_USER_ID, TEST_UUID, TEST_METADATA, null, 42L);
+
+            assertEquals(new SyncableRevision(4L, 43L), result);
+            verify(entityRepository, never()).findVersionByUuid(any());
+            verify(syncFanOutService, times(1))
+                    .enqueue(TEST_USER_ID, List.of(TEST_UUID), QueueAction.SYNC_METADATA, 43L, 43L);
+            verify(merkleTreeService, times(1)).replace(TEST_USER_ID, TEST_UUID, 42L, 43L);
+        }
+
+        @Test
+        public void shouldThrowPreconditionFailed_whenChangeSeqDiffers() {
+            whenReserveChangeSeq(1, 51L);
+            whenUpdateMetadata(42L, 51L, Optional.empty());
+            whenFindVersionByUuid(Optional.of(new SyncableVersionView(TEST_USER_ID, 3L, 50L)));
+
+            PreconditionFailedException exception = assertThrows(
+                    PreconditionFailedException.class,
+                    () -> entityService.updateMetadata(TEST_USER_ID, TEST_UUID, TEST_METADATA, null, 42L));
+            assertEquals("Syncable change sequence is 50, expected 42", exception.getMessage());
+
+            verifyNoInteractions(syncFanOutService, merkleTreeService);
+        }
+
+        @Test
+        public void shouldThrowAccessDenied_whenForeignUuid() {
+            whenReserveChangeSeq(1, 51L);
+            whenUpdateMetadata(42L, 51L, Optional.empty());
+            whenFindVersionByUuid(Optional.of(new SyncableVersionView(TEST_OTHER_USER_ID, 3L, 42L)));
+
+            assertThrows(
+                    AccessDeniedException.class,
+                    () -> entityService.updateMetadata(TEST_USER_ID, TEST_UUID, TEST_METADATA, null, 42L));
+
+            verifyNoInteractions(syncFanOutService, merkleTreeService);
+        }
+
+        @Test
+        public void shouldThrowNotFound_whenNotFoundUuid() {
+            whenReserveChangeSeq(1, 51L);
+            whenUpdateMetadata(42L, 51L, Optional.empty());
+            whenFindVersionByUuid(Optional.empty());
+
+            assertThrows(
+                    ResourceNotFoundException.class,
+                    () -> entityService.updateMetadata(TEST_USER_ID, TEST_UUID, TEST_METADATA, null, 42L));
+
+            verifyNoInteractions(syncFanOutService, merkleTreeService);
+        }
+
+        @Test
+        public void shouldInvalidateCachedPayload_onlyAfterCommit() {
+            payloadCache.put(TEST_USER_ID, SyncablePayload.of(syncable(TEST_UUID, 42L)));
+            whenReserveChangeSeq(1, 43L);
+            whenUpdateMetadata(null, 43L, Optional.of(updateView(4L, 42L)));
+            TransactionSynchronizationManager.initSynchronization();
+
+            entityService.updateMetadata(TEST_USER_ID, TEST_UUID, TEST_METADATA, null, null);
+
+            assertTrue(payloadCache.peek(TEST_USER_ID, TEST_UUID).isPresent());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(payloadCache.peek(TEST_USER_ID, TEST_UUID).isEmpty());
+        }
+
+    }
+
+    @Nested
+    class DeleteTests {
+
+        @Test
+        public void shouldWriteTombstone_whenOwnedUuidDeleted() {
+            User owner = owner();
+            SyncableLeafView leaf = new SyncableLeafView(TEST_UUID, 3L, 40L);
+            when(entityRepository.findLeavesByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID)))
+                    .thenReturn(List.of(leaf));
+            whenReserveChangeSeq(1, 41L);
+            when(entityManager.getReference(User.class, TEST_USER_ID)).thenReturn(owner);
+
+            entityService.delete(TEST_USER_ID, TEST_UUID);
+
+            verify(userService, times(1)).lockChangeSeq(TEST_USER_ID);
+            verify(entityRepository, times(1)).deleteAllByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID));
+            verify(entityTombstoneRepository, times(1)).saveAll(tombstonesCaptor.capture());
+            EntityTombstone tombstone = tombstonesCaptor.getValue().get(0);
+            assertSame(owner, tombstone.getOwner());
+            assertEquals(TEST_UUID, tombstone.getUuid());
+            assertEquals(41L, tombstone.getChangeSeq());
+
+            verify(syncFanOutService, times(1)).enqueue(TEST_USER_ID, List.of(TEST_UUID), QueueAction.DELETE, 41L, 41L);
+            verify(merkleTreeService, times(1)).remove(TEST_USER_ID, List.of(leaf));
+        }
+
+        @Test
+        public void shouldThrowAccessDenied_whenForeignUuid() {
+            when(entityRepository.findLeavesByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID))).thenReturn(List.of());
+            whenFindVersionByUuid(Optional.of(new SyncableVersionView(TEST_OTHER_USER_ID, 3L, 40L)));
+
+            assertThrows(AccessDeniedException.class, () -> entityService.delete(TEST_USER_ID, TEST_UUID));
+
+            verify(userService, never()).reserveChangeSeq(anyLong(), anyInt());
+            verifyNoInteractions(entityTombstoneRepository, syncFanOutService, merkleTreeService);
+        }
+
+        @Test
+        public void shouldReturnOnlyDeletedUuids_whenSomeMissing() {
+            UUID missing = UUID.randomUUID();
+            when(entityRepository.findLeavesByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID, missing)))
+                    .thenReturn(List.of(new SyncableLeafView(TEST_UUID, 3L, 40L)));
+            whenReserveChangeSeq(1, 41L);
+            when(entityManager.getReference(User.class, TEST_USER_ID)).thenReturn(owner());
+
+            List<UUID> result = entityService.deleteAll(TEST_USER_ID, List.of(TEST_UUID, missing, TEST_UUID));
+
+            assertEquals(List.of(TEST_UUID), result);
+            verify(entityRepository, times(1)).deleteAllByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID));
+        }
+
+    }
+
+    @Nested
+    class BatchGetTests {
+
+        @Test
+        public void shouldReportEachItem_whenUuidsMixed() {
+            UUID foreign = UUID.randomUUID();
+            UUID missing = UUID.randomUUID();
+            when(entityRepository.findAllByOwnerIdAndUuidIn(TEST_USER_ID, List.of(TEST_UUID, foreign, missing)))
+                    .thenReturn(List.of(syncable(TEST_UUID, 5L)));
+            when(entityRepository.findExistingUuids(List.of(foreign, missing))).thenReturn(List.of(foreign));
+
+            List<ItemResult<Syncable>> results = new ArrayList<>();
+            entityService.getAllByUuids(TEST_USER_ID, List.of(TEST_UUID, foreign, missing), results::add);
+
+            assertEquals(
+                    List.of(ItemStatus.OK, ItemStatus.FORBIDDEN, ItemStatus.NOT_FOUND),
+                    results.stream().map(ItemResult::status).toList());
+            assertEquals(List.of(TEST_UUID, foreign, missing), results.stream().map(ItemResult::uuid).toList());
+        }
+
+    }
+
+    @Nested
+    class GetChangesTests {
+
+        @Test
+        public void shouldMergeTombstones_whenDeletedAfterWatermark() {
+            UUID deleted = UUID.randomUUID();
+            whenFindChanges(
+                    10L,
+                    List.of(syncable(TEST_UUID, 13L)),
+                    List.of(new EntityTombstone(owner(), deleted, 11L), new EntityTombstone(owner(), TEST_UUID, 12L)),
+                    0L);
+
+            ChangeSet<Syncable> result = entityService.getChanges(TEST_USER_ID, 10L, null);
+
+            assertEquals(1, result.upserts().size());
+            assertEquals(List.of(deleted), result.deleted());
+            assertEquals(13L, result.watermark());
+        }
+
+        @Test
+        public void shouldThrowWatermarkExpired_whenWatermarkBehindPurge() {
+            whenFindChanges(9L, List.of(), List.of(), 10L);
+
+            assertThrows(WatermarkExpiredException.class, () -> entityService.getChanges(TEST_USER_ID, 9L, null));
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = { 0L, 10L, 11L })
+        public void shouldReturnChanges_whenWatermarkNotBehindPurge(long since) {
+            whenFindChanges(since, List.of(), List.of(), 10L);
+
+            assertDoesNotThrow(() -> entityService.getChanges(TEST_USER_ID, since, null));
+        }
+
+    }
 
 }
@@ -0,0 +1,73 @@
+package com.ska.service;
+
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ska.repository.EntityRepository;
+import com.ska.repository.UserRepository;
+import com.ska.service.contract.UserService;
+import com.ska.util.constant.SyncConstants;
+
+import jakarta.persistence.EntityManager;
+
+
+class SnapshotServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private SnapshotServiceImpl snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new SnapshotServiceImpl(
+                mock(EntityRepository.class),
+                mock(UserRepository.class),
+                mock(UserService.class),
+                mock(EntityManager.class),
+                directory.toString());
+    }
+
+    // === Helper-methods === //
+
+    private Path snapshot(String name, long ageMs) throws IOException {
+        Path snapshot = Files.createFile(directory.resolve(name));
+        Files.setLastModifiedTime(snapshot, FileTime.fromMillis(System.currentTimeMillis() - ageMs));
+        return snapshot;
+    }
+
+    @Test
+    public void shouldSweepSnapshots_whenNotHandedOutForRetention() throws IOException {
+        long expired = SyncConstants.Snapshot.RETENTION_MS + 60_000L;
+        Path current = snapshot("1-42" + SyncConstants.Snapshot.FILE_SUFFIX, expired);
+        Path orphaned = snapshot("2-7" + SyncConstants.Snapshot.FILE_SUFFIX, expired);
+
+        snapshotService.sweep();
+
+        assertFalse(Files.exists(current));
+        assertFalse(Files.exists(orphaned));
+    }
+
+    @Test
+    public void shouldKeepSnapshots_whenHandedOutWithinRetention() throws IOException {
+        Path recent = snapshot("1-42" + SyncConstants.Snapshot.FILE_SUFFIX, 0L);
+        Path foreign = snapshot("notes.txt", SyncConstants.Snapshot.RETENTION_MS + 60_000L);
+
+        snapshotService.sweep();
+
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(foreign));
+    }
+
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -23,6 +24,8 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import com.ska.dto.user.request.UserCreateRequest;
@@ -31,11 +34,12 @@ import com.ska.exception.ResourceAlreadyExistsException;
 import com.ska.exception.ResourceNotFoundException;
 import com.ska.model.user.User;
 import com.ska.model.user.vo.Email;
-import com.ska.model.user.vo.Password;
 import com.ska.repository.UserRepository;
+import com.ska.repository.projection.UserView;
 import com.ska.service.contract.crud.CreateCrudBehaviorTest;
 import com.ska.service.contract.crud.DeleteCrudBehavior;
 import com.ska.service.contract.crud.GetCrudBehaviorTest;
+import com.ska.util.constant.CacheConstants;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +51,9 @@ class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -72,8 +79,12 @@ class UserServiceTest {
         when(userRepository.existsByEmail(any(Email.class))).thenReturn(isExists);
     }
 
-    private void whenFindById(Optional<User> optional) {
-        when(userRepository.findById(anyLong())).thenReturn(optional);
+    private void whenFindViewById(Optional<UserView> optional) {
+        when(userRepository.findViewById(anyLong())).thenReturn(optional);
+    }
+
+    private static UserView userView() {
+        return new UserView(TEST_USER_ID, new Email(TEST_EMAIL));
     }
 
     @Nested
@@ -122,29 +133,27 @@ class UserServiceTest {
         @Test
         @Override
         public void shouldReturnEntity_whenValidRequestData() {
-            User expectedUser = new User(new Email(TEST_EMAIL), new Password(TEST_HASHED_PASSWORD));
-
-            whenFindById(Optional.of(expectedUser));
+            whenFindViewById(Optional.of(userView()));
 
-            User result = userService.getById(TEST_USER_ID);
+            UserView result = userService.getById(TEST_USER_ID);
 
-            assertEquals(TEST_EMAIL, result.getEmail().getValue());
+            assertEquals(TEST_EMAIL, result.email().getValue());
 
-            verify(userRepository, times(1)).findById(TEST_USER_ID);
+            verify(userRepository, times(1)).findViewById(TEST_USER_ID);
             verifyNoMoreInteractions(userRepository);
         }
 
         @Test
         @Override
         public void shouldThrowException_whenNotFoundId() {
-            whenFindById(Optional.empty());
+            whenFindViewById(Optional.empty());
 
             ResourceNotFoundException exception = assertThrows(
                     ResourceNotFoundException.class,
                     () -> userService.getById(TEST_USER_ID));
             assertEquals("User id=" + TEST_USER_ID + " not found", exception.getMessage());
 
-            verify(userRepository, times(1)).findById(TEST_USER_ID);
+            verify(userRepository, times(1)).findViewById(TEST_USER_ID);
             verifyNoMoreInteractions(userRepository);
         }
 
@@ -179,12 +188,18 @@ class UserServiceTest {
             @Test
             @Override
             public void shouldDeleteEntity_whenValidRequestData() {
-                whenFindById(Optional.of(new User(new Email(TEST_EMAIL), new Password(TEST_HASHED_PASSWORD))));
+                Cache users = mock(Cache.class);
+                Cache devices = mock(Cache.class);
+                whenFindViewById(Optional.of(userView()));
+                when(cacheManager.getCache(CacheConstants.USERS)).thenReturn(users);
+                when(cacheManager.getCache(CacheConstants.DEVICES)).thenReturn(devices);
 
                 assertDoesNotThrow(() -> userService.delete(TEST_USER_ID));
 
-                verify(userRepository, times(1)).findById(TEST_USER_ID);
+                verify(userRepository, times(1)).findViewById(TEST_USER_ID);
                 verify(userRepository, times(1)).deleteById(TEST_USER_ID);
+                verify(users, times(1)).evict(TEST_USER_ID);
+                verify(devices, times(1)).clear();
                 verifyNoMoreInteractions(userRepository);
             }
 
@@ -204,14 +219,14 @@ class UserServiceTest {
             @Test
             @Override
             public void shouldThrowException_whenNotFoundId() {
-                whenFindById(Optional.empty());
+                whenFindViewById(Optional.empty());
 
                 ResourceNotFoundException exception = assertThrows(
                         ResourceNotFoundException.class,
                         () -> userService.delete(TEST_USER_ID));
                 assertEquals("User id=" + TEST_USER_ID + " not found", exception.getMessage());
 
-                verify(userRepository, times(1)).findById(TEST_USER_ID);
+                verify(userRepository, times(1)).findViewById(TEST_USER_ID);
                 verifyNoMoreInteractions(userRepository);
             }
 
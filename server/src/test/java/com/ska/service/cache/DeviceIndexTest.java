@@ -0,0 +1,125 @@
+package com.ska.service.cache;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.projection.IndexedDevice;
+import com.ska.service.push.InProcessChangeNotificationBus;
+import com.ska.util.constant.CacheConstants;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class DeviceIndexTest {
+
+    private static final Long TEST_OWNER_ID = 1L;
+    private static final IndexedDevice ORIGIN = new IndexedDevice(10L, UUID.randomUUID(), SyncMode.QUEUE);
+    private static final IndexedDevice OTHER = new IndexedDevice(11L, UUID.randomUUID(), SyncMode.QUEUE);
+    private static final IndexedDevice DORMANT = new IndexedDevice(12L, UUID.randomUUID(), SyncMode.WATERMARK);
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeviceRepository deviceRepository;
+    private InProcessChangeNotificationBus changeNotificationBus;
+    private DeviceIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deviceRepository = mock(DeviceRepository.class);
+        changeNotificationBus = new InProcessChangeNotificationBus();
+        index = new DeviceIndex(
+                CacheConstants.DeviceIndex.DEVICES_MAX,
+                deviceRepository,
+                changeNotificationBus,
+                meterRegistry);
+
+        when(deviceRepository.findIndexedByOwnerId(TEST_OWNER_ID)).thenReturn(List.of(ORIGIN, OTHER, DORMANT));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // === Helper-methods === //
+
+    private static void complete() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    @Test
+    public void shouldLeaveOutOriginAndWatermarkDevices() {
+        assertEquals(List.of(OTHER.id()), index.getQueueModeIds(TEST_OWNER_ID, ORIGIN.uuid()));
+        assertEquals(List.of(ORIGIN.id(), OTHER.id()), index.getQueueModeIds(TEST_OWNER_ID, null));
+    }
+
+    @Test
+    public void shouldReadDatabaseOnce_whenOwnerCached() {
+        index.get(TEST_OWNER_ID);
+        index.get(TEST_OWNER_ID);
+
+        verify(deviceRepository, times(1)).findIndexedByOwnerId(TEST_OWNER_ID);
+        assertEquals(4L, index.residentDevices());
+    }
+
+    @Test
+    public void shouldBypassIndex_untilChangeCompletes() {
+        index.get(TEST_OWNER_ID);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.beginChange(TEST_OWNER_ID);
+
+        index.get(TEST_OWNER_ID);
+        index.get(TEST_OWNER_ID);
+        assertEquals(0L, index.residentDevices());
+        assertEquals(2.0, meterRegistry.counter(CacheConstants.DeviceIndex.NAME + ".bypassed").count());
+
+        complete();
+
+        index.get(TEST_OWNER_ID);
+        index.get(TEST_OWNER_ID);
+        verify(deviceRepository, times(4)).findIndexedByOwnerId(TEST_OWNER_ID);
+    }
+
+    @Test
+    public void shouldDropOwner_whenAnotherInstancePublishesDeviceChange() {
+        index.get(TEST_OWNER_ID);
+
+        changeNotificationBus.publishDevicesChanged(TEST_OWNER_ID);
+        index.get(TEST_OWNER_ID);
+
+        verify(deviceRepository, times(2)).findIndexedByOwnerId(TEST_OWNER_ID);
+    }
+
+    @Test
+    public void shouldDropEveryOwner_whenNotificationsMayBeLost() {
+        index.get(TEST_OWNER_ID);
+
+        index.onGap();
+
+        assertEquals(0L, index.residentDevices());
+    }
+
+}
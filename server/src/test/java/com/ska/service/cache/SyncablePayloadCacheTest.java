@@ -0,0 +1,134 @@
+package com.ska.service.cache;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ska.model.syncable.vo.EncryptedContent;
+import com.ska.model.syncable.vo.EncryptedMetadata;
+import com.ska.service.result.SyncablePayload;
+import com.ska.util.constant.CacheConstants;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class SyncablePayloadCacheTest {
+
+    private static final Long TEST_OWNER_ID = 1L;
+    private static final int CONTENT_SIZE = 1024;
+    private static final long CONTENT_BYTES_MAX = 4L * (CONTENT_SIZE + CacheConstants.Payload.ENTRY_OVERHEAD);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SyncablePayloadCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SyncablePayloadCache(CacheConstants.Payload.METADATA_BYTES_MAX, CONTENT_BYTES_MAX, meterRegistry);
+    }
+
+    private static SyncablePayload payload(UUID uuid, long changeSeq, byte fill) {
+        byte[] metadata = new byte[16];
+        byte[] content = new byte[CONTENT_SIZE];
+        Arrays.fill(metadata, fill);
+        Arrays.fill(content, fill);
+
+        return new SyncablePayload(uuid, 0L, changeSeq, new EncryptedMetadata(metadata), new EncryptedContent(content));
+    }
+
+    @Test
+    public void shouldReturnCachedPayload_whenChangeSeqMatches() {
+        UUID uuid = UUID.randomUUID();
+        SyncablePayload stored = payload(uuid, 7L, (byte) 1);
+
+        cache.put(TEST_OWNER_ID, stored);
+        SyncablePayload cached = cache.get(TEST_OWNER_ID, uuid, 7L).orElseThrow();
+
+        assertArrayEquals(stored.metadata().getValue(), cached.metadata().getValue());
+        assertArrayEquals(stored.content().getValue(), cached.content().getValue());
+    }
+
+    @Test
+    public void shouldMiss_whenChangeSeqIsOutdated() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 7L, (byte) 1));
+
+        assertTrue(cache.get(TEST_OWNER_ID, uuid, 8L).isEmpty());
+    }
+
+    @Test
+    public void shouldPeekPayload_atCachedChangeSeq() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 7L, (byte) 1));
+
+        assertEquals(7L, cache.peek(TEST_OWNER_ID, uuid).orElseThrow().changeSeq());
+        assertTrue(cache.peek(TEST_OWNER_ID, UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    public void shouldMiss_afterInvalidate() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 7L, (byte) 1));
+
+        cache.invalidateAfterCommit(TEST_OWNER_ID, uuid);
+
+        assertTrue(cache.get(TEST_OWNER_ID, uuid, 7L).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnCopies_whenCallerMutatesBytes() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 7L, (byte) 1));
+
+        SyncablePayload first = cache.get(TEST_OWNER_ID, uuid, 7L).orElseThrow();
+        Arrays.fill(first.metadata().getValue(), (byte) 9);
+        Arrays.fill(first.content().getValue(), (byte) 9);
+
+        SyncablePayload second = cache.get(TEST_OWNER_ID, uuid, 7L).orElseThrow();
+        assertEquals(1, second.metadata().getValue()[0]);
+        assertEquals(1, second.content().getValue()[0]);
+    }
+
+    @Test
+    public void shouldMiss_whenOwnerDiffers() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 7L, (byte) 1));
+
+        assertTrue(cache.get(TEST_OWNER_ID + 1, uuid, 7L).isEmpty());
+    }
+
+    @Test
+    public void shouldStayWithinByteBudget() {
+        for (int i = 0; i < 16; i++)
+            cache.put(TEST_OWNER_ID, payload(UUID.randomUUID(), i, (byte) i));
+
+        double residentDirect = meterRegistry.get(CacheConstants.Payload.NAME + ".resident.bytes")
+                .tag("tier", "direct")
+                .gauge()
+                .value();
+        assertTrue(residentDirect <= CONTENT_BYTES_MAX);
+    }
+
+    @Test
+    public void shouldReportHitRatio() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(TEST_OWNER_ID, payload(uuid, 1L, (byte) 1));
+
+        cache.get(TEST_OWNER_ID, uuid, 1L);
+        cache.get(TEST_OWNER_ID, UUID.randomUUID(), 1L);
+
+        double hitRatio = meterRegistry.get(CacheConstants.Payload.NAME + ".hit.ratio")
+                .tag("tier", "heap")
+                .gauge()
+                .value();
+        assertEquals(0.5, hitRatio);
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.ska.service.push;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ska.service.presence.DevicePresenceTracker;
+import com.ska.util.constant.SyncConstants;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class DevicePushRegistryTest {
+
+    private static final Long TEST_DEVICE_ID = 1L;
+    private static final Long TEST_OTHER_DEVICE_ID = 2L;
+    private static final long TEST_TIMEOUT_MS = 5_000L;
+    private static final long TEST_QUIET_MS = 200L;
+
+    private DevicePresenceTracker devicePresenceTracker;
+    private DevicePushRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        devicePresenceTracker = mock(DevicePresenceTracker.class);
+        registry = new DevicePushRegistry(
+                new InProcessChangeNotificationBus(),
+                devicePresenceTracker,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    // === Helper-methods === //
+
+    // stands in for the servlet container: records sends and runs the callbacks it would run
+    private static final class RecordingSseEmitter extends SseEmitter {
+
+        private final BlockingQueue<List<Object>> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private volatile boolean failing;
+        private Runnable completionCallback;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing)
+                throw new IOException("Broken pipe");
+            events.add(builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList());
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable exception) {
+            closed.countDown();
+        }
+
+        private void disconnect() {
+            completionCallback.run();
+        }
+
+        private List<Object> nextEvent() throws InterruptedException {
+            return events.poll(TEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    private static boolean isNamed(List<Object> event, String name) {
+        return event.stream().anyMatch(part -> part.toString().contains("event:" + name + "\n"));
+    }
+
+    private RecordingSseEmitter openDrained(Long deviceId) throws InterruptedException {
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        registry.open(deviceId, emitter);
+        assertTrue(isNamed(emitter.nextEvent(), SyncConstants.Push.EVENT_RESYNC));
+        return emitter;
+    }
+
+    @Test
+    public void shouldSendResyncFirst_whenDeviceOpened() throws InterruptedException {
+        openDrained(TEST_DEVICE_ID);
+
+        assertEquals(1, registry.connections());
+    }
+
+    @Test
+    public void shouldSendChangedUuids_whenChangePublishedForDevice() throws InterruptedException {
+        RecordingSseEmitter emitter = openDrained(TEST_DEVICE_ID);
+        UUID uuid = UUID.randomUUID();
+
+        registry.onChange(new ChangeNotification(TEST_DEVICE_ID, List.of(uuid)));
+
+        List<Object> event = emitter.nextEvent();
+        assertTrue(isNamed(event, SyncConstants.Push.EVENT_CHANGES));
+        DeviceChannel.ChangesEvent changes = assertInstanceOf(
+                DeviceChannel.ChangesEvent.class,
+                event.stream().filter(DeviceChannel.ChangesEvent.class::isInstance).findFirst().orElse(null));
+        assertEquals(List.of(uuid), changes.uuids());
+    }
+
+    @Test
+    public void shouldNotSend_whenChangePublishedForOtherDevice() throws InterruptedException {
+        RecordingSseEmitter emitter = openDrained(TEST_DEVICE_ID);
+
+        registry.publish(List.of(TEST_OTHER_DEVICE_ID), List.of(UUID.randomUUID()));
+
+        assertNull(emitter.events.poll(TEST_QUIET_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldRemoveChannel_whenClientDisconnects() throws InterruptedException {
+        RecordingSseEmitter emitter = openDrained(TEST_DEVICE_ID);
+
+        emitter.disconnect();
+        registry.publish(List.of(TEST_DEVICE_ID), List.of(UUID.randomUUID()));
+
+        assertEquals(0, registry.connections());
+        assertNull(emitter.events.poll(TEST_QUIET_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldRemoveChannel_whenSendFails() throws InterruptedException {
+        RecordingSseEmitter emitter = openDrained(TEST_DEVICE_ID);
+        emitter.failing = true;
+
+        registry.heartbeat();
+
+        assertTrue(emitter.closed.await(TEST_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(0, registry.connections());
+        verify(devicePresenceTracker, never()).heartbeat(TEST_DEVICE_ID);
+    }
+
+    @Test
+    public void shouldBeatDevicePresence_whenHeartbeatSent() throws InterruptedException {
+        RecordingSseEmitter emitter = openDrained(TEST_DEVICE_ID);
+
+        registry.heartbeat();
+
+        assertTrue(emitter.nextEvent().stream().anyMatch(part -> part.toString().contains(":heartbeat")));
+        verify(devicePresenceTracker, timeout(TEST_TIMEOUT_MS)).heartbeat(TEST_DEVICE_ID);
+    }
+
+}
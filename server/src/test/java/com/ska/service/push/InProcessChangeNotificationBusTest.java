@@ -0,0 +1,113 @@
+package com.ska.service.push;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+class InProcessChangeNotificationBusTest {
+
+    private static final ChangeNotification TEST_NOTIFICATION = new ChangeNotification(
+            1L,
+            List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+    private InProcessChangeNotificationBus bus;
+    private List<ChangeNotification> received;
+
+    // === Helper-methods === //
+
+    private void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed)
+                synchronization.afterCommit();
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    @BeforeEach
+    void subscribe() {
+        bus = new InProcessChangeNotificationBus();
+        received = new ArrayList<>();
+        bus.subscribe(new ChangeNotificationBus.Listener() {
+
+            @Override
+            public void onChange(ChangeNotification notification) {
+                received.add(notification);
+            }
+
+            @Override
+            public void onGap() {
+            }
+
+        });
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void shouldDeliverAtOnce_whenNoTransaction() {
+        bus.publish(List.of(TEST_NOTIFICATION));
+
+        assertEquals(List.of(TEST_NOTIFICATION), received);
+    }
+
+    @Test
+    public void shouldDeliverAfterCommit_whenInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(List.of(TEST_NOTIFICATION));
+
+        assertTrue(received.isEmpty());
+
+        completeTransaction(true);
+
+        assertEquals(List.of(TEST_NOTIFICATION), received);
+    }
+
+    @Test
+    public void shouldDrop_whenTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(List.of(TEST_NOTIFICATION));
+
+        completeTransaction(false);
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void shouldRoundTripPostgresPayload_whenSplitIntoChunks() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 450; i++)
+            uuids.add(UUID.randomUUID());
+
+        List<String> payloads = PostgresChangeNotificationBus.encode(new ChangeNotification(7L, uuids));
+
+        assertEquals(3, payloads.size());
+        payloads.forEach(payload -> assertTrue(payload.length() < 8000));
+        assertEquals(
+                uuids,
+                payloads.stream()
+                        .map(PostgresChangeNotificationBus::decode)
+                        .flatMap(notification -> notification.uuids().stream())
+                        .toList());
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.ska.service.queue;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.model.sync_queue.SyncMode;
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.EntityRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.repository.projection.DeviceSyncStateView;
+import com.ska.service.cache.DeviceIndex;
+import com.ska.util.constant.SyncConstants;
+
+
+class SyncModeSwitchTest {
+
+    private static final Long TEST_OWNER_ID = 1L;
+    private static final Long TEST_DEVICE_ID = 10L;
+
+    private DeviceRepository deviceRepository;
+    private DeviceIndex deviceIndex;
+    private UserRepository userRepository;
+    private EntityRepository entityRepository;
+    private EntityTombstoneRepository entityTombstoneRepository;
+    private SyncQueueItemRepository syncQueueItemRepository;
+    private SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private SyncModeSwitch syncModeSwitch;
+
+    // === Helper-methods === //
+
+    private DeviceSyncStateView state(SyncMode syncMode, long ackedChangeSeq) {
+        return new DeviceSyncStateView(TEST_DEVICE_ID, TEST_OWNER_ID, syncMode, ackedChangeSeq);
+    }
+
+    @BeforeEach
+    void createSwitch() {
+        deviceRepository = mock(DeviceRepository.class);
+        deviceIndex = mock(DeviceIndex.class);
+        userRepository = mock(UserRepository.class);
+        entityRepository = mock(EntityRepository.class);
+        entityTombstoneRepository = mock(EntityTombstoneRepository.class);
+        syncQueueItemRepository = mock(SyncQueueItemRepository.class);
+        syncQueueJdbcRepository = mock(SyncQueueJdbcRepository.class);
+        syncQueuePendingJdbcRepository = mock(SyncQueuePendingJdbcRepository.class);
+        syncModeSwitch = new SyncModeSwitch(
+                deviceRepository,
+                deviceIndex,
+                userRepository,
+                entityRepository,
+                entityTombstoneRepository,
+                syncQueueItemRepository,
+                syncQueueJdbcRepository,
+                syncQueuePendingJdbcRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    public void shouldDemoteBelowLowestQueuedChange_whenBacklogged() {
+        when(syncQueueItemRepository.findDeviceIdsWithBacklogAbove(SyncConstants.Watermark.BACKLOG_MAX))
+                .thenReturn(List.of(TEST_DEVICE_ID));
+        when(deviceRepository.findSyncStateById(TEST_DEVICE_ID)).thenReturn(Optional.of(state(SyncMode.QUEUE, 0)));
+        when(syncQueuePendingJdbcRepository.findDurableSeq(TEST_OWNER_ID)).thenReturn(500L);
+        when(syncQueueItemRepository.findLowestChangeSeqByDeviceId(TEST_DEVICE_ID)).thenReturn(42L);
+
+        syncModeSwitch.rebalance();
+
+        InOrder order = inOrder(userRepository, deviceIndex, deviceRepository);
+        order.verify(userRepository).lockChangeSeq(TEST_OWNER_ID);
+        order.verify(deviceIndex).beginChange(TEST_OWNER_ID);
+        order.verify(deviceRepository).updateSyncState(TEST_DEVICE_ID, SyncMode.WATERMARK, 41L);
+    }
+
+    @Test
+    public void shouldDemoteBelowPendingMarkers_whenChangesStillBuffered() {
+        when(syncQueueItemRepository.findDeviceIdsWithBacklogAbove(SyncConstants.Watermark.BACKLOG_MAX))
+                .thenReturn(List.of(TEST_DEVICE_ID));
+        when(deviceRepository.findSyncStateById(TEST_DEVICE_ID)).thenReturn(Optional.of(state(SyncMode.QUEUE, 0)));
+        when(syncQueuePendingJdbcRepository.findDurableSeq(TEST_OWNER_ID)).thenReturn(30L);
+        when(syncQueueItemRepository.findLowestChangeSeqByDeviceId(TEST_DEVICE_ID)).thenReturn(42L);
+
+        syncModeSwitch.rebalance();
+
+        verify(deviceRepository, times(1)).updateSyncState(TEST_DEVICE_ID, SyncMode.WATERMARK, 30L);
+    }
+
+    @Test
+    public void shouldKeepQueue_whenSeenThroughAnotherInstance() {
+        Instant seenBefore = Instant.parse("2026-01-01T00:00:00Z");
+        Instant lastSeenAt = seenBefore.plusSeconds(60);
+        when(deviceRepository.findLastSeenAtById(TEST_DEVICE_ID)).thenReturn(lastSeenAt);
+
+        assertEquals(Optional.of(lastSeenAt), syncModeSwitch.demoteIfDormant(TEST_DEVICE_ID, seenBefore));
+
+        verifyNoInteractions(userRepository, deviceIndex);
+        verify(deviceRepository, never()).updateSyncState(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void shouldDemote_whenDormant() {
+        Instant seenBefore = Instant.parse("2026-01-01T00:00:00Z");
+        when(deviceRepository.findLastSeenAtById(TEST_DEVICE_ID)).thenReturn(seenBefore.minusSeconds(60));
+        when(deviceRepository.findSyncStateById(TEST_DEVICE_ID)).thenReturn(Optional.of(state(SyncMode.QUEUE, 0)));
+        when(syncQueuePendingJdbcRepository.findDurableSeq(TEST_OWNER_ID)).thenReturn(30L);
+
+        assertEquals(Optional.empty(), syncModeSwitch.demoteIfDormant(TEST_DEVICE_ID, seenBefore));
+
+        verify(deviceRepository, times(1)).updateSyncState(TEST_DEVICE_ID, SyncMode.WATERMARK, 30L);
+    }
+
+    @Test
+    public void shouldStayOnWatermark_whenTooFarBehind() {
+        DeviceSyncStateView state = state(SyncMode.WATERMARK, 10);
+
+        DeviceSyncStateView result = syncModeSwitch.promoteIfCaughtUp(
+                state,
+                10 + SyncConstants.Watermark.PROMOTION_LAG_MAX + 1);
+
+        assertSame(state, result);
+        verifyNoInteractions(userRepository, deviceIndex, syncQueueJdbcRepository);
+        verify(deviceRepository, never()).updateSyncState(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    public void shouldQueueChangesSinceWatermark_whenPromoted() {
+        List<UUID> deleted = List.of(UUID.randomUUID());
+        List<UUID> live = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(entityTombstoneRepository.findChangedUuidsByOwnerId(TEST_OWNER_ID, 90L)).thenReturn(deleted);
+        when(entityRepository.findChangedUuidsByOwnerId(TEST_OWNER_ID, 90L)).thenReturn(live);
+
+        DeviceSyncStateView result = syncModeSwitch.promoteIfCaughtUp(state(SyncMode.WATERMARK, 90), 100);
+
+        assertEquals(SyncMode.QUEUE, result.syncMode());
+
+        InOrder order = inOrder(userRepository, syncQueueJdbcRepository, deviceRepository);
+        order.verify(userRepository).lockChangeSeq(TEST_OWNER_ID);
+        order.verify(syncQueueJdbcRepository)
+                .upsertAll(List.of(TEST_DEVICE_ID), deleted, QueueAction.DELETE, false, 91L);
+        order.verify(syncQueueJdbcRepository)
+                .upsertAll(List.of(TEST_DEVICE_ID), live, QueueAction.SYNC_FULL, true, 91L);
+        order.verify(deviceRepository).updateSyncState(TEST_DEVICE_ID, SyncMode.QUEUE, 90L);
+    }
+
+}
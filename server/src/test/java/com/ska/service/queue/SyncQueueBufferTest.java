@@ -0,0 +1,243 @@
+package com.ska.service.queue;
+
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.model.sync_queue.QueueAction;
+import com.ska.repository.SyncQueueJdbcRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.projection.QueueTarget;
+import com.ska.service.push.ChangeNotificationBus;
+import com.ska.util.constant.SyncConstants;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+class SyncQueueBufferTest {
+
+    private static final Long TEST_OWNER_ID = 1L;
+    private static final Long TEST_DEVICE_ID = 10L;
+    private static final UUID TEST_UUID = UUID.randomUUID();
+    // pair with the lowest change sequence merged into it
+    private static final Map<QueueTarget, Long> TEST_TARGETS = Map.of(new QueueTarget(TEST_DEVICE_ID, TEST_UUID), 1L);
+
+    private SyncQueueJdbcRepository syncQueueJdbcRepository;
+    private SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private SyncQueueBuffer buffer;
+
+    // === Helper-methods === //
+
+    private void offer(long seq, QueueAction action, boolean replace) {
+        buffer.offer(TEST_OWNER_ID, seq, seq, List.of(TEST_DEVICE_ID), List.of(TEST_UUID), action, replace);
+    }
+
+    @BeforeEach
+    void createBuffer() {
+        syncQueueJdbcRepository = mock(SyncQueueJdbcRepository.class);
+        syncQueuePendingJdbcRepository = mock(SyncQueuePendingJdbcRepository.class);
+        buffer = new SyncQueueBuffer(
+                syncQueueJdbcRepository,
+                syncQueuePendingJdbcRepository,
+                mock(ChangeNotificationBus.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+        buffer.shutdown();
+    }
+
+    @Test
+    public void shouldWriteOneRow_whenPairChangedRepeatedly() {
+        for (int seq = 1; seq <= 20; seq++)
+            offer(seq, seq % 2 == 0 ? QueueAction.SYNC_FULL : QueueAction.SYNC_METADATA, false);
+
+        buffer.flush();
+
+        verify(syncQueueJdbcRepository, times(1)).upsert(TEST_TARGETS, QueueAction.SYNC_FULL, false);
+        verify(syncQueuePendingJdbcRepository, times(1)).release(
+                any(UUID.class),
+                eq(Map.of(TEST_OWNER_ID, 20L)),
+                eq(Map.of()));
+    }
+
+    @Test
+    public void shouldKeepDelete_whenUpdatedAfterDelete() {
+        offer(1, QueueAction.DELETE, false);
+        offer(2, QueueAction.SYNC_FULL, false);
+
+        buffer.flush();
+
+        verify(syncQueueJdbcRepository, times(1)).upsert(TEST_TARGETS, QueueAction.DELETE, false);
+    }
+
+    @Test
+    public void shouldReplaceDelete_whenRecreated() {
+        offer(1, QueueAction.DELETE, false);
+        offer(2, QueueAction.SYNC_FULL, true);
+        offer(3, QueueAction.SYNC_METADATA, false);
+
+        buffer.flush();
+
+        verify(syncQueueJdbcRepository, times(1)).upsert(TEST_TARGETS, QueueAction.SYNC_FULL, true);
+    }
+
+    @Test
+    public void shouldNotWrite_whenNothingBuffered() {
+        buffer.flush();
+
+        verifyNoInteractions(syncQueueJdbcRepository, syncQueuePendingJdbcRepository);
+    }
+
+    @Test
+    public void shouldMarkChange_beforeItIsBuffered() {
+        TransactionSynchronizationManager.initSynchronization();
+        offer(3, QueueAction.SYNC_FULL, false);
+
+        verify(syncQueuePendingJdbcRepository, times(1)).mark(any(UUID.class), eq(TEST_OWNER_ID), eq(3L), eq(3L));
+    }
+
+    @Test
+    public void shouldMarkOnce_whenOwnerChangedWithinFlushWindow() {
+        for (int seq = 1; seq <= 20; seq++)
+            offer(seq, QueueAction.SYNC_FULL, false);
+
+        verify(syncQueuePendingJdbcRepository, times(1)).mark(any(UUID.class), eq(TEST_OWNER_ID), eq(1L), eq(1L));
+
+        buffer.flush();
+        offer(21, QueueAction.SYNC_FULL, false);
+
+        verify(syncQueuePendingJdbcRepository, times(1)).mark(any(UUID.class), eq(TEST_OWNER_ID), eq(21L), eq(21L));
+        verify(syncQueuePendingJdbcRepository, times(2)).mark(any(UUID.class), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldMarkAgain_whenMarkingTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        offer(1, QueueAction.SYNC_FULL, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        offer(2, QueueAction.SYNC_FULL, false);
+
+        verify(syncQueuePendingJdbcRepository, times(1)).mark(any(UUID.class), eq(TEST_OWNER_ID), eq(2L), eq(2L));
+    }
+
+    @Test
+    public void shouldFlushOnFlusherThread_whenBufferOverflowsAfterCommit() {
+        AtomicReference<Thread> flushingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            flushingThread.set(Thread.currentThread());
+            return null;
+        }).when(syncQueueJdbcRepository).upsert(anyMap(), any(QueueAction.class), anyBoolean());
+
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i <= SyncConstants.Queue.BUFFER_PAIRS_MAX; i++)
+            uuids.add(UUID.randomUUID());
+
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.offer(TEST_OWNER_ID, 1L, 1L, List.of(TEST_DEVICE_ID), uuids, QueueAction.SYNC_FULL, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(syncQueueJdbcRepository, timeout(5_000L)).upsert(anyMap(), eq(QueueAction.SYNC_FULL), eq(false));
+        assertNotSame(Thread.currentThread(), flushingThread.get());
+    }
+
+    @Test
+    public void shouldKeepMarker_belowChangeInFlight() {
+        TransactionSynchronizationManager.initSynchronization();
+        offer(5, QueueAction.SYNC_FULL, false);
+        List<TransactionSynchronization> inFlight = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        offer(6, QueueAction.SYNC_FULL, false);
+        buffer.flush();
+        verify(syncQueuePendingJdbcRepository, times(1)).release(
+                any(UUID.class),
+                eq(Map.of(TEST_OWNER_ID, 6L)),
+                eq(Map.of(TEST_OWNER_ID, 5L)));
+
+        inFlight.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        buffer.flush();
+        verify(syncQueuePendingJdbcRepository, times(1)).release(
+                any(UUID.class),
+                eq(Map.of(TEST_OWNER_ID, 5L)),
+                eq(Map.of()));
+    }
+
+    @Test
+    public void shouldDropChange_whenTransactionRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        offer(1, QueueAction.DELETE, false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        buffer.flush();
+
+        verifyNoInteractions(syncQueueJdbcRepository);
+        verify(syncQueuePendingJdbcRepository, never()).release(any(UUID.class), anyMap(), anyMap());
+    }
+
+    @Test
+    public void shouldKeepPairs_whenFlushFailed() {
+        doThrow(new IllegalStateException("database down"))
+                .doNothing()
+                .when(syncQueueJdbcRepository).upsert(anyMap(), any(QueueAction.class), anyBoolean());
+
+        offer(1, QueueAction.SYNC_METADATA, false);
+        buffer.flush();
+        offer(2, QueueAction.DELETE, false);
+        buffer.flush();
+
+        verify(syncQueueJdbcRepository, times(1)).upsert(TEST_TARGETS, QueueAction.DELETE, false);
+        verify(syncQueuePendingJdbcRepository, times(1)).release(
+                any(UUID.class),
+                eq(Map.of(TEST_OWNER_ID, 2L)),
+                eq(Map.of()));
+    }
+
+    @Test
+    public void shouldNotRewriteRows_whenReleasingMarkersFailed() {
+        doThrow(new IllegalStateException("database down"))
+                .when(syncQueuePendingJdbcRepository).release(any(UUID.class), anyMap(), anyMap());
+
+        offer(1, QueueAction.SYNC_FULL, false);
+        buffer.flush();
+        buffer.flush();
+
+        verify(syncQueueJdbcRepository, times(1)).upsert(TEST_TARGETS, QueueAction.SYNC_FULL, false);
+    }
+
+}
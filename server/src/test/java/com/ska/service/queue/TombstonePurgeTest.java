@@ -0,0 +1,112 @@
+package com.ska.service.queue;
+
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ska.repository.DeviceRepository;
+import com.ska.repository.EntityTombstoneRepository;
+import com.ska.repository.SyncQueueItemRepository;
+import com.ska.repository.SyncQueuePendingJdbcRepository;
+import com.ska.repository.UserRepository;
+import com.ska.util.constant.SyncConstants;
+
+
+class TombstonePurgeTest {
+
+    private static final Long TEST_OWNER_ID = 1L;
+    private static final int TEST_BATCH_SIZE = SyncConstants.Watermark.PURGE_BATCH_SIZE;
+
+    private UserRepository userRepository;
+    private DeviceRepository deviceRepository;
+    private EntityTombstoneRepository entityTombstoneRepository;
+    private SyncQueueItemRepository syncQueueItemRepository;
+    private SyncQueuePendingJdbcRepository syncQueuePendingJdbcRepository;
+    private TombstonePurge tombstonePurge;
+
+    @BeforeEach
+    void createPurge() {
+        userRepository = mock(UserRepository.class);
+        deviceRepository = mock(DeviceRepository.class);
+        entityTombstoneRepository = mock(EntityTombstoneRepository.class);
+        syncQueueItemRepository = mock(SyncQueueItemRepository.class);
+        syncQueuePendingJdbcRepository = mock(SyncQueuePendingJdbcRepository.class);
+        tombstonePurge = new TombstonePurge(
+                userRepository,
+                deviceRepository,
+                entityTombstoneRepository,
+                syncQueueItemRepository,
+                syncQueuePendingJdbcRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        when(entityTombstoneRepository.findOwnerIdsWithTombstones()).thenReturn(List.of(TEST_OWNER_ID));
+        when(userRepository.lockChangeSeq(TEST_OWNER_ID)).thenReturn(1);
+        when(syncQueuePendingJdbcRepository.findDurableSeq(TEST_OWNER_ID)).thenReturn(500L);
+    }
+
+    @Test
+    public void shouldPurgeUpToLowestReader_whenDevicesBehind() {
+        when(deviceRepository.findLowestWatermarkAckedByOwnerId(TEST_OWNER_ID)).thenReturn(300L);
+        when(syncQueueItemRepository.findLowestQueueModeChangeSeqByOwnerId(TEST_OWNER_ID)).thenReturn(120L);
+
+        tombstonePurge.purge();
+
+        InOrder order = inOrder(userRepository, entityTombstoneRepository);
+        order.verify(userRepository).lockChangeSeq(TEST_OWNER_ID);
+        order.verify(userRepository).advanceTombstonePurgedSeq(TEST_OWNER_ID, 119L);
+        order.verify(entityTombstoneRepository).deleteBatchUpTo(TEST_OWNER_ID, 119L, TEST_BATCH_SIZE);
+    }
+
+    @Test
+    public void shouldPurgeUpToDurableSeq_whenNoDeviceBehind() {
+        tombstonePurge.purge();
+
+        verify(userRepository).advanceTombstonePurgedSeq(TEST_OWNER_ID, 500L);
+        verify(entityTombstoneRepository).deleteBatchUpTo(TEST_OWNER_ID, 500L, TEST_BATCH_SIZE);
+    }
+
+    @Test
+    public void shouldPurgeNothing_whenDeviceOnChangeLogAtStart() {
+        when(deviceRepository.findLowestWatermarkAckedByOwnerId(TEST_OWNER_ID)).thenReturn(0L);
+
+        tombstonePurge.purge();
+
+        verify(userRepository, never()).advanceTombstonePurgedSeq(anyLong(), anyLong());
+        verify(entityTombstoneRepository, never()).deleteBatchUpTo(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void shouldDeleteInBatches_untilBatchNotFull() {
+        when(entityTombstoneRepository.deleteBatchUpTo(TEST_OWNER_ID, 500L, TEST_BATCH_SIZE))
+                .thenReturn(TEST_BATCH_SIZE, 7);
+
+        tombstonePurge.purge();
+
+        verify(userRepository, times(2)).lockChangeSeq(TEST_OWNER_ID);
+        verify(entityTombstoneRepository, times(2)).deleteBatchUpTo(TEST_OWNER_ID, 500L, TEST_BATCH_SIZE);
+    }
+
+    @Test
+    public void shouldSkipOwner_whenDeletedMeanwhile() {
+        when(userRepository.lockChangeSeq(TEST_OWNER_ID)).thenReturn(0);
+
+        tombstonePurge.purge();
+
+        verify(entityTombstoneRepository, never()).deleteBatchUpTo(anyLong(), anyLong(), anyInt());
+    }
+
+}
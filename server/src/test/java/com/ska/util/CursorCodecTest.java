@@ -0,0 +1,41 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+class CursorCodecTest {
+
+    private static final String INVALID_MESSAGE = "Cursor is invalid";
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0L, 1L, 42L, Long.MAX_VALUE })
+    public void shouldDecodeEncodedPosition(long position) {
+        assertEquals(position, CursorCodec.decode(CursorCodec.encode(position)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "not a cursor", "AAAA", "AAAAAAAAAAAAAAAAAAAA" })
+    public void shouldThrowBusinessRuleViolationException_whenMalformedCursor(String cursor) {
+        BusinessRuleViolationException exception = assertThrows(
+                BusinessRuleViolationException.class,
+                () -> CursorCodec.decode(cursor));
+        assertEquals(INVALID_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    public void shouldThrowBusinessRuleViolationException_whenNegativePosition() {
+        BusinessRuleViolationException exception = assertThrows(
+                BusinessRuleViolationException.class,
+                () -> CursorCodec.decode(CursorCodec.encode(-1L)));
+        assertEquals(INVALID_MESSAGE, exception.getMessage());
+    }
+
+}
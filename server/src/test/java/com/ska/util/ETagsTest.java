@@ -0,0 +1,55 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+class ETagsTest {
+
+    @Test
+    public void shouldQuoteChangeSeq() {
+        assertEquals("\"42\"", ETags.of(42L));
+    }
+
+    @Test
+    public void shouldMatch_whenAnyListedTagMatches() {
+        assertTrue(ETags.matchesAny("\"7\", \"42\"", 42L));
+        assertTrue(ETags.matchesAny("W/\"42\"", 42L));
+        assertTrue(ETags.matchesAny("*", 42L));
+    }
+
+    @Test
+    public void shouldNotMatch_whenNoListedTagMatches() {
+        assertFalse(ETags.matchesAny(null, 42L));
+        assertFalse(ETags.matchesAny("\"41\"", 42L));
+        assertFalse(ETags.matchesAny("42", 42L));
+    }
+
+    @Test
+    public void shouldParseChangeSeq_whenStrongTag() {
+        assertEquals(42L, ETags.parseChangeSeq(" \"42\" "));
+    }
+
+    @Test
+    public void shouldParseNull_whenAbsentOrAny() {
+        assertNull(ETags.parseChangeSeq(null));
+        assertNull(ETags.parseChangeSeq("*"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "42", "\"\"", "W/\"42\"", "\"-1\"", "\"4x\"", "\"1\", \"2\"" })
+    public void shouldThrowBusinessRuleViolationException_whenMalformedTag(String header) {
+        assertThrows(BusinessRuleViolationException.class, () -> ETags.parseChangeSeq(header));
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 10L;
+    private static final long START_MS = 1_000L;
+
+    // 4 slots per level, 3 levels turn every 64 ticks
+    private static HierarchicalTimingWheel<String> wheel() {
+        return new HierarchicalTimingWheel<>(TICK_MS, 2, 3, START_MS);
+    }
+
+    // === Helper-methods === //
+
+    private static List<String> advance(HierarchicalTimingWheel<String> wheel, long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+
+    @Test
+    public void shouldExpireOnDeadline_notBefore() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.schedule("a", START_MS + 35);
+
+        assertEquals(List.of(), advance(wheel, START_MS + 39));
+        assertEquals(List.of("a"), advance(wheel, START_MS + 40));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void shouldExpireEveryKeyOnItsTick_acrossLevels() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+
+        // up to three turns of the top level, so some are parked and placed again
+        for (int i = 0; i < 500; i++) {
+            long deadline = START_MS + TICK_MS * (1 + random.nextInt(200));
+            deadlines.put("k" + i, deadline);
+            wheel.schedule("k" + i, deadline);
+        }
+
+        for (long now = START_MS + TICK_MS; now <= START_MS + TICK_MS * 201; now += TICK_MS)
+            for (String key : advance(wheel, now))
+                assertEquals(now, (long) deadlines.remove(key), key);
+
+        assertTrue(deadlines.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void shouldMoveDeadline_whenRescheduled() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.schedule("a", START_MS + 20);
+        wheel.schedule("a", START_MS + 500);
+
+        assertEquals(List.of(), advance(wheel, START_MS + 490));
+        assertEquals(START_MS + 500, wheel.deadlineOf("a").getAsLong());
+        assertEquals(List.of("a"), advance(wheel, START_MS + 500));
+    }
+
+    @Test
+    public void shouldNotExpire_whenCancelled() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        wheel.schedule("a", START_MS + 20);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(List.of(), advance(wheel, START_MS + 1_000));
+    }
+
+    @Test
+    public void shouldExpireOnNextAdvance_whenDeadlinePassed() {
+        HierarchicalTimingWheel<String> wheel = wheel();
+        advance(wheel, START_MS + 100);
+        wheel.schedule("a", START_MS);
+
+        assertEquals(List.of("a"), advance(wheel, START_MS + 110));
+    }
+
+}
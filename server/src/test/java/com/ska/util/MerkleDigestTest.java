@@ -0,0 +1,93 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.ska.exception.BusinessRuleViolationException;
+
+
+class MerkleDigestTest {
+
+    private static final String INVALID_PREFIX_MESSAGE = "Prefix must be up to 3 hex digits";
+
+    @Test
+    public void shouldMatchRecomputedDigest_whenUpdatedIncrementally() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            uuids.add(UUID.randomUUID());
+
+        long incremental = 0;
+        for (UUID uuid : uuids)
+            incremental ^= MerkleDigest.leaf(uuid, 0);
+        // update of the first syncable, delete of the last
+        incremental ^= MerkleDigest.leaf(uuids.get(0), 0) ^ MerkleDigest.leaf(uuids.get(0), 1);
+        incremental ^= MerkleDigest.leaf(uuids.get(99), 0);
+
+        long recomputed = MerkleDigest.leaf(uuids.get(0), 1);
+        for (UUID uuid : uuids.subList(1, 99))
+            recomputed ^= MerkleDigest.leaf(uuid, 0);
+
+        assertEquals(recomputed, incremental);
+    }
+
+    @Test
+    public void shouldChangeLeaf_whenChangeSeqChanged() {
+        UUID uuid = UUID.randomUUID();
+
+        assertNotEquals(MerkleDigest.leaf(uuid, 1), MerkleDigest.leaf(uuid, 2));
+    }
+
+    @Test
+    public void shouldChangeDigest_whenDeletedSyncableRecreated() {
+        UUID uuid = UUID.randomUUID();
+        long created = MerkleDigest.leaf(uuid, 3);
+
+        // delete, then create again at version 0 under a later change sequence
+        long recreated = created ^ MerkleDigest.leaf(uuid, 3) ^ MerkleDigest.leaf(uuid, 7);
+
+        assertNotEquals(created, recreated);
+    }
+
+    @Test
+    public void shouldSpanWholePrefix_whenBoundsPadded() {
+        assertEquals("a3f00000-0000-0000-0000-000000000000", MerkleDigest.lowerBound("a3f").toString());
+        assertEquals("a3ffffff-ffff-ffff-ffff-ffffffffffff", MerkleDigest.upperBound("a3f").toString());
+        assertEquals("ffffffff-ffff-ffff-ffff-ffffffffffff", MerkleDigest.upperBound("").toString());
+    }
+
+    @Test
+    public void shouldTakeLeadingHexDigits_whenPrefixed() {
+        UUID uuid = UUID.fromString("a3f01234-0000-0000-0000-000000000000");
+
+        assertEquals("", MerkleDigest.prefix(uuid, 0));
+        assertEquals("a3f", MerkleDigest.prefix(uuid, 3));
+    }
+
+    @Test
+    public void shouldLowercasePrefix_whenValid() {
+        assertEquals("a3f", MerkleDigest.validatePrefix("A3F"));
+        assertEquals("", MerkleDigest.validatePrefix(""));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = { "g", "a3-", "a3f0" })
+    public void shouldThrowBusinessRuleViolationException_whenMalformedPrefix(String prefix) {
+        BusinessRuleViolationException exception = assertThrows(
+                BusinessRuleViolationException.class,
+                () -> MerkleDigest.validatePrefix(prefix));
+        assertEquals(INVALID_PREFIX_MESSAGE, exception.getMessage());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+class NdjsonWriterTest {
+
+    private static final int TEST_FLUSH_EVERY = 3;
+
+    private ObjectMapper objectMapper;
+    private RecordingOutputStream target;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        target = new RecordingOutputStream();
+    }
+
+    // === Helper-methods === //
+
+    private static final class RecordingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int flushes;
+        private boolean failing;
+        private boolean closed;
+
+        @Override
+        public void write(int value) throws IOException {
+            write(new byte[] { (byte) value }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            if (failing)
+                throw new IOException("Connection reset");
+            bytes.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (failing)
+                throw new IOException("Connection reset");
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private String text() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+
+    }
+
+    private NdjsonWriter writer() throws IOException {
+        return new NdjsonWriter(objectMapper, target, TEST_FLUSH_EVERY);
+    }
+
+    @Test
+    public void shouldWriteOneValuePerLine() throws IOException {
+        try (NdjsonWriter writer = writer()) {
+            writer.write(Map.of("id", 1));
+            writer.write("text");
+            writer.write(42);
+        }
+
+        assertEquals("{\"id\":1}\n\"text\"\n42\n", target.text());
+    }
+
+    @Test
+    public void shouldFlushFirstLine_thenEveryFlushEveryLines() throws IOException {
+        NdjsonWriter writer = writer();
+
+        writer.write(1);
+        assertEquals("1\n", target.text());
+        assertEquals(1, target.flushes);
+
+        writer.write(2);
+        assertEquals("1\n", target.text());
+
+        writer.write(3);
+        assertEquals("1\n2\n3\n", target.text());
+        assertEquals(2, target.flushes);
+
+        writer.write(4);
+        assertEquals(4L, writer.getWritten());
+        assertEquals("1\n2\n3\n", target.text());
+    }
+
+    @Test
+    public void shouldWriteBufferedLines_whenClosed_withoutClosingTarget() throws IOException {
+        NdjsonWriter writer = writer();
+        writer.write(1);
+        writer.write(2);
+
+        writer.close();
+
+        assertEquals("1\n2\n", target.text());
+        assertFalse(target.closed);
+    }
+
+    @Test
+    public void shouldThrowUncheckedIOException_whenTargetFailsMidStream() throws IOException {
+        NdjsonWriter writer = writer();
+        writer.write(1);
+        writer.write(2);
+
+        target.failing = true;
+
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class, () -> writer.write(3));
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals("1\n", target.text());
+    }
+
+}
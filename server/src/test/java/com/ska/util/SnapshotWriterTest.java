@@ -0,0 +1,83 @@
+package com.ska.util;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ska.util.constant.SyncConstants;
+
+
+class SnapshotWriterTest {
+
+    private static final long TEST_WATERMARK = 42L;
+
+    @TempDir
+    private Path directory;
+
+    // === Helper-methods === //
+
+    private static DataInputStream open(Path path) throws IOException {
+        return new DataInputStream(Files.newInputStream(path));
+    }
+
+    private static void assertHeader(DataInputStream input, int count) throws IOException {
+        assertEquals(SyncConstants.Snapshot.MAGIC, input.readInt());
+        assertEquals(SyncConstants.Snapshot.FORMAT_VERSION, input.readShort());
+        assertEquals(TEST_WATERMARK, input.readLong());
+        assertEquals(count, input.readInt());
+    }
+
+    @Test
+    public void shouldReadBackRecords_whenFinished() throws IOException {
+        Path path = directory.resolve("1-42.snap");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        try (SnapshotWriter writer = new SnapshotWriter(path, TEST_WATERMARK)) {
+            writer.write(first, 1L, 40L, new byte[] { 1, 2 }, new byte[] { 3 });
+            writer.write(second, 3L, 42L, new byte[] { 4 }, new byte[] { 5, 6, 7 });
+            assertEquals(2, writer.finish());
+        }
+
+        try (DataInputStream input = open(path)) {
+            assertHeader(input, 2);
+
+            assertEquals(first, new UUID(input.readLong(), input.readLong()));
+            assertEquals(1L, input.readLong());
+            assertEquals(40L, input.readLong());
+            assertArrayEquals(new byte[] { 1, 2 }, input.readNBytes(input.readInt()));
+            assertArrayEquals(new byte[] { 3 }, input.readNBytes(input.readInt()));
+
+            assertEquals(second, new UUID(input.readLong(), input.readLong()));
+            assertEquals(3L, input.readLong());
+            assertEquals(42L, input.readLong());
+            assertArrayEquals(new byte[] { 4 }, input.readNBytes(input.readInt()));
+            assertArrayEquals(new byte[] { 5, 6, 7 }, input.readNBytes(input.readInt()));
+
+            assertEquals(-1, input.read());
+        }
+    }
+
+    @Test
+    public void shouldKeepZeroCount_whenNotFinished() throws IOException {
+        Path path = directory.resolve("1-42.snap");
+
+        try (SnapshotWriter writer = new SnapshotWriter(path, TEST_WATERMARK)) {
+            writer.write(UUID.randomUUID(), 1L, 42L, new byte[] { 1 }, new byte[] { 2 });
+        }
+
+        try (DataInputStream input = open(path)) {
+            assertHeader(input, 0);
+        }
+    }
+
+}